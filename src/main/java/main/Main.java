@@ -21,6 +21,7 @@ import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.stage.Window;
+import main.game.model.world.pathfinder.JumpPointPathFinder;
 import main.game.model.world.saveandload.DefaultWorldLoader;
 import main.game.model.world.saveandload.DefaultWorldSaveModel;
 import main.game.model.world.saveandload.DefaultWorldSaveModel.DefaultFilesystem;
@@ -92,10 +93,19 @@ public class Main extends Application {
     if (getParameters().getUnnamed().contains("--debug")) {
       config.enableDebugMode();
     }
+    if (getParameters().getUnnamed().contains("--unbuffered")) {
+      config.disableBufferedRendering();
+    }
+    if (getParameters().getNamed().containsKey("fps")) {
+      config.setTargetFps(Integer.parseInt(getParameters().getNamed().get("fps")));
+    }
     config.setScreenDim((int) primaryStage.getWidth(), (int) primaryStage.getHeight());
+    final DefaultWorldLoader worldLoader = getParameters().getUnnamed().contains("--jps")
+        ? new DefaultWorldLoader(JumpPointPathFinder::new)
+        : new DefaultWorldLoader();
     final MainMenu mainMenu = new MainMenu(
         this,
-        new DefaultWorldLoader(),
+        worldLoader,
         new DefaultWorldSaveModel(new DefaultFilesystem()),
         imageView,
         config
@@ -156,7 +156,8 @@ public class DefaultGameController implements GameController {
   public void onMouseEvent(MouseClick mouseEvent) {
 
     //select the unit under the click if there is one
-    Unit selectedUnit = model.getAllUnits()
+    Unit selectedUnit = model.getWorld()
+        .queryRadius(mouseEvent.getLocation(), Unit.MAX_SIZE)
         .stream()
         .filter(u -> u.getCentre().distanceTo(mouseEvent.getLocation())
             <= Math.max(u.getSize().width, u.getSize().height))
@@ -240,9 +241,10 @@ public class DefaultGameController implements GameController {
           model.getHeroUnit().setTarget(new TargetItem(model.getHeroUnit(), selectedItem));
         }
       } else {
-        // move all selectedAbility units to the clicked location
+        // move all selectedAbility units to the clicked location, sharing one flow field
+        boolean isGroup = model.getUnitSelection().size() > 1;
         for (Unit unit : model.getUnitSelection()) {
-          unit.setTarget(new TargetMapPoint(unit, mouseEvent.getLocation()));
+          unit.setTarget(new TargetMapPoint(unit, mouseEvent.getLocation(), isGroup));
         }
       }
     }
@@ -266,7 +268,8 @@ public class DefaultGameController implements GameController {
    * @param mouseEvent -- the MouseClick object for the current mouse click
    */
   public void onMouseDrag(MouseDrag mouseEvent) {
-    Collection<Unit> selectedUnits = model.getAllUnits()
+    Collection<Unit> selectedUnits = model.getWorld()
+        .queryRect(mouseEvent.getMapShape().getBounds())
         .stream()
         .filter(u -> mouseEvent.getMapShape().contains(u.getRect()))
         .filter(u -> u.getTeam() == Team.PLAYER)
@@ -304,7 +307,8 @@ public class DefaultGameController implements GameController {
    */
   public void onDbClick(MouseClick mouseEvent) {
     //select the unit under the click if there is one
-    Unit dbClickedUnit = model.getAllUnits()
+    Unit dbClickedUnit = model.getWorld()
+        .queryRadius(mouseEvent.getLocation(), Unit.MAX_SIZE)
         .stream()
         .filter(u -> u.getTeam() == Team.PLAYER)
         .filter(u -> u.getCentre().distanceTo(mouseEvent.getLocation())
@@ -21,6 +21,12 @@ import main.util.Looper;
  */
 public class DefaultGameModel implements GameModel {
 
+  /**
+   * Most ticks to run back to back when the loop falls behind, so a long stall doesn't freeze the
+   * game while it catches up.
+   */
+  private static final int MAX_CATCH_UP_TICKS = 5;
+
   private final World world;
   private final MainGameTick mainGameTick;
   private final Looper looper;
@@ -52,14 +58,14 @@ public class DefaultGameModel implements GameModel {
 
   @Override
   public void startGame() {
-    looper.startWithSchedule(() -> {
-      mainGameTick.broadcast(System.currentTimeMillis());
+    looper.startAtFixedRate(timeSinceLastTick -> {
+      mainGameTick.broadcast(timeSinceLastTick);
       if (world.isWon()) {
         gameWon.broadcast(null);
       } else if (world.isLost()) {
         gameLost.broadcast(null);
       }
-    }, DELAY);
+    }, DELAY, MAX_CATCH_UP_TICKS);
   }
 
   @Override
@@ -112,4 +118,14 @@ public class DefaultGameModel implements GameModel {
     looper.stop();
   }
 
+  @Override
+  public long getLateTickCount() {
+    return looper.getLateTickCount();
+  }
+
+  @Override
+  public long getDroppedTickCount() {
+    return looper.getDroppedTickCount();
+  }
+
 }
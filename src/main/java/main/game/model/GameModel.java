@@ -77,4 +77,14 @@ public interface GameModel {
    * Stops the main game loop.
    */
   void stopGame();
+
+  /**
+   * Number of ticks that ran late because the main game loop fell behind.
+   */
+  long getLateTickCount();
+
+  /**
+   * Number of ticks that were skipped because the main game loop fell too far behind.
+   */
+  long getDroppedTickCount();
 }
@@ -0,0 +1,266 @@
+package main.game.model.data;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import main.game.model.data.dataobject.AbilityData;
+import main.game.model.data.dataobject.AnimationData;
+import main.game.model.data.dataobject.AttackData;
+import main.game.model.data.dataobject.ImageData;
+import main.game.model.data.dataobject.ProjectileData;
+import main.game.model.data.dataobject.SpriteSheetData;
+import main.game.model.data.dataobject.SpriteSheetTypeData;
+import main.game.model.data.dataobject.UnitData;
+
+/**
+ * A single file holding all of the data objects and the atlases of decoded pixels, so the game can
+ * start without parsing JSON or decoding PNGs. The file is memory mapped: the data objects are read
+ * straight out of the mapping and an atlas is only copied out of it when it is first needed, so
+ * the OS only reads the parts of the file that are used.
+ *
+ * <p>
+ * The file is laid out as:
+ * </p>
+ * <ul>
+ *   <li>a magic number and the {@link #VERSION} of the layout</li>
+ *   <li>the path, size and modification time of every file it was made from</li>
+ *   <li>the width and height of every atlas</li>
+ *   <li>the length of the data objects and the data objects
+ *   (see {@link DataLoader#writeAssetPack(String)})</li>
+ *   <li>the premultiplied ARGB pixels of every atlas, in order</li>
+ * </ul>
+ *
+ * <p>
+ * A pack is only used if it has the same version and none of the files it was made from have
+ * changed, otherwise the data files are loaded as usual. The version is worked out from the
+ * classes that write the pack, so a pack made by a different build of the game is never used and
+ * the gradle run task makes the pack again first when it is out of date.
+ * </p>
+ */
+public class AssetPack {
+
+  /** Where the pack is made (by the assetPack gradle task) and looked for. */
+  public static final String DEFAULT_FILE = "build/assets.pack";
+
+  private static final int MAGIC = 0x574d4150; // "WMAP"
+  /** The classes that write and read what is in a pack, see {@link #layoutVersion()}. */
+  private static final Class<?>[] LAYOUT_CLASSES = {
+      AssetPack.class, DataLoader.class, SpriteAtlas.class, AbilityData.class,
+      AnimationData.class, AttackData.class, ImageData.class, ProjectileData.class,
+      SpriteSheetData.class, SpriteSheetTypeData.class, UnitData.class,
+  };
+  /** The version of the layout when it can't be worked out, no pack is used then. */
+  private static final int UNKNOWN_VERSION = -1;
+  private static final int VERSION = layoutVersion();
+
+  private final MappedByteBuffer buffer;
+  private final ByteBuffer data;
+  private final int[] pageWidths;
+  private final int[] pageHeights;
+  private final long[] pageOffsets;
+
+  private AssetPack(MappedByteBuffer buffer, int[] pageWidths, int[] pageHeights) {
+    this.buffer = buffer;
+    this.pageWidths = pageWidths;
+    this.pageHeights = pageHeights;
+
+    int dataLength = buffer.getInt();
+    this.data = buffer.slice();
+    this.data.limit(dataLength);
+
+    this.pageOffsets = new long[pageWidths.length];
+    long offset = buffer.position() + dataLength;
+    for (int i = 0; i < pageWidths.length; i++) {
+      this.pageOffsets[i] = offset;
+      offset += (long)pageWidths[i] * pageHeights[i] * Integer.BYTES;
+    }
+    if (offset > buffer.capacity()) {
+      throw new IllegalArgumentException("The asset pack is cut short");
+    }
+  }
+
+  /**
+   * Maps a pack, if it is there and up to date.
+   *
+   * @return the pack or null if it doesn't exist, is for a different version or any of the files
+   *     it was made from have changed since
+   */
+  public static AssetPack openIfCurrent(String file) {
+    if (!new File(file).isFile()) {
+      return null;
+    }
+    try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+      // The mapping stays valid after the channel is closed
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (VERSION == UNKNOWN_VERSION
+          || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        return null;
+      }
+      int sourceCount = buffer.getInt();
+      for (int i = 0; i < sourceCount; i++) {
+        File source = new File(readString(buffer));
+        long length = buffer.getLong();
+        long lastModified = buffer.getLong();
+        if (source.length() != length || source.lastModified() != lastModified) {
+          return null;
+        }
+      }
+      int pageCount = buffer.getInt();
+      int[] pageWidths = new int[pageCount];
+      int[] pageHeights = new int[pageCount];
+      for (int i = 0; i < pageCount; i++) {
+        pageWidths[i] = buffer.getInt();
+        pageHeights[i] = buffer.getInt();
+      }
+      return new AssetPack(buffer, pageWidths, pageHeights);
+    } catch (IOException | RuntimeException e) {
+      System.err.println("The asset pack " + file + " could not be read: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Gets the data objects, which are read in the order they were written. Each call gives a
+   * buffer of its own.
+   */
+  ByteBuffer getData() {
+    return this.data.duplicate();
+  }
+
+  /**
+   * Copies an atlas out of the mapping into a new image. Safe to call from any thread.
+   */
+  public BufferedImage getPage(int index) {
+    BufferedImage page = new BufferedImage(
+        this.pageWidths[index],
+        this.pageHeights[index],
+        BufferedImage.TYPE_INT_ARGB_PRE
+    );
+    int[] pixels = ((DataBufferInt)page.getRaster().getDataBuffer()).getData();
+    ByteBuffer pageBuffer = this.buffer.duplicate();
+    pageBuffer.position((int)this.pageOffsets[index]);
+    pageBuffer.asIntBuffer().get(pixels);
+    return page;
+  }
+
+  /**
+   * Writes a pack.
+   *
+   * @param sourceFiles the files the pack was made from, it goes out of date if they change
+   * @param pages the atlases, in the order they are referred to by the data objects
+   * @param data the data objects
+   */
+  static void write(
+      String file, Collection<String> sourceFiles, List<BufferedImage> pages, byte[] data
+  ) throws IOException {
+    Path path = Paths.get(file);
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(sourceFiles.size());
+      for (String sourceFile : sourceFiles) {
+        File source = new File(sourceFile);
+        writeString(out, sourceFile);
+        out.writeLong(source.length());
+        out.writeLong(source.lastModified());
+      }
+      out.writeInt(pages.size());
+      for (BufferedImage page : pages) {
+        out.writeInt(page.getWidth());
+        out.writeInt(page.getHeight());
+      }
+      out.writeInt(data.length);
+      out.write(data);
+      writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+
+      for (BufferedImage page : pages) {
+        int[] pixels = ((DataBufferInt)page.getRaster().getDataBuffer()).getData();
+        ByteBuffer pageBuffer = ByteBuffer.allocate(pixels.length * Integer.BYTES);
+        pageBuffer.asIntBuffer().put(pixels);
+        writeFully(channel, pageBuffer);
+      }
+    }
+  }
+
+  /**
+   * Works out the version of the layout from the compiled {@link #LAYOUT_CLASSES}, so it changes
+   * whenever any of them do without anyone having to remember to change it. Changes that don't
+   * touch the layout make the pack out of date as well, which only costs making it again.
+   *
+   * @return a checksum of the classes, or {@link #UNKNOWN_VERSION} if any of them can't be read
+   */
+  private static int layoutVersion() {
+    CRC32 checksum = new CRC32();
+    byte[] buffer = new byte[8192];
+    for (Class<?> layoutClass : LAYOUT_CLASSES) {
+      String resource = layoutClass.getName().replace('.', '/') + ".class";
+      try (InputStream in = AssetPack.class.getClassLoader().getResourceAsStream(resource)) {
+        if (in == null) {
+          return UNKNOWN_VERSION;
+        }
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+          checksum.update(buffer, 0, read);
+        }
+      } catch (IOException e) {
+        return UNKNOWN_VERSION;
+      }
+    }
+    // Never the unknown version
+    return (int)checksum.getValue() & Integer.MAX_VALUE;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Writes a string that can be null.
+   */
+  public static void writeString(DataOutput out, String string) throws IOException {
+    if (string == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutput, String)}.
+   */
+  public static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,24 @@
+package main.game.model.data;
+
+import java.io.IOException;
+
+/**
+ * Makes the {@link AssetPack} that the game loads instead of the data files, run by the assetPack
+ * gradle task, which the run task runs first. The pack has to be made again whenever the data
+ * files, the images or the classes that write it change, until then the game ignores it and loads
+ * the data files.
+ */
+public class AssetPackBuilder {
+
+  /**
+   * Loads the data files and writes them to a pack.
+   *
+   * @param args optionally where to write the pack, instead of {@link AssetPack#DEFAULT_FILE}
+   */
+  public static void main(String[] args) throws IOException {
+    String file = args.length > 0 ? args[0] : AssetPack.DEFAULT_FILE;
+    long start = System.nanoTime();
+    DataLoader.fromDataFiles().writeAssetPack(file);
+    System.out.printf("Wrote %s in %d ms%n", file, (System.nanoTime() - start) / 1_000_000);
+  }
+}
@@ -1,11 +1,31 @@
 package main.game.model.data;
 
 import com.google.gson.Gson;
-import java.io.FileNotFoundException;
+import com.google.gson.stream.JsonReader;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import main.game.model.data.dataobject.AbilityData;
 import main.game.model.data.dataobject.AnimationData;
 import main.game.model.data.dataobject.AttackData;
@@ -38,120 +58,282 @@ public class DataLoader {
   private final Map<String, UnitData> unitTypes = new HashMap<>();
   private final Map<String, AbilityData> abilities = new HashMap<>();
 
+  /** The data files that were loaded, or empty if the data came from an asset pack. */
+  private List<String> dataFiles = Collections.emptyList();
+
+  /**
+   * Loads the data from the {@link AssetPack} if there is one that is up to date, otherwise from
+   * the data files.
+   */
   public DataLoader() {
-    this(ANIMATIONS_FILE, SPRITESHEETTYPES_FILE, SPRITESHEETS_FILE, IMAGES_FILE,
-        ATTACKS_FILE, UNITTYPES_FILE, ABILITIES_FILE);
+    AssetPack pack = AssetPack.openIfCurrent(AssetPack.DEFAULT_FILE);
+    if (pack != null) {
+      this.loadAssetPack(pack);
+    } else {
+      this.loadDataFiles(ANIMATIONS_FILE, SPRITESHEETTYPES_FILE, SPRITESHEETS_FILE, IMAGES_FILE,
+          ATTACKS_FILE, UNITTYPES_FILE, ABILITIES_FILE);
+    }
   }
 
+  /**
+   * Loads the data from the given data files.
+   */
   public DataLoader(String animationsFile, String spriteSheetTypesFile, String spriteSheetsFile,
                     String imagesFile, String attacksFile, String unittypesFile,
                     String abilitiesFile) {
-
-    this.loadAnimations(animationsFile);
-    this.loadSpriteSheetTypes(spriteSheetTypesFile);
-    this.loadSpriteSheets(spriteSheetsFile);
-    this.loadImages(imagesFile);
-    this.loadAttacks(attacksFile);
-    this.loadUnitTypes(unittypesFile);
-    this.loadAbilities(abilitiesFile);
+    this.loadDataFiles(animationsFile, spriteSheetTypesFile, spriteSheetsFile, imagesFile,
+        attacksFile, unittypesFile, abilitiesFile);
   }
 
-  private void loadAnimations(String file) {
-    try {
-      FileReader animationsFile = new FileReader(file);
-      AnimationData[] animationsData = new Gson().fromJson(animationsFile, AnimationData[].class);
-      Arrays.stream(animationsData).forEach(ad -> {
-        animations.put(ad.getId(), ad);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
-    }
+  /**
+   * Loads the data from the default data files, even if there is an asset pack.
+   */
+  static DataLoader fromDataFiles() {
+    return new DataLoader(ANIMATIONS_FILE, SPRITESHEETTYPES_FILE, SPRITESHEETS_FILE, IMAGES_FILE,
+        ATTACKS_FILE, UNITTYPES_FILE, ABILITIES_FILE);
   }
 
-  private void loadSpriteSheetTypes(String file) {
+  private void loadDataFiles(String animationsFile, String spriteSheetTypesFile,
+                             String spriteSheetsFile, String imagesFile, String attacksFile,
+                             String unittypesFile, String abilitiesFile) {
+    this.dataFiles = Arrays.asList(animationsFile, spriteSheetTypesFile, spriteSheetsFile,
+        imagesFile, attacksFile, unittypesFile, abilitiesFile);
+
+    ExecutorService pool = newLoadingPool();
     try {
-      FileReader spriteSheetTypesFile = new FileReader(file);
-      SpriteSheetTypeData[] spriteSheetTypesData = new Gson().fromJson(
-          spriteSheetTypesFile,
-          SpriteSheetTypeData[].class
+      // Parse every file at once
+      CompletableFuture<List<AnimationData>> animationsData
+          = parseAsync(animationsFile, AnimationData.class, pool);
+      CompletableFuture<List<SpriteSheetTypeData>> spriteSheetTypesData
+          = parseAsync(spriteSheetTypesFile, SpriteSheetTypeData.class, pool);
+      CompletableFuture<List<SpriteSheetData>> spriteSheetsData
+          = parseAsync(spriteSheetsFile, SpriteSheetData.class, pool);
+      CompletableFuture<List<ImageData>> imagesData
+          = parseAsync(imagesFile, ImageData.class, pool);
+      CompletableFuture<List<AttackData>> attacksData
+          = parseAsync(attacksFile, AttackData.class, pool);
+      CompletableFuture<List<UnitData>> unitTypesData
+          = parseAsync(unittypesFile, UnitData.class, pool);
+      CompletableFuture<List<AbilityData>> abilitiesData
+          = parseAsync(abilitiesFile, AbilityData.class, pool);
+
+      // Decoding the images takes most of the time, so each one is decoded on its own as soon as
+      // its file is parsed. Sprite sheets aren't decoded until they are used, they only need
+      // their types which need the animations.
+      CompletableFuture<Void> imagesBuilt = imagesData.thenCompose(
+          images -> runEachAsync(images, ImageData::build, pool)
+      );
+      CompletableFuture<Void> spriteSheetTypesBuilt = animationsData.thenAcceptBoth(
+          spriteSheetTypesData,
+          (animations, spriteSheetTypes) -> {
+            animations.forEach(ad -> this.animations.put(ad.getId(), ad));
+            spriteSheetTypes.forEach(sstd -> {
+              sstd.buildRelationships(this);
+              this.spriteSheetTypes.put(sstd.getId(), sstd);
+            });
+          }
       );
-      Arrays.stream(spriteSheetTypesData).forEach(sstd -> {
-        sstd.buildRelationships(this);
-        spriteSheetTypes.put(sstd.getId(), sstd);
+      CompletableFuture<Void> spriteSheetsBuilt = spriteSheetTypesBuilt.thenAcceptBoth(
+          spriteSheetsData,
+          (done, spriteSheets) -> spriteSheets.forEach(ssd -> ssd.build(this))
+      );
+      await(CompletableFuture.allOf(imagesBuilt, spriteSheetsBuilt));
+
+      // Everything else refers to the images so it is done once they are all loaded
+      await(spriteSheetsData).forEach(ssd -> spriteSheets.put(ssd.getId(), ssd));
+      await(imagesData).forEach(id -> images.put(id.getId(), id));
+      this.packImages();
+      await(attacksData).forEach(ad -> {
+        ad.buildRelationships(this);
+        attacks.put(ad.getId(), ad);
+      });
+      await(unitTypesData).forEach(utd -> {
+        utd.buildRelationships(this);
+        unitTypes.put(utd.getId(), utd);
       });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
+      await(abilitiesData).forEach(ad -> {
+        ad.buildRelationships(this);
+        abilities.put(ad.getId(), ad);
+      });
+    } finally {
+      pool.shutdown();
     }
   }
 
-  private void loadSpriteSheets(String file) {
-    try {
-      FileReader spriteSheetsFile = new FileReader(file);
-      SpriteSheetData[] spriteSheetsData = new Gson().fromJson(
-          spriteSheetsFile,
-          SpriteSheetData[].class
-      );
-      Arrays.stream(spriteSheetsData).forEach(ssd -> {
-        ssd.build(this);
-        spriteSheets.put(ssd.getId(), ssd);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
-    }
+  /**
+   * Loads the data written by {@link #writeAssetPack(String)}. Nothing is parsed or decoded, the
+   * data objects are read straight from the pack and the sprite sheets read their frames from it
+   * when they are needed.
+   */
+  private void loadAssetPack(AssetPack pack) {
+    ByteBuffer in = pack.getData();
+    readAll(in, AnimationData::readFrom).forEach(ad -> animations.put(ad.getId(), ad));
+    readAll(in, SpriteSheetTypeData::readFrom).forEach(sstd -> {
+      sstd.buildRelationships(this);
+      spriteSheetTypes.put(sstd.getId(), sstd);
+    });
+    readAll(in, data -> SpriteSheetData.readFrom(data, pack::getPage)).forEach(ssd -> {
+      ssd.build(this);
+      spriteSheets.put(ssd.getId(), ssd);
+    });
+    // The images share a few atlases
+    Map<Integer, BufferedImage> atlases = new HashMap<>();
+    IntFunction<BufferedImage> atlas = index -> atlases.computeIfAbsent(index, pack::getPage);
+    readAll(in, data -> ImageData.readFrom(data, atlas))
+        .forEach(id -> images.put(id.getId(), id));
+    readAll(in, AttackData::readFrom).forEach(ad -> {
+      ad.buildRelationships(this);
+      attacks.put(ad.getId(), ad);
+    });
+    readAll(in, UnitData::readFrom).forEach(utd -> {
+      utd.buildRelationships(this);
+      unitTypes.put(utd.getId(), utd);
+    });
+    readAll(in, AbilityData::readFrom).forEach(ad -> {
+      ad.buildRelationships(this);
+      abilities.put(ad.getId(), ad);
+    });
   }
 
-  private void loadImages(String file) {
-    try {
-      FileReader imagesFile = new FileReader(file);
-      ImageData[] imageData = new Gson().fromJson(imagesFile, ImageData[].class);
-      Arrays.stream(imageData).forEach(id -> {
-        id.build();
-        images.put(id.getId(), id);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
+  /**
+   * Reads a count and then that many data objects.
+   */
+  private static <T> List<T> readAll(ByteBuffer in, Function<ByteBuffer, T> reader) {
+    int count = in.getInt();
+    List<T> data = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      data.add(reader.apply(in));
     }
+    return data;
   }
 
-  private void loadAttacks(String file) {
-    try {
-      FileReader attacksFile = new FileReader(file);
-      AttackData[] attackData = new Gson().fromJson(attacksFile, AttackData[].class);
-      Arrays.stream(attackData).forEach(ad -> {
-        ad.buildRelationships(this);
-        attacks.put(ad.getId(), ad);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
+  /**
+   * Writes everything that was loaded from the data files to an {@link AssetPack}, in the order
+   * {@link #loadAssetPack(AssetPack)} reads it. Every sprite sheet is decoded to do it.
+   *
+   * @throws IllegalStateException if the data was loaded from an asset pack
+   */
+  void writeAssetPack(String file) throws IOException {
+    if (this.dataFiles.isEmpty()) {
+      throw new IllegalStateException("Only data loaded from the data files can be packed");
     }
-  }
+    List<BufferedImage> atlases = new ArrayList<>();
+    Map<BufferedImage, Integer> atlasIndices = new IdentityHashMap<>();
+    ToIntFunction<BufferedImage> atlasIndex = atlas -> atlasIndices.computeIfAbsent(atlas, a -> {
+      atlases.add(a);
+      return atlases.size() - 1;
+    });
+    // The pack is out of date if any of these change
+    Set<String> sourceFiles = new LinkedHashSet<>(this.dataFiles);
 
-  private void loadUnitTypes(String file) {
-    try {
-      FileReader unitTypesFile = new FileReader(file);
-      UnitData[] unitData = new Gson().fromJson(unitTypesFile, UnitData[].class);
-      Arrays.stream(unitData).forEach(utd -> {
-        utd.buildRelationships(this);
-        unitTypes.put(utd.getId(), utd);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(animations.size());
+    for (AnimationData ad : animations.values()) {
+      ad.writeTo(out);
+    }
+    out.writeInt(spriteSheetTypes.size());
+    for (SpriteSheetTypeData sstd : spriteSheetTypes.values()) {
+      sstd.writeTo(out);
+    }
+    out.writeInt(spriteSheets.size());
+    for (SpriteSheetData ssd : spriteSheets.values()) {
+      sourceFiles.add(ssd.getLocation());
+      ssd.writeTo(out, atlasIndex);
+    }
+    out.writeInt(images.size());
+    for (ImageData id : images.values()) {
+      sourceFiles.add(id.getLocation());
+      id.writeTo(out, atlasIndex);
     }
+    out.writeInt(attacks.size());
+    for (AttackData ad : attacks.values()) {
+      ad.writeTo(out);
+    }
+    out.writeInt(unitTypes.size());
+    for (UnitData utd : unitTypes.values()) {
+      utd.writeTo(out);
+    }
+    out.writeInt(abilities.size());
+    for (AbilityData ad : abilities.values()) {
+      ad.writeTo(out);
+    }
+    AssetPack.write(file, sourceFiles, atlases, bytes.toByteArray());
+  }
+
+  private static ExecutorService newLoadingPool() {
+    return Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "data-loader");
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+  }
+
+  /**
+   * Reads a file holding a JSON array of data objects, one object at a time.
+   */
+  private static <T> CompletableFuture<List<T>> parseAsync(
+      String file, Class<T> type, ExecutorService pool
+  ) {
+    return CompletableFuture.supplyAsync(() -> {
+      Gson gson = new Gson();
+      try (JsonReader reader = new JsonReader(new BufferedReader(new FileReader(file)))) {
+        // The files have comments in them
+        reader.setLenient(true);
+        List<T> data = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          data.add(gson.fromJson(reader, type));
+        }
+        reader.endArray();
+        return data;
+      } catch (IOException e) {
+        throw new IllegalArgumentException("There was a problem reading the file " + file);
+      }
+    }, pool);
+  }
+
+  /**
+   * Runs the action on every item at once.
+   */
+  private static <T> CompletableFuture<Void> runEachAsync(
+      List<T> items, Consumer<T> action, ExecutorService pool
+  ) {
+    return CompletableFuture.allOf(items.stream()
+        .map(item -> CompletableFuture.runAsync(() -> action.accept(item), pool))
+        .toArray(CompletableFuture[]::new));
   }
 
-  private void loadAbilities(String file) {
+  /**
+   * Waits for a future, throwing what it threw.
+   */
+  private static <T> T await(CompletableFuture<T> future) {
     try {
-      FileReader abilitiesFile = new FileReader(file);
-      AbilityData[] abilitiesData = new Gson().fromJson(abilitiesFile, AbilityData[].class);
-      Arrays.stream(abilitiesData).forEach(ad -> {
-        ad.buildRelationships(this);
-        abilities.put(ad.getId(), ad);
-      });
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("There was a problem reading the file " + file);
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
     }
   }
 
+  /**
+   * Moves all of the images into atlases. They are kept whole because they are also used as icons.
+   * Sprite sheets pack their own frames when they are decoded.
+   */
+  private void packImages() {
+    SpriteAtlas atlas = new SpriteAtlas();
+    images.values().forEach(image -> atlas.add(image, false));
+    atlas.pack();
+  }
+
   /**
    * Gets the data Object for a Animation.
    * @throws IllegalStateException If the animation does not exist
@@ -0,0 +1,167 @@
+package main.game.model.data;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import main.game.model.data.dataobject.ImageData;
+
+/**
+ * Packs the images of many {@link ImageData}s into a few big atlas images. The atlases are
+ * {@link BufferedImage#TYPE_INT_ARGB_PRE}, the same as the frames the renderer draws into, so
+ * drawing from them is a straight copy, and the images that were loaded (e.g. whole sprite sheets)
+ * can be thrown away once they are packed.
+ *
+ * <p>
+ * Images can have their transparent borders trimmed off first. ImageDatas that share an image
+ * (e.g. animations that use the same frames) share its place in the atlas.
+ * </p>
+ */
+public class SpriteAtlas {
+
+  /** The width and height of an atlas, unless an image needs a bigger one. */
+  private static final int PAGE_SIZE = 2048;
+  /** Transparent pixels between images so scaling doesn't blend in the neighbours. */
+  private static final int PADDING = 1;
+
+  private final Map<BufferedImage, Entry> entries = new LinkedHashMap<>();
+
+  /**
+   * Adds an image to be packed.
+   *
+   * @param trim whether to cut off the transparent border of the image, only done if every
+   *        ImageData using the image wants it
+   */
+  public void add(ImageData imageData, boolean trim) {
+    BufferedImage image = imageData.getImage();
+    if (image == null) {
+      return;
+    }
+    Entry entry = this.entries.computeIfAbsent(image, Entry::new);
+    entry.trim &= trim;
+    entry.imageDatas.add(imageData);
+  }
+
+  /**
+   * Packs every image that was added into atlases and moves the ImageDatas to them.
+   *
+   * @return the atlases
+   */
+  public List<BufferedImage> pack() {
+    List<Entry> sorted = new ArrayList<>(this.entries.values());
+    this.entries.clear();
+    sorted.forEach(entry -> entry.bounds = entry.trim
+        ? opaqueBounds(entry.image)
+        : new Rectangle(0, 0, entry.image.getWidth(), entry.image.getHeight()));
+    // Tallest first, so each row is filled with images of about the same height
+    sorted.sort(Comparator.comparingInt((Entry entry) -> entry.bounds.height)
+        .thenComparingInt(entry -> entry.bounds.width)
+        .reversed());
+
+    List<BufferedImage> pages = new ArrayList<>();
+    List<Entry> pageEntries = new ArrayList<>();
+    int rowX = 0;
+    int rowY = 0;
+    int rowHeight = 0;
+    for (Entry entry : sorted) {
+      int width = entry.bounds.width + PADDING;
+      int height = entry.bounds.height + PADDING;
+      if (width > PAGE_SIZE || height > PAGE_SIZE) {
+        // Too big to share, give it its own
+        entry.x = 0;
+        entry.y = 0;
+        pages.add(this.drawPage(Collections.singletonList(entry), width, height));
+        continue;
+      }
+      if (rowX + width > PAGE_SIZE) {
+        rowX = 0;
+        rowY += rowHeight;
+        rowHeight = 0;
+      }
+      if (rowY + height > PAGE_SIZE) {
+        pages.add(this.drawPage(pageEntries, PAGE_SIZE, PAGE_SIZE));
+        pageEntries.clear();
+        rowX = 0;
+        rowY = 0;
+      }
+      entry.x = rowX;
+      entry.y = rowY;
+      pageEntries.add(entry);
+      rowX += width;
+      rowHeight = Math.max(rowHeight, height);
+    }
+    if (!pageEntries.isEmpty()) {
+      // The last one only needs to be as tall as what is on it
+      pages.add(this.drawPage(pageEntries, PAGE_SIZE, rowY + rowHeight));
+    }
+    return pages;
+  }
+
+  private BufferedImage drawPage(List<Entry> pageEntries, int width, int height) {
+    BufferedImage page = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g = page.createGraphics();
+    g.setComposite(AlphaComposite.Src);
+    for (Entry entry : pageEntries) {
+      Rectangle bounds = entry.bounds;
+      g.drawImage(entry.image,
+          entry.x, entry.y, entry.x + bounds.width, entry.y + bounds.height,
+          bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height,
+          null);
+      entry.imageDatas.forEach(imageData -> imageData.moveToAtlas(page, entry.x, entry.y, bounds));
+    }
+    g.dispose();
+    return page;
+  }
+
+  /**
+   * Finds the smallest rectangle holding every pixel of the image that isn't fully transparent.
+   * An image that is completely transparent keeps one pixel.
+   */
+  private static Rectangle opaqueBounds(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] row = new int[width];
+    int left = width;
+    int right = -1;
+    int top = height;
+    int bottom = -1;
+    for (int y = 0; y < height; y++) {
+      image.getRGB(0, y, width, 1, row, 0, width);
+      for (int x = 0; x < width; x++) {
+        if ((row[x] >>> 24) != 0) {
+          left = Math.min(left, x);
+          right = Math.max(right, x);
+          top = Math.min(top, y);
+          bottom = y;
+        }
+      }
+    }
+    if (right < 0) {
+      return new Rectangle(0, 0, 1, 1);
+    }
+    return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+  }
+
+  /**
+   * An image to pack and the ImageDatas that use it.
+   */
+  private static class Entry {
+
+    private final BufferedImage image;
+    private final List<ImageData> imageDatas = new ArrayList<>(1);
+    private boolean trim = true;
+    private Rectangle bounds;
+    private int x;
+    private int y;
+
+    Entry(BufferedImage image) {
+      this.image = image;
+    }
+  }
+}
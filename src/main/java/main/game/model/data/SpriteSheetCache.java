@@ -0,0 +1,80 @@
+package main.game.model.data;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import main.game.model.data.dataobject.SpriteSheetData;
+
+/**
+ * Keeps the sprite sheets that are in use decoded. A sheet is otherwise only decoded the first
+ * time one of its frames is needed, which would hold up the tick, so sheets are decoded on a
+ * background thread as soon as they are known to be needed (e.g. by the units of the next level).
+ * Each user of a sheet (e.g. a unit) acquires it and releases it when it is done with it. Sheets
+ * that no one is using any more are released, after which they only stay in memory until it runs
+ * low.
+ */
+public class SpriteSheetCache {
+
+  private static final long IDLE_THREAD_TIMEOUT_SECONDS = 10;
+
+  private final ThreadPoolExecutor executor;
+  /** The number of users of each sheet that is in use. Guarded by this. */
+  private final Map<SpriteSheetData, Integer> users = new IdentityHashMap<>();
+
+  /**
+   * Creates a cache with nothing in use.
+   */
+  public SpriteSheetCache() {
+    this.executor = new ThreadPoolExecutor(
+        1, 1,
+        IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "sprite-sheet-loader");
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Adds a user of a sheet. A sheet that wasn't in use before is decoded in the background and
+   * kept.
+   */
+  public synchronized void acquire(SpriteSheetData sheet) {
+    if (this.users.merge(sheet, 1, Integer::sum) == 1) {
+      this.executor.execute(() -> this.load(sheet));
+    }
+  }
+
+  /**
+   * Removes a user of a sheet that was added by {@link #acquire(SpriteSheetData)}. The sheet is
+   * released once it has no users.
+   */
+  public synchronized void release(SpriteSheetData sheet) {
+    Integer count = this.users.get(sheet);
+    if (count == null) {
+      throw new IllegalStateException("The sheet " + sheet.getId() + " isn't in use");
+    }
+    if (count == 1) {
+      this.users.remove(sheet);
+      sheet.release();
+    } else {
+      this.users.put(sheet, count - 1);
+    }
+  }
+
+  private void load(SpriteSheetData sheet) {
+    // Decoded first so the lock isn't held while decoding
+    sheet.preload();
+    synchronized (this) {
+      // It might have stopped being used while it was decoding
+      if (this.users.containsKey(sheet)) {
+        sheet.keep();
+      }
+    }
+  }
+}
@@ -1,5 +1,9 @@
 package main.game.model.data.dataobject;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import main.game.model.data.AssetPack;
 import main.game.model.data.DataLoader;
 
 /**
@@ -46,4 +50,30 @@ public class AbilityData {
   public AttackData getAttackData() {
     return attackData;
   }
+
+  /**
+   * Writes the ability for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    AssetPack.writeString(out, this.id);
+    out.writeDouble(this.cooldown);
+    AssetPack.writeString(out, this.description);
+    AssetPack.writeString(out, this.targets);
+    AssetPack.writeString(out, this.attack);
+    AssetPack.writeString(out, this.icon);
+  }
+
+  /**
+   * Reads an ability written by {@link #writeTo}.
+   */
+  public static AbilityData readFrom(ByteBuffer in) {
+    AbilityData ability = new AbilityData();
+    ability.id = AssetPack.readString(in);
+    ability.cooldown = in.getDouble();
+    ability.description = AssetPack.readString(in);
+    ability.targets = AssetPack.readString(in);
+    ability.attack = AssetPack.readString(in);
+    ability.icon = AssetPack.readString(in);
+    return ability;
+  }
 }
@@ -0,0 +1,20 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+
+import org.junit.Test;
+
+public class AbilityDataTest {
+
+  @Test
+  public void testRoundTrip_keepsEveryField() {
+    AbilityData ability = fromJson(AbilityData.class, "{"
+        + "\"id\": \"ability:heal\", \"cooldown\": 12.5, \"description\": \"Heals a unit\","
+        + "\"targets\": \"units\", \"attack\": \"attack:heal\", \"icon\": \"image:heal_icon\""
+        + "}");
+    AbilityData read = assertRoundTrip(ability, AbilityData::writeTo, AbilityData::readFrom);
+    assertSameFields(ability, read);
+  }
+}
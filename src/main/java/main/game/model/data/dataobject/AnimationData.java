@@ -1,5 +1,10 @@
 package main.game.model.data.dataobject;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import main.game.model.data.AssetPack;
+
 /**
  * Data object for Animations.
  * @author Andrew McGhie
@@ -50,4 +55,36 @@ public class AnimationData {
   public double getWestOverflow() {
     return westOverflow;
   }
+
+  /**
+   * Writes the animation for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    AssetPack.writeString(out, this.id);
+    out.writeInt(this.width);
+    out.writeInt(this.height);
+    out.writeInt(this.frames);
+    out.writeInt(this.directions);
+    out.writeDouble(this.northOverflow);
+    out.writeDouble(this.southOverflow);
+    out.writeDouble(this.eastOverflow);
+    out.writeDouble(this.westOverflow);
+  }
+
+  /**
+   * Reads an animation written by {@link #writeTo}.
+   */
+  public static AnimationData readFrom(ByteBuffer in) {
+    AnimationData animation = new AnimationData();
+    animation.id = AssetPack.readString(in);
+    animation.width = in.getInt();
+    animation.height = in.getInt();
+    animation.frames = in.getInt();
+    animation.directions = in.getInt();
+    animation.northOverflow = in.getDouble();
+    animation.southOverflow = in.getDouble();
+    animation.eastOverflow = in.getDouble();
+    animation.westOverflow = in.getDouble();
+    return animation;
+  }
 }
@@ -0,0 +1,22 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+
+import org.junit.Test;
+
+public class AnimationDataTest {
+
+  @Test
+  public void testRoundTrip_keepsEveryField() {
+    AnimationData animation = fromJson(AnimationData.class, "{"
+        + "\"id\": \"animation:walk\", \"width\": 57, \"height\": 96, \"frames\": 8,"
+        + "\"directions\": 4, \"northOverflow\": 0.5, \"southOverflow\": 0.25,"
+        + "\"eastOverflow\": 0.125, \"westOverflow\": 1.5"
+        + "}");
+    AnimationData read = assertRoundTrip(animation, AnimationData::writeTo,
+        AnimationData::readFrom);
+    assertSameFields(animation, read);
+  }
+}
@@ -1,5 +1,9 @@
 package main.game.model.data.dataobject;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import main.game.model.data.AssetPack;
 import main.game.model.data.DataLoader;
 
 /**
@@ -10,6 +14,7 @@ public class AttackData {
 
   private String id;
   private String scriptLocation;
+  private String strategy;
   private double range;
   private int attackSpeed;
   private double windupPortion;
@@ -17,6 +22,7 @@ public class AttackData {
   private double amount = 0;
   private double duration = 0;
   private double radius = 0;
+  private ProjectileData projectile;
 
   // Forign Keys.
   private String animation;
@@ -24,6 +30,9 @@ public class AttackData {
 
   public void buildRelationships(DataLoader dataLoader) {
     this.animationData = dataLoader.getDataForAnimation(animation);
+    if (projectile != null) {
+      projectile.buildRelationships(dataLoader);
+    }
   }
 
   public String getId() {
@@ -34,6 +43,13 @@ public class AttackData {
     return scriptLocation;
   }
 
+  /**
+   * The id of the built in strategy that carries out the attack, or null to run the script.
+   */
+  public String getStrategy() {
+    return strategy;
+  }
+
   public double getRange() {
     return range;
   }
@@ -65,4 +81,54 @@ public class AttackData {
   public double getRadius() {
     return radius;
   }
+
+  /**
+   * The projectile to fire, or null if the attack doesn't fire one.
+   */
+  public ProjectileData getProjectile() {
+    return projectile;
+  }
+
+  /**
+   * Writes the attack for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    AssetPack.writeString(out, this.id);
+    AssetPack.writeString(out, this.scriptLocation);
+    AssetPack.writeString(out, this.strategy);
+    out.writeDouble(this.range);
+    out.writeInt(this.attackSpeed);
+    out.writeDouble(this.windupPortion);
+    AssetPack.writeString(out, this.type);
+    out.writeDouble(this.amount);
+    out.writeDouble(this.duration);
+    out.writeDouble(this.radius);
+    AssetPack.writeString(out, this.animation);
+    out.writeBoolean(this.projectile != null);
+    if (this.projectile != null) {
+      this.projectile.writeTo(out);
+    }
+  }
+
+  /**
+   * Reads an attack written by {@link #writeTo}.
+   */
+  public static AttackData readFrom(ByteBuffer in) {
+    AttackData attack = new AttackData();
+    attack.id = AssetPack.readString(in);
+    attack.scriptLocation = AssetPack.readString(in);
+    attack.strategy = AssetPack.readString(in);
+    attack.range = in.getDouble();
+    attack.attackSpeed = in.getInt();
+    attack.windupPortion = in.getDouble();
+    attack.type = AssetPack.readString(in);
+    attack.amount = in.getDouble();
+    attack.duration = in.getDouble();
+    attack.radius = in.getDouble();
+    attack.animation = AssetPack.readString(in);
+    if (in.get() != 0) {
+      attack.projectile = ProjectileData.readFrom(in);
+    }
+    return attack;
+  }
 }
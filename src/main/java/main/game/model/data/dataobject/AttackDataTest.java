@@ -0,0 +1,39 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class AttackDataTest {
+
+  @Test
+  public void testRoundTrip_withProjectile() {
+    AttackData attack = fromJson(AttackData.class, "{"
+        + "\"id\": \"attack:fireball\", \"strategy\": \"projectile\", \"range\": 6.5,"
+        + "\"attackSpeed\": 20, \"windupPortion\": 0.4, \"type\": \"damage\", \"amount\": 12.5,"
+        + "\"duration\": 3, \"radius\": 1.5, \"animation\": \"animation:attack\","
+        + "\"projectile\": {\"size\": 0.5, \"speed\": 0.3, \"flyAnimation\": \"animation:fly\","
+        + "\"flyAnimationLength\": 4, \"spriteSheet\": \"projectile_sheet:fireball\"}"
+        + "}");
+    AttackData read = assertRoundTrip(attack, AttackData::writeTo, AttackData::readFrom);
+    assertSameFields(attack, read);
+    assertNotNull(read.getProjectile());
+  }
+
+  @Test
+  public void testRoundTrip_withScript() {
+    AttackData attack = fromJson(AttackData.class, "{"
+        + "\"id\": \"attack:heal\", \"scriptLocation\": \"resources/scripts/heal.js\","
+        + "\"range\": 3, \"attackSpeed\": 30, \"windupPortion\": 0.5,"
+        + "\"animation\": \"animation:cast\""
+        + "}");
+    AttackData read = assertRoundTrip(attack, AttackData::writeTo, AttackData::readFrom);
+    assertSameFields(attack, read);
+    assertNull(read.getStrategy());
+    assertNull(read.getProjectile());
+  }
+}
@@ -1,9 +1,16 @@
 package main.game.model.data.dataobject;
 
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import javax.imageio.ImageIO;
+import main.game.model.data.AssetPack;
 
 /**
  * Data object for Image Data.
@@ -26,6 +33,14 @@ public class ImageData {
 
   private BufferedImage image;
 
+  /** See {@link #getCacheKey()}, null if this is its own key. */
+  private Object cacheKey;
+
+  /** The atlas the image is in, or null if it isn't in one. */
+  private BufferedImage atlas;
+  private int atlasX;
+  private int atlasY;
+
   /**
    * Constructor so SpriteSheetData can build map of images.
    */
@@ -57,10 +72,67 @@ public class ImageData {
     return id;
   }
 
+  public String getLocation() {
+    return location;
+  }
+
   public BufferedImage getImage() {
     return this.image;
   }
 
+  /**
+   * Identifies the image for caches of things made from it (e.g. scaled copies), instead of the
+   * ImageData itself. The frames of a sprite sheet are thrown away and decoded again when memory
+   * runs low, so their key stays the same across decodes and doesn't hold on to the pixels.
+   */
+  public Object getCacheKey() {
+    return this.cacheKey != null ? this.cacheKey : this;
+  }
+
+  void setCacheKey(Object cacheKey) {
+    this.cacheKey = cacheKey;
+  }
+
+  /**
+   * Draws the image stretched over a rectangle. Faster than drawing {@link #getImage()} once the
+   * image is in an atlas.
+   */
+  public void draw(Graphics2D g, int x, int y, int width, int height) {
+    if (this.atlas == null) {
+      g.drawImage(this.image, x, y, width, height, null);
+      return;
+    }
+    g.drawImage(this.atlas,
+        x, y, x + width, y + height,
+        this.atlasX, this.atlasY,
+        this.atlasX + this.image.getWidth(), this.atlasY + this.image.getHeight(),
+        null);
+  }
+
+  /**
+   * Makes the image a part of an atlas (see {@link main.game.model.data.SpriteAtlas}), which may
+   * have been trimmed from the image. The overflows are changed by the amount trimmed so the image
+   * is still drawn in the same place over the entity.
+   *
+   * @param kept the part of the current image that is in the atlas
+   */
+  public void moveToAtlas(BufferedImage atlas, int atlasX, int atlasY, Rectangle kept) {
+    // The overflows are fractions of the entity, which the image is stretched over with them
+    double entityWidthsPerPixel = (1 + this.eastOverflow + this.westOverflow)
+        / this.image.getWidth();
+    double entityHeightsPerPixel = (1 + this.northOverflow + this.southOverflow)
+        / this.image.getHeight();
+    this.westOverflow -= kept.x * entityWidthsPerPixel;
+    this.eastOverflow -= (this.image.getWidth() - kept.x - kept.width) * entityWidthsPerPixel;
+    this.northOverflow -= kept.y * entityHeightsPerPixel;
+    this.southOverflow -= (this.image.getHeight() - kept.y - kept.height) * entityHeightsPerPixel;
+
+    this.atlas = atlas;
+    this.atlasX = atlasX;
+    this.atlasY = atlasY;
+    this.image = atlas.getSubimage(atlasX, atlasY, kept.width, kept.height);
+  }
+
   public double getNorthOverflow() {
     return this.northOverflow;
   }
@@ -76,4 +148,54 @@ public class ImageData {
   public double getWestOverflow() {
     return this.westOverflow;
   }
+
+  /**
+   * Writes the image for an {@link AssetPack}. Only where the image is in its atlas is written,
+   * the atlas is written by itself.
+   *
+   * @param atlasIndex gives the number of an atlas in the pack
+   */
+  public void writeTo(DataOutput out, ToIntFunction<BufferedImage> atlasIndex) throws IOException {
+    AssetPack.writeString(out, this.id);
+    AssetPack.writeString(out, this.location);
+    out.writeDouble(this.northOverflow);
+    out.writeDouble(this.southOverflow);
+    out.writeDouble(this.eastOverflow);
+    out.writeDouble(this.westOverflow);
+    if (this.atlas == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(atlasIndex.applyAsInt(this.atlas));
+    out.writeInt(this.atlasX);
+    out.writeInt(this.atlasY);
+    out.writeInt(this.image.getWidth());
+    out.writeInt(this.image.getHeight());
+  }
+
+  /**
+   * Reads an image written by {@link #writeTo}.
+   *
+   * @param atlases gives the atlas with a number, it should give the same image for the same
+   *        number so images in the same atlas share it
+   */
+  public static ImageData readFrom(ByteBuffer in, IntFunction<BufferedImage> atlases) {
+    String id = AssetPack.readString(in);
+    String location = AssetPack.readString(in);
+    ImageData imageData = new ImageData(null,
+        in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+    imageData.id = id;
+    imageData.location = location;
+    int atlasIndex = in.getInt();
+    if (atlasIndex >= 0) {
+      imageData.atlas = atlases.apply(atlasIndex);
+      imageData.atlasX = in.getInt();
+      imageData.atlasY = in.getInt();
+      int width = in.getInt();
+      int height = in.getInt();
+      imageData.image = imageData.atlas.getSubimage(
+          imageData.atlasX, imageData.atlasY, width, height);
+    }
+    return imageData;
+  }
 }
@@ -0,0 +1,68 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+
+public class ImageDataTest {
+
+  @Test
+  public void testRoundTrip_outsideAnAtlas() {
+    ImageData image = fromJson(ImageData.class, "{"
+        + "\"id\": \"image:heal_icon\", \"location\": \"resources/images/icons/heal.png\","
+        + "\"northOverflow\": 0.5, \"southOverflow\": 0.25, \"eastOverflow\": 0.125,"
+        + "\"westOverflow\": 1.5"
+        + "}");
+    ImageData read = assertRoundTrip(image,
+        (data, out) -> data.writeTo(out, atlas -> {
+          fail("The image isn't in an atlas");
+          return -1;
+        }),
+        in -> ImageData.readFrom(in, index -> {
+          fail("The image isn't in an atlas");
+          return null;
+        }));
+    assertEquals("image:heal_icon", read.getId());
+    assertEquals("resources/images/icons/heal.png", read.getLocation());
+    assertOverflowsEqual(image, read);
+    assertNull(read.getImage());
+  }
+
+  @Test
+  public void testRoundTrip_inAnAtlas() {
+    BufferedImage frame = new BufferedImage(4, 6, BufferedImage.TYPE_INT_ARGB_PRE);
+    frame.setRGB(1, 2, 0xff336699);
+    BufferedImage atlas = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB_PRE);
+    atlas.setRGB(5 + 1, 7 + 2, 0xff336699);
+    ImageData image = new ImageData(frame, 0.5, 0.25, 0.125, 1.5);
+    image.moveToAtlas(atlas, 5, 7, new Rectangle(0, 0, 4, 6));
+
+    ImageData read = assertRoundTrip(image,
+        (data, out) -> data.writeTo(out, page -> {
+          assertSame(atlas, page);
+          return 0;
+        }),
+        in -> ImageData.readFrom(in, index -> {
+          assertEquals(0, index);
+          return atlas;
+        }));
+    assertOverflowsEqual(image, read);
+    assertEquals(4, read.getImage().getWidth());
+    assertEquals(6, read.getImage().getHeight());
+    assertEquals(0xff336699, read.getImage().getRGB(1, 2));
+  }
+
+  private static void assertOverflowsEqual(ImageData expected, ImageData actual) {
+    assertEquals(expected.getNorthOverflow(), actual.getNorthOverflow(), 0);
+    assertEquals(expected.getSouthOverflow(), actual.getSouthOverflow(), 0);
+    assertEquals(expected.getEastOverflow(), actual.getEastOverflow(), 0);
+    assertEquals(expected.getWestOverflow(), actual.getWestOverflow(), 0);
+  }
+}
@@ -0,0 +1,72 @@
+package main.game.model.data.dataobject;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Checks that data objects are read back from an {@link main.game.model.data.AssetPack} the same as
+ * they were written.
+ */
+final class PackedDataAssert {
+
+  private static final Gson gson = new Gson();
+
+  private PackedDataAssert() {
+  }
+
+  /**
+   * Writes a data object, e.g. with its writeTo method.
+   */
+  interface Writer<T> {
+
+    void write(T data, DataOutput out) throws IOException;
+  }
+
+  /**
+   * Makes a data object the same way the data files are loaded.
+   */
+  static <T> T fromJson(Class<T> type, String json) {
+    return gson.fromJson(json, type);
+  }
+
+  /**
+   * Writes the data object and reads it back, checking that everything written was read and that
+   * what was read is written the same again.
+   *
+   * @return what was read
+   */
+  static <T> T assertRoundTrip(T data, Writer<T> writer, Function<ByteBuffer, T> reader) {
+    byte[] bytes = write(data, writer);
+    ByteBuffer in = ByteBuffer.wrap(bytes);
+    T read = reader.apply(in);
+    assertEquals("Bytes left after reading", 0, in.remaining());
+    assertArrayEquals("Written differently after reading", bytes, write(read, writer));
+    return read;
+  }
+
+  /**
+   * Checks that every field that the data files set is the same.
+   */
+  static void assertSameFields(Object expected, Object actual) {
+    assertEquals(gson.toJson(expected), gson.toJson(actual));
+  }
+
+  private static <T> byte[] write(T data, Writer<T> writer) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      writer.write(data, new DataOutputStream(bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+}
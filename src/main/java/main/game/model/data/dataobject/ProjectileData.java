@@ -0,0 +1,115 @@
+package main.game.model.data.dataobject;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import main.game.model.data.AssetPack;
+import main.game.model.data.DataLoader;
+
+/**
+ * Data object for the projectile fired by an attack with the "projectile" strategy.
+ */
+public class ProjectileData {
+
+  private double size;
+  private double impactSize;
+  private double speed;
+  private boolean launchFromCentre = false;
+  private String flyAnimation;
+  private int flyAnimationLength;
+  private String impactAnimation;
+  private int impactAnimationLength;
+
+  // Forign Keys.
+  private String spriteSheet;
+  private String impactSpriteSheet;
+  private SpriteSheetData spriteSheetData;
+  private SpriteSheetData impactSpriteSheetData;
+
+  public void buildRelationships(DataLoader dataLoader) {
+    this.spriteSheetData = dataLoader.getDataForSpriteSheet(spriteSheet);
+    this.impactSpriteSheetData = dataLoader.getDataForSpriteSheet(
+        impactSpriteSheet == null ? spriteSheet : impactSpriteSheet
+    );
+  }
+
+  public double getSize() {
+    return size;
+  }
+
+  public double getImpactSize() {
+    return impactSize;
+  }
+
+  /**
+   * The distance the projectile moves each tick.
+   */
+  public double getSpeed() {
+    return speed;
+  }
+
+  /**
+   * Whether the projectile starts at the centre of the unit firing it instead of the top left.
+   */
+  public boolean isLaunchFromCentre() {
+    return launchFromCentre;
+  }
+
+  public SpriteSheetData getSpriteSheet() {
+    return spriteSheetData;
+  }
+
+  public String getFlyAnimation() {
+    return flyAnimation;
+  }
+
+  public int getFlyAnimationLength() {
+    return flyAnimationLength;
+  }
+
+  public SpriteSheetData getImpactSpriteSheet() {
+    return impactSpriteSheetData;
+  }
+
+  public String getImpactAnimation() {
+    return impactAnimation;
+  }
+
+  public int getImpactAnimationLength() {
+    return impactAnimationLength;
+  }
+
+  /**
+   * Writes the projectile for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeDouble(this.size);
+    out.writeDouble(this.impactSize);
+    out.writeDouble(this.speed);
+    out.writeBoolean(this.launchFromCentre);
+    AssetPack.writeString(out, this.flyAnimation);
+    out.writeInt(this.flyAnimationLength);
+    AssetPack.writeString(out, this.impactAnimation);
+    out.writeInt(this.impactAnimationLength);
+    AssetPack.writeString(out, this.spriteSheet);
+    AssetPack.writeString(out, this.impactSpriteSheet);
+  }
+
+  /**
+   * Reads a projectile written by {@link #writeTo}.
+   */
+  public static ProjectileData readFrom(ByteBuffer in) {
+    ProjectileData projectile = new ProjectileData();
+    projectile.size = in.getDouble();
+    projectile.impactSize = in.getDouble();
+    projectile.speed = in.getDouble();
+    projectile.launchFromCentre = in.get() != 0;
+    projectile.flyAnimation = AssetPack.readString(in);
+    projectile.flyAnimationLength = in.getInt();
+    projectile.impactAnimation = AssetPack.readString(in);
+    projectile.impactAnimationLength = in.getInt();
+    projectile.spriteSheet = AssetPack.readString(in);
+    projectile.impactSpriteSheet = AssetPack.readString(in);
+    return projectile;
+  }
+}
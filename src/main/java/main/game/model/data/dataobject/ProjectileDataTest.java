@@ -0,0 +1,36 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+
+import org.junit.Test;
+
+public class ProjectileDataTest {
+
+  @Test
+  public void testRoundTrip_keepsEveryField() {
+    ProjectileData projectile = fromJson(ProjectileData.class, "{"
+        + "\"size\": 0.5, \"impactSize\": 1.25, \"speed\": 0.3, \"launchFromCentre\": true,"
+        + "\"flyAnimation\": \"animation:fly\", \"flyAnimationLength\": 4,"
+        + "\"impactAnimation\": \"animation:impact\", \"impactAnimationLength\": 6,"
+        + "\"spriteSheet\": \"projectile_sheet:fireball\","
+        + "\"impactSpriteSheet\": \"projectile_sheet:explosion\""
+        + "}");
+    ProjectileData read = assertRoundTrip(projectile, ProjectileData::writeTo,
+        ProjectileData::readFrom);
+    assertSameFields(projectile, read);
+  }
+
+  @Test
+  public void testRoundTrip_withoutImpactSpriteSheet() {
+    ProjectileData projectile = fromJson(ProjectileData.class, "{"
+        + "\"size\": 0.5, \"speed\": 0.3,"
+        + "\"flyAnimation\": \"animation:fly\", \"flyAnimationLength\": 4,"
+        + "\"spriteSheet\": \"projectile_sheet:arrow\""
+        + "}");
+    ProjectileData read = assertRoundTrip(projectile, ProjectileData::writeTo,
+        ProjectileData::readFrom);
+    assertSameFields(projectile, read);
+  }
+}
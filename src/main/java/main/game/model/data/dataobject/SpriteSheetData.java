@@ -1,35 +1,149 @@
 package main.game.model.data.dataobject;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import javax.imageio.ImageIO;
+import main.game.model.data.AssetPack;
 import main.game.model.data.DataLoader;
+import main.game.model.data.SpriteAtlas;
 
 /**
- * Data object for a sprite sheet.
+ * Data object for a sprite sheet. The image is only decoded the first time one of its frames is
+ * needed (or it is preloaded), and the frames can be thrown away again when memory runs low unless
+ * the sheet is being kept, e.g. by a {@link main.game.model.data.SpriteSheetCache}.
  * @author Andrew McGhie
  */
 public class SpriteSheetData {
 
+  /** The animation whose first frame, facing the first direction, is the sheet's icon. */
+  private static final String ICON_ANIMATION = "animation:idle";
+
+  /** The number of times a kept sheet has been released, see {@link #getReleaseCount()}. */
+  private static final AtomicInteger releaseCount = new AtomicInteger();
+
   private String id;
   private String location;
   private String type;
 
   private SpriteSheetTypeData typeData;
-  private Map<String, ImageData[][]> images = new HashMap<>();
+  /** The frames while the sheet is kept (see {@link #keep()}), otherwise null. */
+  private transient volatile Map<String, ImageData[][]> keptImages;
+  /** The frames once decoded, thrown away by the garbage collector if it needs the memory. */
+  private transient volatile SoftReference<Map<String, ImageData[][]>> images =
+      new SoftReference<>(null);
+  /** The frames in the asset pack the sheet was read from, or null if it was read from JSON. */
+  private transient ByteBuffer packedImages;
+  /** Gives the atlases of the pack the sheet was read from, by their number. */
+  private transient IntFunction<BufferedImage> pages;
 
   /**
-   * Loads all the images an sorts them into animation and directions.
+   * Links the sheet to its type. The image isn't loaded until one of its frames is needed.
    */
   public void build(DataLoader dataLoader) {
     this.typeData = dataLoader.getDataForSpriteSheetType(type);
+  }
+
+  /**
+   * Decodes the sheet now, if it isn't already, so getting a frame later doesn't have to wait.
+   */
+  public void preload() {
+    this.getImages();
+  }
+
+  /**
+   * Keeps the frames in memory until {@link #release()}, decoding them if they aren't already.
+   */
+  public void keep() {
+    Map<String, ImageData[][]> images = this.getImages();
+    synchronized (this) {
+      this.keptImages = images;
+    }
+  }
+
+  /**
+   * Lets the frames be thrown away if memory runs low. They are decoded again if they are needed
+   * after that.
+   */
+  public synchronized void release() {
+    if (this.keptImages != null) {
+      this.keptImages = null;
+      releaseCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Whether the frames are being kept, see {@link #keep()}.
+   */
+  public boolean isKept() {
+    return this.keptImages != null;
+  }
+
+  /**
+   * The number of times any sheet has been released, so caches of things made from the frames
+   * (see {@link ImageData#getCacheKey()}) can tell when to drop the ones of sheets that aren't
+   * kept any more.
+   */
+  public static int getReleaseCount() {
+    return releaseCount.get();
+  }
+
+  /**
+   * The frames, decoding them if they aren't already. The decoding is done without holding the
+   * lock, so a sheet being decoded in the background doesn't hold up keeping or releasing it. If
+   * two threads decode the sheet at once they both use the frames of the one that finished first.
+   */
+  private Map<String, ImageData[][]> getImages() {
+    Map<String, ImageData[][]> images = this.getDecodedImages();
+    if (images != null) {
+      return images;
+    }
+    Map<String, ImageData[][]> decoded =
+        this.packedImages != null ? this.readPackedImages() : this.decode();
+    synchronized (this) {
+      images = this.getDecodedImages();
+      if (images == null) {
+        images = decoded;
+        this.images = new SoftReference<>(images);
+      }
+    }
+    return images;
+  }
+
+  /**
+   * The frames if they are decoded, otherwise null.
+   */
+  private Map<String, ImageData[][]> getDecodedImages() {
+    Map<String, ImageData[][]> images = this.keptImages;
+    return images != null ? images : this.images.get();
+  }
+
+  /**
+   * Loads the image, sorts it into animations and directions and packs the frames into an atlas
+   * of their own with their transparent borders trimmed. The icon isn't trimmed, since it is shown
+   * by itself at the size and shape of a whole frame.
+   */
+  private Map<String, ImageData[][]> decode() {
+    Map<String, ImageData[][]> images = new HashMap<>();
     Collection<AnimationData> animations = typeData.getAnimations();
     try {
       BufferedImage image = ImageIO.read(new File(this.location));
+      // Animations can use the same frames, so they share the images
+      Map<Rectangle, BufferedImage> frameImages = new HashMap<>();
       animations.forEach(animationData -> {
         int startY = typeData.getAnimationStart(animationData.getId());
         images.put(animationData.getId(),
@@ -41,8 +155,10 @@ public class SpriteSheetData {
             int y = startY + direction * animationData.getHeight();
             BufferedImage spriteImage = null;
             try {
-              spriteImage = image
-                  .getSubimage(x, y, animationData.getWidth(), animationData.getHeight());
+              spriteImage = frameImages.computeIfAbsent(
+                  new Rectangle(x, y, animationData.getWidth(), animationData.getHeight()),
+                  rect -> image.getSubimage(rect.x, rect.y, rect.width, rect.height)
+              );
             } catch (Exception e) {
               e.printStackTrace();
             }
@@ -52,6 +168,8 @@ public class SpriteSheetData {
                 animationData.getEastOverflow(),
                 animationData.getWestOverflow()
             );
+            spriteImageData.setCacheKey(
+                new FrameKey(this, animationData.getId(), direction, frame));
             images.get(animationData.getId())[direction][frame] = spriteImageData;
           }
         }
@@ -60,12 +178,26 @@ public class SpriteSheetData {
       System.err.println("SpriteSheet image" + this.id + " at Location " + this.location
           + " was not found");
     }
+
+    // The sheet itself can be thrown away once the frames are packed
+    ImageData icon = iconOf(images);
+    SpriteAtlas atlas = new SpriteAtlas();
+    images.values().stream()
+        .flatMap(Arrays::stream)
+        .flatMap(Arrays::stream)
+        .forEach(imageData -> atlas.add(imageData, imageData != icon));
+    atlas.pack();
+    return images;
   }
 
   public String getId() {
     return this.id;
   }
 
+  public String getLocation() {
+    return this.location;
+  }
+
   public AnimationData getAnimation(String id) {
     return this.typeData.getAnimationData(id);
   }
@@ -76,6 +208,10 @@ public class SpriteSheetData {
    *                    i.e. not the angle
    */
   public ImageData getImage(String animation, int frame, int direction) {
+    Map<String, ImageData[][]> images = this.keptImages;
+    if (images == null) {
+      images = this.getImages();
+    }
     if (!images.containsKey(animation)) {
       throw new IllegalArgumentException("The spritesheet does not contain " + animation);
     }
@@ -94,4 +230,139 @@ public class SpriteSheetData {
     return animationImages[direction][frame];
   }
 
+  /**
+   * Gets the frame that stands for the whole sheet, e.g. the portrait of a unit in the HUD. Unlike
+   * the other frames it keeps its transparent border.
+   */
+  public ImageData getIcon() {
+    return this.getImage(ICON_ANIMATION, 0, 0);
+  }
+
+  private static ImageData iconOf(Map<String, ImageData[][]> images) {
+    ImageData[][] animationImages = images.get(ICON_ANIMATION);
+    if (animationImages == null || animationImages.length == 0
+        || animationImages[0].length == 0) {
+      return null;
+    }
+    return animationImages[0][0];
+  }
+
+  /**
+   * Writes the sheet and its frames for an {@link AssetPack}, decoding the sheet if it isn't
+   * already.
+   *
+   * @param atlasIndex gives the number of an atlas in the pack
+   */
+  public void writeTo(DataOutput out, ToIntFunction<BufferedImage> atlasIndex) throws IOException {
+    AssetPack.writeString(out, this.id);
+    AssetPack.writeString(out, this.location);
+    AssetPack.writeString(out, this.type);
+
+    // The frames are written with their length first so they can be skipped until needed
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream framesOut = new DataOutputStream(bytes);
+    Map<String, ImageData[][]> images = this.getImages();
+    framesOut.writeInt(images.size());
+    for (Map.Entry<String, ImageData[][]> animation : images.entrySet()) {
+      ImageData[][] animationImages = animation.getValue();
+      AssetPack.writeString(framesOut, animation.getKey());
+      framesOut.writeInt(animationImages.length);
+      framesOut.writeInt(animationImages.length == 0 ? 0 : animationImages[0].length);
+      for (ImageData[] directionImages : animationImages) {
+        for (ImageData imageData : directionImages) {
+          imageData.writeTo(framesOut, atlasIndex);
+        }
+      }
+    }
+    out.writeInt(bytes.size());
+    out.write(bytes.toByteArray());
+  }
+
+  /**
+   * Reads a sheet written by {@link #writeTo}. Its frames are left in the pack until they are
+   * needed, the same as a sheet is only decoded when it is needed.
+   *
+   * @param pages gives the atlas with a number (e.g. {@link AssetPack#getPage(int)}), it is called
+   *        again each time the frames are read
+   */
+  public static SpriteSheetData readFrom(ByteBuffer in, IntFunction<BufferedImage> pages) {
+    SpriteSheetData sheet = new SpriteSheetData();
+    sheet.id = AssetPack.readString(in);
+    sheet.location = AssetPack.readString(in);
+    sheet.type = AssetPack.readString(in);
+    int length = in.getInt();
+    sheet.packedImages = in.slice();
+    sheet.packedImages.limit(length);
+    sheet.pages = pages;
+    in.position(in.position() + length);
+    return sheet;
+  }
+
+  /**
+   * Reads the frames from the asset pack, copying their atlases out of it.
+   */
+  private Map<String, ImageData[][]> readPackedImages() {
+    ByteBuffer in = this.packedImages.duplicate();
+    Map<Integer, BufferedImage> atlases = new HashMap<>();
+    IntFunction<BufferedImage> atlas =
+        index -> atlases.computeIfAbsent(index, this.pages::apply);
+    int animationCount = in.getInt();
+    Map<String, ImageData[][]> images = new HashMap<>();
+    for (int i = 0; i < animationCount; i++) {
+      String animation = AssetPack.readString(in);
+      int directions = in.getInt();
+      int frames = in.getInt();
+      ImageData[][] animationImages = new ImageData[directions][frames];
+      for (int direction = 0; direction < directions; direction++) {
+        for (int frame = 0; frame < frames; frame++) {
+          ImageData imageData = ImageData.readFrom(in, atlas);
+          imageData.setCacheKey(new FrameKey(this, animation, direction, frame));
+          animationImages[direction][frame] = imageData;
+        }
+      }
+      images.put(animation, animationImages);
+    }
+    return images;
+  }
+
+  /**
+   * Identifies a frame of a sheet, which stays the same when the sheet is decoded again. See
+   * {@link ImageData#getCacheKey()}.
+   */
+  public static final class FrameKey {
+
+    private final SpriteSheetData sheet;
+    private final String animation;
+    private final int direction;
+    private final int frame;
+
+    private FrameKey(SpriteSheetData sheet, String animation, int direction, int frame) {
+      this.sheet = sheet;
+      this.animation = animation;
+      this.direction = direction;
+      this.frame = frame;
+    }
+
+    public SpriteSheetData getSheet() {
+      return this.sheet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof FrameKey)) {
+        return false;
+      }
+      FrameKey key = (FrameKey) o;
+      return this.sheet == key.sheet
+          && this.animation.equals(key.animation)
+          && this.direction == key.direction
+          && this.frame == key.frame;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(this.sheet), this.animation, this.direction,
+          this.frame);
+    }
+  }
 }
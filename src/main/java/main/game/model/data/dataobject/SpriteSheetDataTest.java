@@ -0,0 +1,54 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import main.game.model.data.DataLoader;
+import org.junit.Test;
+
+public class SpriteSheetDataTest {
+
+  private static final DataLoader dataLoader = new DataLoader();
+
+  /**
+   * Writes the sheet and reads it back. The frames are written again from the read sheet, so every
+   * one of them has to come back the same.
+   */
+  private static SpriteSheetData roundTrip(SpriteSheetData sheet) {
+    List<BufferedImage> pages = new ArrayList<>();
+    Map<BufferedImage, Integer> pageIndices = new IdentityHashMap<>();
+    return assertRoundTrip(sheet,
+        (data, out) -> data.writeTo(out, page -> pageIndices.computeIfAbsent(page, p -> {
+          pages.add(p);
+          return pages.size() - 1;
+        })),
+        in -> SpriteSheetData.readFrom(in, pages::get));
+  }
+
+  @Test
+  public void testRoundTrip_keepsEveryFrame() {
+    SpriteSheetData sheet = dataLoader.getDataForSpriteSheet("unit_sheet:archer");
+    SpriteSheetData read = roundTrip(sheet);
+    assertEquals(sheet.getId(), read.getId());
+    assertEquals(sheet.getLocation(), read.getLocation());
+  }
+
+  @Test
+  public void testRoundTrip_keepsTheIconWhole() {
+    SpriteSheetData sheet = dataLoader.getDataForSpriteSheet("unit_sheet:archer");
+    BufferedImage icon = sheet.getIcon().getImage();
+    BufferedImage readIcon = roundTrip(sheet).getIcon().getImage();
+    assertEquals(icon.getWidth(), readIcon.getWidth());
+    assertEquals(icon.getHeight(), readIcon.getHeight());
+    for (int x = 0; x < icon.getWidth(); x++) {
+      for (int y = 0; y < icon.getHeight(); y++) {
+        assertEquals(icon.getRGB(x, y), readIcon.getRGB(x, y));
+      }
+    }
+  }
+}
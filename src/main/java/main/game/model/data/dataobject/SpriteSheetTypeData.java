@@ -1,8 +1,13 @@
 package main.game.model.data.dataobject;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import main.game.model.data.AssetPack;
 import main.game.model.data.DataLoader;
 
 /**
@@ -45,4 +50,30 @@ public class SpriteSheetTypeData {
     return this.animations.get(id);
   }
 
+  /**
+   * Writes the sprite sheet type for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    AssetPack.writeString(out, this.id);
+    out.writeInt(this.animations.size());
+    for (Map.Entry<String, Integer> animation : this.animations.entrySet()) {
+      AssetPack.writeString(out, animation.getKey());
+      out.writeInt(animation.getValue());
+    }
+  }
+
+  /**
+   * Reads a sprite sheet type written by {@link #writeTo}.
+   */
+  public static SpriteSheetTypeData readFrom(ByteBuffer in) {
+    SpriteSheetTypeData type = new SpriteSheetTypeData();
+    type.id = AssetPack.readString(in);
+    int count = in.getInt();
+    // In the order they were written, the same as the data files are read
+    type.animations = new LinkedHashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      type.animations.put(AssetPack.readString(in), in.getInt());
+    }
+    return type;
+  }
 }
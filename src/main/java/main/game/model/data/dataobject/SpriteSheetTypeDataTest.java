@@ -0,0 +1,23 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SpriteSheetTypeDataTest {
+
+  @Test
+  public void testRoundTrip_keepsEveryAnimation() {
+    SpriteSheetTypeData type = fromJson(SpriteSheetTypeData.class, "{"
+        + "\"id\": \"spritesheettype:unit\","
+        + "\"animations\": {\"animation:idle\": 0, \"animation:walk\": 384, \"animation:die\": 768}"
+        + "}");
+    SpriteSheetTypeData read = assertRoundTrip(type, SpriteSheetTypeData::writeTo,
+        SpriteSheetTypeData::readFrom);
+    assertSameFields(type, read);
+    assertEquals(384, read.getAnimationStart("animation:walk"));
+  }
+}
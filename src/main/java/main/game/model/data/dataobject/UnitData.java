@@ -1,5 +1,9 @@
 package main.game.model.data.dataobject;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import main.game.model.data.AssetPack;
 import main.game.model.data.DataLoader;
 
 /**
@@ -51,4 +55,32 @@ public class UnitData {
   public SpriteSheetData getSpritesheetData() {
     return spriteSheetData;
   }
+
+  /**
+   * Writes the unit type for an {@link AssetPack}.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    AssetPack.writeString(out, this.id);
+    out.writeDouble(this.startingHealth);
+    out.writeDouble(this.movementSpeed);
+    out.writeDouble(this.lineOfSight);
+    out.writeDouble(this.size);
+    AssetPack.writeString(out, this.baseAttack);
+    AssetPack.writeString(out, this.spriteSheet);
+  }
+
+  /**
+   * Reads an unit type written by {@link #writeTo}.
+   */
+  public static UnitData readFrom(ByteBuffer in) {
+    UnitData unit = new UnitData();
+    unit.id = AssetPack.readString(in);
+    unit.startingHealth = in.getDouble();
+    unit.movementSpeed = in.getDouble();
+    unit.lineOfSight = in.getDouble();
+    unit.size = in.getDouble();
+    unit.baseAttack = AssetPack.readString(in);
+    unit.spriteSheet = AssetPack.readString(in);
+    return unit;
+  }
 }
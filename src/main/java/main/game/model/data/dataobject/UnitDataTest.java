@@ -0,0 +1,21 @@
+package main.game.model.data.dataobject;
+
+import static main.game.model.data.dataobject.PackedDataAssert.assertRoundTrip;
+import static main.game.model.data.dataobject.PackedDataAssert.assertSameFields;
+import static main.game.model.data.dataobject.PackedDataAssert.fromJson;
+
+import org.junit.Test;
+
+public class UnitDataTest {
+
+  @Test
+  public void testRoundTrip_keepsEveryField() {
+    UnitData unit = fromJson(UnitData.class, "{"
+        + "\"id\": \"unittype:archer\", \"startingHealth\": 150, \"movementSpeed\": 0.15,"
+        + "\"lineOfSight\": 7.5, \"size\": 1.25, \"baseAttack\": \"attack:arrow\","
+        + "\"spriteSheet\": \"unit_sheet:archer\""
+        + "}");
+    UnitData read = assertRoundTrip(unit, UnitData::writeTo, UnitData::readFrom);
+    assertSameFields(unit, read);
+  }
+}
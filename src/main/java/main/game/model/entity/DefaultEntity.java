@@ -2,6 +2,10 @@ package main.game.model.entity;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicLong;
 import main.game.view.Renderable;
 import main.game.view.ViewVisitor;
 import main.util.Config;
@@ -11,7 +15,10 @@ import main.util.MapRect;
 import main.util.MapSize;
 
 /**
- * Default implementation of {@link Entity}.
+ * Default implementation of {@link Entity}. While the entity is in an {@link EntityStore} (i.e.
+ * it is in a world) the thread writing to the store reads and writes its slot in the store. Other
+ * threads read an immutable {@link Placement} that the store publishes after each tick, so they
+ * never see another entity's state or half of a tick.
  * @author chongdyla (Secondary Author)
  * @author paladogabr
  */
@@ -19,58 +26,260 @@ public abstract class DefaultEntity implements Entity {
 
   private static final long serialVersionUID = 1L;
 
+  private static final AtomicLong nextSpawnOrder = new AtomicLong();
+
+  private final long spawnOrder = nextSpawnOrder.getAndIncrement();
+
+  /** Only kept up to date for serialisation, see {@link #placement}. */
   private MapPoint topLeft;
   private MapSize size;
 
   private final Event<Void> removedEvent = new Event<>();
 
+  /**
+   * Transient because the listeners are indexes owned by the world, which rebuilds them (and
+   * re-registers) on load.
+   */
+  private transient Event<Void> movedEvent = new Event<>();
+
+  /** Where the entity is, as of the last time it was published. Rebuilt on load. */
+  private transient volatile Placement placement;
+
+  /** The store this is a view of, or null if it isn't in one. Stores are rebuilt on load. */
+  private transient EntityStore store;
+  private transient int slot;
+  private transient int handle = EntityStore.NO_HANDLE;
+
   /**
    * Constructor takes the topLeft of the entity and the size.
    */
   public DefaultEntity(MapPoint topLeft, MapSize size) {
-    this.topLeft = requireNonNull(topLeft);
-    this.size = requireNonNull(size);
+    this.placement = new Placement(requireNonNull(topLeft), requireNonNull(size));
+  }
+
+  /**
+   * Called during deserialisation.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    this.movedEvent = new Event<>();
+    this.placement = new Placement(topLeft, size);
+    // Entities created after loading must come after the loaded ones
+    nextSpawnOrder.accumulateAndGet(this.spawnOrder + 1, Math::max);
+    this.handle = EntityStore.NO_HANDLE;
+  }
+
+  /**
+   * Called during serialisation.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    EntityStore store = this.store;
+    if (store != null && store.isWriting()) {
+      copyFromStore(store, slot);
+    }
+    Placement placement = this.placement;
+    this.topLeft = placement.topLeft;
+    this.size = placement.size;
+    out.defaultWriteObject();
+  }
+
+  /**
+   * Called by the store when this is added to it.
+   */
+  final void attach(EntityStore store, int slot, int handle) {
+    this.store = store;
+    this.slot = slot;
+    this.handle = handle;
+  }
+
+  /**
+   * Called by the store when this is removed from it.
+   */
+  final void detach() {
+    copyFromStore(store, slot);
+    this.store = null;
+    this.handle = EntityStore.NO_HANDLE;
+  }
+
+  /**
+   * Copies this entity's state out of its slot in the store, for threads that don't read the
+   * store. Called by the store when it publishes.
+   */
+  protected void copyFromStore(EntityStore store, int slot) {
+    MapSize size = this.placement.size;
+    if (size.width != store.width(slot) || size.height != store.height(slot)) {
+      size = new MapSize(store.width(slot), store.height(slot));
+    }
+    this.placement = new Placement(new MapPoint(store.x(slot), store.y(slot)), size);
+  }
+
+  /**
+   * The store to read from, which is this entity's store if the current thread is writing to it,
+   * otherwise null.
+   */
+  protected final EntityStore getWritingStore() {
+    EntityStore store = this.store;
+    return store != null && store.isWriting() ? store : null;
+  }
+
+  /**
+   * The slot of this in its store. Only meaningful when {@link #getStore()} isn't null.
+   */
+  protected final int getSlot() {
+    return slot;
+  }
+
+  /**
+   * The store this is a view of, or null if it isn't in one.
+   */
+  protected final EntityStore getStore() {
+    return store;
+  }
+
+  /**
+   * The handle of this in its store, or {@link EntityStore#NO_HANDLE} if it isn't in one.
+   */
+  public int getHandle() {
+    return handle;
   }
 
   public Event<Void> getRemovedEvent() {
     return this.removedEvent;
   }
 
+  @Override
+  public Event<Void> getMovedEvent() {
+    return this.movedEvent;
+  }
+
+  @Override
+  public long getSpawnOrder() {
+    return this.spawnOrder;
+  }
+
   protected void setSize(MapSize size) {
-    this.size = size;
+    EntityStore store = this.store;
+    if (store != null) {
+      store.setSize(slot, size.width, size.height);
+    } else {
+      this.placement = new Placement(this.placement.topLeft, size);
+    }
   }
 
   @Override
   public MapPoint getTopLeft() {
-    return topLeft;
+    EntityStore store = getWritingStore();
+    if (store != null && store.isChanged(slot)) {
+      return new MapPoint(store.x(slot), store.y(slot));
+    }
+    return placement.topLeft;
   }
 
   @Override
   public MapPoint getCentre() {
-    return new MapPoint(topLeft.x + size.width / 2, topLeft.y + size.height / 2);
+    EntityStore store = getWritingStore();
+    if (store != null && store.isChanged(slot)) {
+      return new MapPoint(
+          store.x(slot) + store.width(slot) / 2, store.y(slot) + store.height(slot) / 2
+      );
+    }
+    return placement.centre;
   }
 
   @Override
   public MapSize getSize() {
-    return new MapSize(size.width, size.height);
+    EntityStore store = getWritingStore();
+    if (store != null && store.isChanged(slot)) {
+      return new MapSize(store.width(slot), store.height(slot));
+    }
+    return placement.size;
   }
 
   @Override
   public MapRect getRect() {
-    return new MapRect(getTopLeft(), getSize());
+    EntityStore store = getWritingStore();
+    if (store != null) {
+      return new MapRect(store.x(slot), store.y(slot), store.width(slot), store.height(slot));
+    }
+    Placement placement = this.placement;
+    return new MapRect(placement.topLeft, placement.size);
+  }
+
+  @Override
+  public double getLeft() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.x(slot) : placement.topLeft.x;
+  }
+
+  @Override
+  public double getTop() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.y(slot) : placement.topLeft.y;
+  }
+
+  @Override
+  public double getCentreX() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.x(slot) + store.width(slot) / 2 : placement.centre.x;
+  }
+
+  @Override
+  public double getCentreY() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.y(slot) + store.height(slot) / 2 : placement.centre.y;
+  }
+
+  @Override
+  public double getWidth() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.width(slot) : placement.size.width;
+  }
+
+  @Override
+  public double getHeight() {
+    EntityStore store = getWritingStore();
+    return store != null ? store.height(slot) : placement.size.height;
   }
 
   @Override
   public void translatePosition(double dx, double dy) {
-    topLeft = topLeft.translate(dx, dy);
+    move(dx, dy);
   }
 
   @Override
   public void slidePosition(double dx, double dy) {
-    topLeft = topLeft.translate(dx, dy);
+    move(dx, dy);
+  }
+
+  private void move(double dx, double dy) {
+    EntityStore store = this.store;
+    if (store != null) {
+      store.translate(slot, dx, dy);
+    } else {
+      Placement placement = this.placement;
+      this.placement = new Placement(placement.topLeft.translate(dx, dy), placement.size);
+    }
+    movedEvent.broadcast(null);
   }
 
   public Renderable accept(Config config, ViewVisitor viewVisitor) {
     return viewVisitor.makeDefaultView(config, this);
   }
+
+  /**
+   * An immutable copy of where an entity is, with the centre worked out once rather than on every
+   * call.
+   */
+  private static final class Placement {
+
+    private final MapPoint topLeft;
+    private final MapSize size;
+    private final MapPoint centre;
+
+    private Placement(MapPoint topLeft, MapSize size) {
+      this.topLeft = topLeft;
+      this.size = size;
+      this.centre = new MapPoint(topLeft.x + size.width / 2, topLeft.y + size.height / 2);
+    }
+  }
 }
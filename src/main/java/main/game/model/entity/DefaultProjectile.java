@@ -1,16 +1,12 @@
 package main.game.model.entity;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import main.game.model.data.dataobject.ImageData;
 import main.game.model.entity.unit.attack.Attack;
+import main.game.model.entity.unit.attack.AttackStrategies;
 import main.game.model.entity.unit.state.Targetable;
 import main.game.model.world.World;
 import main.images.Animation;
+import main.util.Geometry;
 import main.util.MapPoint;
 import main.util.MapSize;
 
@@ -33,7 +29,6 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
   private final Animation impactAnimation;
   private final MapSize impactSize;
   private final double moveDistancePerTick;
-  private final Invocable engine;
 
   private double angle = 0;
   private boolean hasHit = false;
@@ -67,16 +62,6 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
     this.impactAnimation = impactAnimation;
     this.impactSize = impactSize;
     this.moveDistancePerTick = moveDistancePerTick;
-
-    // TODO allow for projectiles to do other stuff than instant damaged
-    // eg pass the script location in as a string.
-    ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
-    try {
-      engine.eval(new FileReader("resources/scripts/instantDamage.js"));
-    } catch (ScriptException | FileNotFoundException e) {
-      e.printStackTrace();
-    }
-    this.engine = (Invocable) engine;
   }
 
   @Override
@@ -92,7 +77,10 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
 
     this.flyAnimation.tick();
 
-    double distToTarget = getDistanceToTarget();
+    MapPoint targetLocation = this.target.getLocation();
+    double centreX = getCentreX();
+    double centreY = getCentreY();
+    double distToTarget = Geometry.distance(centreX, centreY, targetLocation.x, targetLocation.y);
     // 0.5 if we move halfway there, 1 or greater if we move all the way there, etc
     double percentage = moveDistancePerTick / distToTarget;
 
@@ -100,10 +88,10 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
       percentage = 1; // teleport there because we are close enough
     }
 
-    this.angle = this.target.getLocation().angleTo(this.getCentre());
+    this.angle = Geometry.angle(targetLocation.x, targetLocation.y, centreX, centreY);
     translatePosition(
-        percentage * (this.target.getLocation().x - getCentre().x),
-        percentage * (this.target.getLocation().y - getCentre().y)
+        percentage * (targetLocation.x - centreX),
+        percentage * (targetLocation.y - centreY)
     );
 
 
@@ -115,7 +103,7 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
 
   @Override
   public boolean contains(MapPoint point) {
-    return getRect().contains(point);
+    return Geometry.rectContains(getLeft(), getTop(), getWidth(), getHeight(), point.x, point.y);
   }
 
   @Override
@@ -125,9 +113,12 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
 
   @Override
   public void hitTarget(World world) {
+    // TODO allow for projectiles to do other stuff than instant damaged
+    // eg pass the strategy in.
     try {
-      this.engine.invokeFunction("apply", this.owner, this.target, this.attack, world);
-    } catch (ScriptException | NoSuchMethodException e) {
+      AttackStrategies.INSTANT_DAMAGE.apply(this.owner, this.target, this.attack, world);
+    } catch (RuntimeException e) {
+      // An error in the attack shouldn't stop the game
       e.printStackTrace();
     }
     world.removeProjectile(this);
@@ -143,7 +134,8 @@ public class DefaultProjectile extends DefaultEntity implements Projectile {
 
   @Override
   public double getDistanceToTarget() {
-    return getCentre().distanceTo(target.getLocation());
+    MapPoint targetLocation = target.getLocation();
+    return Geometry.distance(getCentreX(), getCentreY(), targetLocation.x, targetLocation.y);
   }
 
   @Override
@@ -54,6 +54,48 @@ public interface Entity extends Serializable {
    */
   MapRect getRect();
 
+  /**
+   * The x of {@link #getTopLeft()}, without allocating a point.
+   */
+  default double getLeft() {
+    return getTopLeft().x;
+  }
+
+  /**
+   * The y of {@link #getTopLeft()}, without allocating a point.
+   */
+  default double getTop() {
+    return getTopLeft().y;
+  }
+
+  /**
+   * The x of {@link #getCentre()}, without allocating a point.
+   */
+  default double getCentreX() {
+    return getCentre().x;
+  }
+
+  /**
+   * The y of {@link #getCentre()}, without allocating a point.
+   */
+  default double getCentreY() {
+    return getCentre().y;
+  }
+
+  /**
+   * The width of {@link #getSize()}, without allocating a size.
+   */
+  default double getWidth() {
+    return getSize().width;
+  }
+
+  /**
+   * The height of {@link #getSize()}, without allocating a size.
+   */
+  default double getHeight() {
+    return getSize().height;
+  }
+
   /**
    * Moves the entity.
    */
@@ -72,11 +114,26 @@ public interface Entity extends Serializable {
    */
   ImageData getImage();
 
+  /**
+   * Works out what the entity will do in the next {@link #tick(long, World)} without changing
+   * anything outside of the entity, so that entities can plan in parallel. The world doesn't change
+   * while entities are planning.
+   */
+  default void planTick(World world) {
+    // nothing to plan
+  }
+
   /**
    * Updates the Entity's position.
    */
   void tick(long timeSinceLastTick, World world);
 
+  /**
+   * The order that the entity was created in, compared to other entities. Entities are ticked in
+   * this order so that a game plays out the same way every time.
+   */
+  long getSpawnOrder();
+
   /**
    * Returns a boolean representing whether the given MapPoint is contained within the Entity.
    *
@@ -94,4 +151,10 @@ public interface Entity extends Serializable {
    * Gets the event that is triggered when the enitity is removed from the world.
    */
   Event<Void> getRemovedEvent();
+
+  /**
+   * Gets the event that is triggered after the entity has been moved by
+   * {@link #translatePosition(double, double)} or {@link #slidePosition(double, double)}.
+   */
+  Event<Void> getMovedEvent();
 }
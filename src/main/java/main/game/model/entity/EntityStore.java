@@ -0,0 +1,349 @@
+package main.game.model.entity;
+
+import java.util.Arrays;
+
+/**
+ * Holds the state that every tick reads and writes (position, size and health) for all of the
+ * entities in a world in parallel primitive arrays, one slot per entity, so that iterating over
+ * them walks through memory in order and moving an entity doesn't allocate (apart from one copy
+ * per changed entity when a tick is published).
+ *
+ * <p>
+ * Entities are referred to by an int handle, made of the slot and the generation of the slot. The
+ * generation changes whenever the slot is freed, so the handle of a removed entity stays invalid
+ * even after its slot is reused. {@link DefaultEntity}s in the store are views: their setters
+ * write the arrays instead of their own fields.
+ * </p>
+ *
+ * <p>
+ * The store keeps the slots in order of {@link Entity#getSpawnOrder()}, which is the order that
+ * {@link #copyHandles(int[])} returns them in.
+ * </p>
+ *
+ * <p>
+ * The arrays are only read and written by the thread that is changing the store, between {@link
+ * #startWriting()} and {@link #publish()} (i.e. during a tick). Every other thread, such as the
+ * renderer, reads the copy of its state that each {@link DefaultEntity} was last given by {@link
+ * #publish()}, so it always sees a whole tick of one entity. Changes made outside of writing are
+ * published straight away.
+ * </p>
+ */
+public final class EntityStore {
+
+  /**
+   * A handle that is never valid.
+   */
+  public static final int NO_HANDLE = -1;
+
+  private static final int SLOT_BITS = 20;
+  private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+  private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private Entity[] entities = new Entity[INITIAL_CAPACITY];
+  private int[] generations = new int[INITIAL_CAPACITY];
+  private long[] spawnOrders = new long[INITIAL_CAPACITY];
+  private double[] x = new double[INITIAL_CAPACITY];
+  private double[] y = new double[INITIAL_CAPACITY];
+  private double[] width = new double[INITIAL_CAPACITY];
+  private double[] height = new double[INITIAL_CAPACITY];
+  private double[] health = new double[INITIAL_CAPACITY];
+
+  /** Whether a slot has changed since it was last published. */
+  private boolean[] changed = new boolean[INITIAL_CAPACITY];
+  /** The slots that have changed since the last publish, each at most once. */
+  private int[] changedSlots = new int[INITIAL_CAPACITY];
+  private int changedCount = 0;
+  /** The thread that is writing, or null. */
+  private volatile Thread writer;
+
+  /** Slots that have been used before and are free again. */
+  private int[] freeSlots = new int[INITIAL_CAPACITY];
+  private int freeSlotCount = 0;
+  /** Slots from here up have never been used. */
+  private int slotLimit = 0;
+
+  /** The used slots sorted by spawn order. */
+  private int[] order = new int[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /**
+   * Adds an entity to the store, copying its current state in. A {@link DefaultEntity} is
+   * attached to the store so it reads and writes its state here until it is removed.
+   *
+   * @return the handle of the entity
+   */
+  public int add(Entity entity) {
+    if (entity instanceof DefaultEntity && ((DefaultEntity) entity).getStore() != null) {
+      throw new IllegalArgumentException("The entity is already in a store");
+    }
+    int slot = allocateSlot();
+    entities[slot] = entity;
+    spawnOrders[slot] = entity.getSpawnOrder();
+    x[slot] = entity.getTopLeft().x;
+    y[slot] = entity.getTopLeft().y;
+    width[slot] = entity.getSize().width;
+    height[slot] = entity.getSize().height;
+    health[slot] = entity instanceof Unit ? ((Unit) entity).getHealth() : 0;
+    insertInOrder(slot);
+
+    int handle = handleOf(slot);
+    if (entity instanceof DefaultEntity) {
+      ((DefaultEntity) entity).attach(this, slot, handle);
+    }
+    return handle;
+  }
+
+  /**
+   * Removes an entity from the store. A {@link DefaultEntity} gets its state copied back out.
+   *
+   * @return whether it was in the store
+   */
+  public boolean remove(Entity entity) {
+    int slot = slotOf(entity);
+    if (slot < 0) {
+      return false;
+    }
+    if (entity instanceof DefaultEntity) {
+      ((DefaultEntity) entity).detach();
+    }
+    removeFromOrder(slot);
+    entities[slot] = null;
+    generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+    if (freeSlotCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+    }
+    freeSlots[freeSlotCount++] = slot;
+    return true;
+  }
+
+  /**
+   * Whether the handle refers to an entity that is still in the store.
+   */
+  public boolean isValid(int handle) {
+    if (handle < 0) {
+      return false;
+    }
+    int slot = handle & SLOT_MASK;
+    return slot < slotLimit
+        && entities[slot] != null
+        && generations[slot] == handle >>> SLOT_BITS;
+  }
+
+  /**
+   * Gets the entity with the handle.
+   *
+   * @return the entity, or null if the handle isn't valid any more
+   */
+  public Entity get(int handle) {
+    return isValid(handle) ? entities[handle & SLOT_MASK] : null;
+  }
+
+  /**
+   * Gets the slot of a handle, for use with the slot accessors.
+   *
+   * @throws IllegalArgumentException if the handle isn't valid
+   */
+  public int slotOf(int handle) {
+    if (!isValid(handle)) {
+      throw new IllegalArgumentException("Invalid handle: " + handle);
+    }
+    return handle & SLOT_MASK;
+  }
+
+  /**
+   * The number of entities in the store.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copies the handles of every entity in the store into an array, in spawn order.
+   *
+   * @param handles an array to reuse if it is big enough, or null
+   * @return the array the handles were copied into, of at least {@link #size()}
+   */
+  public int[] copyHandles(int[] handles) {
+    if (handles == null || handles.length < size) {
+      handles = new int[Math.max(size, INITIAL_CAPACITY)];
+    }
+    for (int i = 0; i < size; i++) {
+      handles[i] = handleOf(order[i]);
+    }
+    return handles;
+  }
+
+  public double x(int slot) {
+    return x[slot];
+  }
+
+  public double y(int slot) {
+    return y[slot];
+  }
+
+  public double width(int slot) {
+    return width[slot];
+  }
+
+  public double height(int slot) {
+    return height[slot];
+  }
+
+  public double health(int slot) {
+    return health[slot];
+  }
+
+  /**
+   * Whether the slot has changed since it was last published.
+   */
+  public boolean isChanged(int slot) {
+    return changed[slot];
+  }
+
+  /**
+   * Moves the top left of the entity in the slot.
+   */
+  public void translate(int slot, double dx, double dy) {
+    x[slot] += dx;
+    y[slot] += dy;
+    markChanged(slot);
+  }
+
+  public void setSize(int slot, double width, double height) {
+    this.width[slot] = width;
+    this.height[slot] = height;
+    markChanged(slot);
+  }
+
+  public void setHealth(int slot, double health) {
+    this.health[slot] = health;
+    markChanged(slot);
+  }
+
+  /**
+   * Makes the current thread the one that reads and writes the arrays, until {@link #publish()}.
+   */
+  public void startWriting() {
+    writer = Thread.currentThread();
+  }
+
+  /**
+   * Whether the current thread is the one writing, so it can read the arrays.
+   */
+  public boolean isWriting() {
+    return writer == Thread.currentThread();
+  }
+
+  /**
+   * Gives every entity that changed while writing a copy of its state, and stops writing.
+   */
+  public void publish() {
+    for (int i = 0; i < changedCount; i++) {
+      int slot = changedSlots[i];
+      changed[slot] = false;
+      publishSlot(slot);
+    }
+    changedCount = 0;
+    writer = null;
+  }
+
+  private void markChanged(int slot) {
+    if (!isWriting()) {
+      publishSlot(slot);
+    } else if (!changed[slot]) {
+      changed[slot] = true;
+      changedSlots[changedCount++] = slot;
+    }
+  }
+
+  private void publishSlot(int slot) {
+    Entity entity = entities[slot];
+    if (entity instanceof DefaultEntity) {
+      ((DefaultEntity) entity).copyFromStore(this, slot);
+    }
+  }
+
+  private int slotOf(Entity entity) {
+    if (entity instanceof DefaultEntity) {
+      DefaultEntity defaultEntity = (DefaultEntity) entity;
+      return defaultEntity.getStore() == this ? defaultEntity.getSlot() : -1;
+    }
+    // Not a view, so look for it in the store
+    for (int i = 0; i < size; i++) {
+      if (entities[order[i]] == entity) {
+        return order[i];
+      }
+    }
+    return -1;
+  }
+
+  private int handleOf(int slot) {
+    return (generations[slot] << SLOT_BITS) | slot;
+  }
+
+  private int allocateSlot() {
+    if (freeSlotCount > 0) {
+      return freeSlots[--freeSlotCount];
+    }
+    if (slotLimit > SLOT_MASK) {
+      throw new IllegalStateException("Too many entities");
+    }
+    if (slotLimit == entities.length) {
+      grow();
+    }
+    return slotLimit++;
+  }
+
+  private void grow() {
+    int capacity = entities.length * 2;
+    entities = Arrays.copyOf(entities, capacity);
+    generations = Arrays.copyOf(generations, capacity);
+    spawnOrders = Arrays.copyOf(spawnOrders, capacity);
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    width = Arrays.copyOf(width, capacity);
+    height = Arrays.copyOf(height, capacity);
+    health = Arrays.copyOf(health, capacity);
+    changed = Arrays.copyOf(changed, capacity);
+    changedSlots = Arrays.copyOf(changedSlots, capacity);
+    order = Arrays.copyOf(order, capacity);
+  }
+
+  /**
+   * Inserts a slot into the order. New entities are almost always spawned after every entity
+   * already in the store so this is usually an append.
+   */
+  private void insertInOrder(int slot) {
+    int position = orderPosition(spawnOrders[slot]);
+    System.arraycopy(order, position, order, position + 1, size - position);
+    order[position] = slot;
+    size++;
+  }
+
+  private void removeFromOrder(int slot) {
+    int position = orderPosition(spawnOrders[slot]);
+    while (order[position] != slot) {
+      position++;
+    }
+    System.arraycopy(order, position + 1, order, position, size - position - 1);
+    size--;
+  }
+
+  /**
+   * Finds the first position in the order with a spawn order that isn't less than the given one.
+   */
+  private int orderPosition(long spawnOrder) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (spawnOrders[order[middle]] < spawnOrder) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,168 @@
+package main.game.model.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import main.game.model.data.DataLoader;
+import main.game.model.entity.unit.DefaultUnit;
+import main.util.MapPoint;
+import main.util.MapSize;
+import org.junit.After;
+import org.junit.Test;
+
+public class EntityStoreTest {
+
+  private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    otherThread.shutdown();
+  }
+
+  private static StaticEntity entityAt(double x, double y) {
+    return new StaticEntity(new MapPoint(x, y), new MapSize(1, 2), null, 0);
+  }
+
+  private MapPoint topLeftOnOtherThread(Entity entity)
+      throws ExecutionException, InterruptedException {
+    Future<MapPoint> topLeft = otherThread.submit(entity::getTopLeft);
+    return topLeft.get();
+  }
+
+  @Test
+  public void testHandles_areInvalidAfterRemoval() {
+    EntityStore store = new EntityStore();
+    Entity first = entityAt(0, 0);
+    int handle = store.add(first);
+    assertSame(first, store.get(handle));
+
+    store.remove(first);
+    int reusedHandle = store.add(entityAt(1, 1));
+
+    assertFalse(store.isValid(handle));
+    assertNull(store.get(handle));
+    assertTrue(store.isValid(reusedHandle));
+  }
+
+  @Test
+  public void testCopyHandles_areInSpawnOrder() {
+    EntityStore store = new EntityStore();
+    Entity first = entityAt(0, 0);
+    Entity second = entityAt(0, 0);
+    Entity third = entityAt(0, 0);
+    store.add(third);
+    store.add(first);
+    store.add(second);
+
+    int[] handles = store.copyHandles(null);
+    assertSame(first, store.get(handles[0]));
+    assertSame(second, store.get(handles[1]));
+    assertSame(third, store.get(handles[2]));
+  }
+
+  @Test
+  public void testWhileWriting_otherThreadsSeeTheLastPublishedState() throws Exception {
+    EntityStore store = new EntityStore();
+    Entity entity = entityAt(1, 1);
+    store.add(entity);
+
+    store.startWriting();
+    entity.translatePosition(2, 3);
+
+    assertEquals(new MapPoint(3, 4), entity.getTopLeft());
+    assertEquals(3, entity.getLeft(), 0);
+    assertEquals(new MapPoint(1, 1), topLeftOnOtherThread(entity));
+
+    store.publish();
+
+    assertEquals(new MapPoint(3, 4), topLeftOnOtherThread(entity));
+    assertEquals(new MapPoint(3.5, 5), entity.getCentre());
+  }
+
+  @Test
+  public void testChangesWhileNotWriting_arePublishedStraightAway() throws Exception {
+    EntityStore store = new EntityStore();
+    Entity entity = entityAt(1, 1);
+    store.add(entity);
+
+    entity.translatePosition(1, 0);
+
+    assertEquals(new MapPoint(2, 1), entity.getTopLeft());
+    assertEquals(new MapPoint(2, 1), topLeftOnOtherThread(entity));
+  }
+
+  @Test
+  public void testRemovedEntity_keepsItsStateWhenItsSlotIsReused() throws Exception {
+    EntityStore store = new EntityStore();
+    Entity removed = entityAt(1, 1);
+    store.add(removed);
+
+    store.startWriting();
+    removed.translatePosition(1, 1);
+    store.remove(removed);
+    Entity reused = entityAt(5, 5);
+    store.add(reused);
+    reused.translatePosition(1, 0);
+    store.publish();
+
+    assertEquals(new MapPoint(2, 2), removed.getTopLeft());
+    assertEquals(new MapPoint(2, 2), topLeftOnOtherThread(removed));
+    assertEquals(new MapPoint(6, 5), topLeftOnOtherThread(reused));
+  }
+
+  @Test
+  public void testHealthChangedWhileNotWriting_isKeptAfterRemoval() throws Exception {
+    DataLoader dataLoader = new DataLoader();
+    Unit unit = new DefaultUnit(
+        dataLoader.getDataForUnitType("unittype:archer"), new MapPoint(0, 0), Team.PLAYER,
+        dataLoader
+    );
+    EntityStore store = new EntityStore();
+    store.add(unit);
+
+    unit.takeDamage(10, null, unit);
+    double health = unit.getMaxHealth() - 10;
+    assertEquals(health, otherThread.submit(unit::getHealth).get(), 0);
+    store.remove(unit);
+
+    assertEquals(health, unit.getHealth(), 0);
+  }
+
+  @Test
+  public void testUnchangedEntity_doesNotAllocateItsPoints() {
+    EntityStore store = new EntityStore();
+    Entity entity = entityAt(1, 1);
+    store.add(entity);
+    store.startWriting();
+
+    assertSame(entity.getTopLeft(), entity.getTopLeft());
+    assertSame(entity.getCentre(), entity.getCentre());
+    assertSame(entity.getSize(), entity.getSize());
+    store.publish();
+  }
+
+  @Test
+  public void testGrowing_keepsEveryEntitysState() {
+    EntityStore store = new EntityStore();
+    StaticEntity[] entities = new StaticEntity[200];
+    store.startWriting();
+    for (int i = 0; i < entities.length; i++) {
+      entities[i] = entityAt(i, -i);
+      store.add(entities[i]);
+      entities[i].translatePosition(0.5, 0);
+    }
+    store.publish();
+
+    assertEquals(entities.length, store.size());
+    for (int i = 0; i < entities.length; i++) {
+      assertEquals(new MapPoint(i + 0.5, -i), entities[i].getTopLeft());
+    }
+  }
+}
@@ -17,6 +17,11 @@ import main.util.Event;
  */
 public interface Unit extends Entity, Targetable {
 
+  /**
+   * The largest width or height (in tiles) that a unit can grow to.
+   */
+  double MAX_SIZE = 1;
+
   Attack getBaseAttack();
 
   /**
@@ -10,6 +10,7 @@ import main.game.model.data.dataobject.ImageData;
 import main.game.model.data.dataobject.SpriteSheetData;
 import main.game.model.data.dataobject.UnitData;
 import main.game.model.entity.DefaultEntity;
+import main.game.model.entity.EntityStore;
 import main.game.model.entity.StaticEntity;
 import main.game.model.entity.unit.attack.Attack;
 import main.game.view.Renderable;
@@ -25,6 +26,7 @@ import main.game.view.ViewVisitor;
 import main.images.Animation;
 import main.util.Config;
 import main.util.Event;
+import main.util.Geometry;
 import main.util.MapPoint;
 import main.util.MapSize;
 
@@ -38,7 +40,6 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
   private static final long serialVersionUID = 1L;
   private static final double LEVEL_DIVISOR = 10;
   private static final double UNIT_MAX_SPEED = 0.12;
-  private static final double UNIT_MAX_SIZE = 1;
 
   private final SpriteSheetData spriteSheet;
   private final Team team;
@@ -48,7 +49,8 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
   private boolean isDead = false;
 
   private int level;
-  private double health;
+  /** Read by other threads while the world is being ticked, see {@link DefaultEntity}. */
+  private volatile double health;
 
   private MapSize originalSize;
   private Attack baseAttack;
@@ -85,8 +87,8 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
     this.level = level;
     this.originalSize = new MapSize(unitData.getSize(), unitData.getSize());
     this.setSize(
-        new MapSize(this.levelMultiplyer(this.originalSize.width, UNIT_MAX_SIZE),
-        this.levelMultiplyer(this.originalSize.height, UNIT_MAX_SIZE)));
+        new MapSize(this.levelMultiplyer(this.originalSize.width, MAX_SIZE),
+        this.levelMultiplyer(this.originalSize.height, MAX_SIZE)));
     this.team = team;
     this.health = this.levelMultiplyer(unitData.getStartingHealth());
     this.spriteSheet = unitData.getSpritesheetData();
@@ -121,8 +123,8 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
    */
   public void setLevel(int level) {
     this.level = level;
-    this.setSize(new MapSize(this.levelMultiplyer(this.originalSize.width, UNIT_MAX_SIZE),
-        this.levelMultiplyer(this.originalSize.height, UNIT_MAX_SIZE)));
+    this.setSize(new MapSize(this.levelMultiplyer(this.originalSize.width, MAX_SIZE),
+        this.levelMultiplyer(this.originalSize.height, MAX_SIZE)));
   }
 
   @Override
@@ -130,6 +132,11 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
     return this.unitData.getLineOfSight();
   }
 
+  @Override
+  public void planTick(World world) {
+    this.unitState.planTick(world);
+  }
+
   @Override
   public void tick(long timeSinceLastTick, World world) {
     //update image and state if applicable
@@ -139,9 +146,18 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
 
   @Override
   public void setState(UnitState state) {
+    if (this.unitState != null && this.unitState != state) {
+      this.unitState.onExit();
+    }
     this.unitState = state;
   }
 
+  @Override
+  protected void copyFromStore(EntityStore store, int slot) {
+    super.copyFromStore(store, slot);
+    this.health = store.health(slot);
+  }
+
   @Override
   public ImageData getImage() {
     return unitState.getImage();
@@ -171,9 +187,9 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
 
     unitState.onTakeDamage(amount, world, attacker);
 
-    if (health - amount > 0) {
+    if (getHealth() - amount > 0) {
       // Not dead
-      health -= amount;
+      setHealth(getHealth() - amount);
       this.damagedEvent.broadcast(amount);
     } else {
       this.die(world);
@@ -183,7 +199,7 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
 
   private void die(World world) {
     isDead = true;
-    health = 0;
+    setHealth(0);
     world.removeUnitEntity(this);
     StaticEntity deadUnit = new StaticEntity(
         this.getTopLeft(),
@@ -204,11 +220,7 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
       throw new IllegalArgumentException("Amount: " + amount);
     }
 
-    health += amount;
-
-    if (health > this.levelMultiplyer(this.unitData.getStartingHealth())) {
-      health = this.levelMultiplyer(this.unitData.getStartingHealth());
-    }
+    setHealth(Math.min(getHealth() + amount, getMaxHealth()));
     this.healedEvent.broadcast(amount);
   }
 
@@ -229,7 +241,17 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
    */
   @Override
   public double getHealth() {
-    return health;
+    EntityStore store = getWritingStore();
+    return store == null ? health : store.health(getSlot());
+  }
+
+  private void setHealth(double health) {
+    EntityStore store = getStore();
+    if (store == null) {
+      this.health = health;
+    } else {
+      store.setHealth(getSlot(), health);
+    }
   }
 
   public double getMaxHealth() {
@@ -279,7 +301,7 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
 
   @Override
   public ImageData getIcon() {
-    return this.spriteSheet.getImage("animation:idle", 0, 0);
+    return this.spriteSheet.getIcon();
   }
 
   /**
@@ -300,7 +322,7 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
 
   @Override
   public boolean contains(MapPoint point) {
-    return getRect().contains(point);
+    return Geometry.rectContains(getLeft(), getTop(), getWidth(), getHeight(), point.x, point.y);
   }
 
   @Override
@@ -347,7 +369,7 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
     double originalHealth = this.getHealthPercent();
     this.setLevel(this.level + 1);
     // Maintain current level of health
-    this.health = levelMultiplyer(this.unitData.getStartingHealth()) * originalHealth;
+    setHealth(levelMultiplyer(this.unitData.getStartingHealth()) * originalHealth);
   }
 
   @Override
@@ -386,8 +408,9 @@ public class DefaultUnit extends DefaultEntity implements Unit, Targetable {
     if (radius == 0) {
       return Collections.singletonList(this);
     } else {
-      return world.getAllUnits().stream()
-          .filter(unit -> unit.getCentre().distanceTo(this.getLocation()) < radius)
+      return world.queryRadius(this.getLocation(), radius).stream()
+          .filter(unit -> Geometry.distanceSquared(
+              unit.getCentreX(), unit.getCentreY(), getCentreX(), getCentreY()) < radius * radius)
           .collect(Collectors.toList());
     }
   }
@@ -1,17 +1,10 @@
 package main.game.model.entity.unit.attack;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import main.game.model.data.DataLoader;
 import main.game.model.data.dataobject.AnimationData;
 import main.game.model.data.dataobject.AttackData;
@@ -33,7 +26,8 @@ public class Attack implements Serializable {
 
   private final AttackData data;
 
-  private transient Invocable engine;
+  /** Built in, or shared with the other attacks that use the same script. */
+  private transient AttackStrategy strategy;
 
   // Save the data loader only so it can be loaded back into the script engine on deserialization.
   private final DataLoader dataLoader;
@@ -42,15 +36,7 @@ public class Attack implements Serializable {
     this.attackType = AttackType.valueOf(data.getType());
     this.dataLoader = dataLoader;
     this.data = data;
-
-    ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
-    try {
-      engine.eval(new FileReader(this.data.getScriptLocation()));
-      engine.put("dataLoader", dataLoader);
-    } catch (ScriptException | FileNotFoundException e) {
-      e.printStackTrace();
-    }
-    this.engine = (Invocable) engine;
+    this.strategy = AttackStrategies.forAttack(data, dataLoader);
   }
 
   /**
@@ -58,14 +44,7 @@ public class Attack implements Serializable {
    */
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
     in.defaultReadObject();
-    ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
-    try {
-      engine.eval(new FileReader(this.data.getScriptLocation()));
-      engine.put("dataLoader", dataLoader);
-    } catch (ScriptException | FileNotFoundException e) {
-      e.printStackTrace();
-    }
-    this.engine = (Invocable) engine;
+    this.strategy = AttackStrategies.forAttack(this.data, dataLoader);
   }
 
   /**
@@ -135,8 +114,9 @@ public class Attack implements Serializable {
    */
   public void execute(Unit unit, Targetable target, World world) {
     try {
-      this.engine.invokeFunction("apply", unit, target, this, world);
-    } catch (ScriptException | NoSuchMethodException e) {
+      this.strategy.apply(unit, target, this, world);
+    } catch (RuntimeException e) {
+      // An error in the script shouldn't stop the game
       e.printStackTrace();
     }
   }
@@ -153,11 +133,7 @@ public class Attack implements Serializable {
    * Gets the Units that are effected by the attack at the target.
    */
   public Collection<Unit> getEffectedUnits(Unit owner, World world, Targetable target) {
-    try {
-      return (List<Unit>)this.engine.invokeFunction("getEffectedUnits", owner, world, target, this);
-    } catch (ScriptException | NoSuchMethodException e) {
-      throw new RuntimeException(e);
-    }
+    return this.strategy.getEffectedUnits(owner, world, target, this);
   }
 
   @Override
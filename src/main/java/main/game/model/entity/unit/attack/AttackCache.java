@@ -1,6 +1,132 @@
-//package main.game.model.entity.unit.attack;
-//
-//public class AttackCache {
-//
-//
-//}
+package main.game.model.entity.unit.attack;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import main.game.model.data.DataLoader;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.world.World;
+
+/**
+ * Caches the attack scripts for the whole game. Each script is compiled once, and run once to
+ * define its functions in its own global scope that every attack using the script shares. So
+ * making a unit or firing a projectile doesn't compile or run any script.
+ *
+ * <p>
+ * The scripts read the "dataLoader" global, so a script's scope is made again (without compiling)
+ * when it is asked for with a different {@link DataLoader}, e.g. after loading a game. Attacks
+ * made before that keep the scope they were given.
+ * </p>
+ *
+ * <p>
+ * Every script runs on the one engine, which isn't thread safe, and attacks are carried out by the
+ * tick while the controller asks them which units they would affect. So the engine is only used
+ * while holding the lock of this class, including by the {@link AttackScript}s it gives out.
+ * </p>
+ */
+public final class AttackCache {
+
+  /** Guarded by the class. */
+  private static final ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+
+  /** Guarded by the class. */
+  private static final Map<String, CompiledScript> compiledScripts = new HashMap<>();
+  /** Guarded by the class. */
+  private static final Map<String, LoadedScript> loadedScripts = new HashMap<>();
+
+  private AttackCache() {
+  }
+
+  /**
+   * Gets the functions of an attack script.
+   *
+   * @param scriptLocation the path of the script file
+   * @param dataLoader given to the script as the "dataLoader" global, may be null if the script
+   *     doesn't use it, in which case a scope made for any data loader may be given
+   * @throws IllegalArgumentException if the script can't be read or compiled
+   */
+  public static synchronized AttackScript getScript(String scriptLocation, DataLoader dataLoader) {
+    LoadedScript loaded = loadedScripts.get(scriptLocation);
+    if (loaded == null || (dataLoader != null && loaded.dataLoader != dataLoader)) {
+      loaded = load(scriptLocation, dataLoader);
+      loadedScripts.put(scriptLocation, loaded);
+    }
+    return loaded.script;
+  }
+
+  private static LoadedScript load(String scriptLocation, DataLoader dataLoader) {
+    try {
+      CompiledScript compiled = compiledScripts.get(scriptLocation);
+      if (compiled == null) {
+        try (Reader reader = new FileReader(scriptLocation)) {
+          compiled = ((Compilable) engine).compile(reader);
+        }
+        compiledScripts.put(scriptLocation, compiled);
+      }
+
+      // A new global scope so that scripts can't see each other's functions
+      Bindings scope = engine.createBindings();
+      compiled.eval(scope);
+      scope.put("dataLoader", dataLoader);
+      AttackScript script = ((Invocable) engine).getInterface(scope, AttackScript.class);
+      if (script == null) {
+        throw new IllegalArgumentException(
+            scriptLocation + " doesn't define all of the functions of an attack script");
+      }
+      return new LoadedScript(dataLoader, new LockedScript(script));
+    } catch (IOException | ScriptException e) {
+      throw new IllegalArgumentException("Could not load attack script " + scriptLocation, e);
+    }
+  }
+
+  /**
+   * Calls the functions of a script while holding the lock of the engine.
+   */
+  private static class LockedScript implements AttackScript {
+
+    private final AttackScript script;
+
+    LockedScript(AttackScript script) {
+      this.script = script;
+    }
+
+    @Override
+    public void apply(Unit owner, Targetable target, Attack attack, World world) {
+      synchronized (AttackCache.class) {
+        this.script.apply(owner, target, attack, world);
+      }
+    }
+
+    @Override
+    public List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack) {
+      synchronized (AttackCache.class) {
+        return this.script.getEffectedUnits(owner, world, target, attack);
+      }
+    }
+  }
+
+  /**
+   * A script run in a scope for one data loader.
+   */
+  private static class LoadedScript {
+
+    private final DataLoader dataLoader;
+    private final AttackScript script;
+
+    LoadedScript(DataLoader dataLoader, AttackScript script) {
+      this.dataLoader = dataLoader;
+      this.script = script;
+    }
+  }
+}
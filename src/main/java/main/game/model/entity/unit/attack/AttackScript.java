@@ -0,0 +1,9 @@
+package main.game.model.entity.unit.attack;
+
+/**
+ * An {@link AttackStrategy} implemented by the functions of an attack script (see {@link
+ * AttackCache}).
+ */
+public interface AttackScript extends AttackStrategy {
+
+}
@@ -0,0 +1,95 @@
+package main.game.model.entity.unit.attack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.util.Comparator;
+import javax.script.ScriptEngineManager;
+import main.game.model.GameModel;
+import main.game.model.data.DataLoader;
+import main.game.model.data.dataobject.AbilityData;
+import main.game.model.entity.HeroUnit;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.MapPointTarget;
+import main.game.model.entity.usable.BaseAbility;
+import main.game.model.world.World;
+import main.game.model.world.saveandload.DefaultWorldLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the attacks that don't have a built in strategy, so still run their script, in a world. The
+ * tests are skipped on a JDK without Nashorn, which the scripts (and the world's abilities) need.
+ */
+public class AttackScriptTest {
+
+  private DataLoader dataLoader;
+  private World world;
+  private HeroUnit hero;
+  private Unit enemy;
+
+  @Before
+  public void setUp() {
+    assumeNotNull(new ScriptEngineManager().getEngineByName("nashorn"));
+    this.dataLoader = new DataLoader();
+    this.world = new DefaultWorldLoader().loadMultilevelWorld(dataLoader);
+    this.hero = world.getHeroUnit();
+    this.enemy = world.getAllUnits().stream()
+        .filter(unit -> hero.getTeam().canAttack(unit.getTeam()))
+        .min(Comparator.comparingDouble(unit -> unit.getCentre().distanceTo(hero.getCentre())))
+        .get();
+    // Next to the hero, so it is in range of every attack
+    enemy.translatePosition(
+        hero.getCentreX() + 1.5 - enemy.getCentreX(), hero.getCentreY() - enemy.getCentreY()
+    );
+  }
+
+  private BaseAbility ability(String id) {
+    AbilityData data = dataLoader.getDataForAbility(id);
+    assertNull(id + " should run its script", data.getAttackData().getStrategy());
+    return (BaseAbility) BaseAbility.buildAbility(data, dataLoader, 5);
+  }
+
+  @Test
+  public void testFirebolt_firesAProjectileThatDamagesTheTarget() {
+    BaseAbility firebolt = ability("ability:firebolt");
+    MapPointTarget target = new MapPointTarget(enemy.getCentre());
+    assertTrue(firebolt.getEffectedUnits(hero, world, target).contains(enemy));
+
+    double health = enemy.getHealth();
+    firebolt.execute(hero, target, world);
+    assertEquals(1, world.getProjectiles().size());
+    for (int i = 0; i < 100 && !world.getProjectiles().isEmpty(); i++) {
+      world.tick(GameModel.DELAY);
+    }
+    assertTrue(world.getProjectiles().isEmpty());
+    assertTrue(enemy.getHealth() < health);
+    // The impact's instant damage uses a charge as well as the cast
+    assertEquals(3, firebolt.getUses());
+  }
+
+  @Test
+  public void testLightning_damagesTheTargetStraightAway() {
+    BaseAbility lightning = ability("ability:lightning");
+    assertTrue(lightning.getEffectedUnits(hero, world, enemy).contains(enemy));
+
+    double health = enemy.getHealth();
+    int entities = world.getAllEntities().size();
+    lightning.execute(hero, enemy, world);
+    assertTrue(enemy.getHealth() < health);
+    // The bolt is drawn with an animation entity, unless the enemy died and was removed
+    assertTrue(world.getAllEntities().size() >= entities);
+    assertEquals(4, lightning.getUses());
+  }
+
+  @Test
+  public void testTurret_addsAUnitForThePlayer() {
+    BaseAbility turret = ability("ability:turret");
+    int units = world.getAllUnits().size();
+    turret.execute(hero, new MapPointTarget(enemy.getCentre()), world);
+    assertEquals(units + 1, world.getAllUnits().size());
+    assertEquals(4, turret.getUses());
+  }
+}
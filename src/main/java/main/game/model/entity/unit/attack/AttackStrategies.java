@@ -0,0 +1,83 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import main.game.model.data.DataLoader;
+import main.game.model.data.dataobject.AttackData;
+import main.game.model.entity.Unit;
+import main.game.model.entity.usable.Ability;
+
+/**
+ * The registry of the attack strategies that are built in, by the id used for "strategy" in
+ * attacks.json. Attacks without a strategy (or with one that isn't registered) run their script.
+ */
+public final class AttackStrategies {
+
+  public static final String INSTANT_DAMAGE_ID = "instantDamage";
+  public static final String PROJECTILE_ID = "projectile";
+  public static final String DAMAGE_BUFF_ID = "damageBuff";
+  public static final String HEAL_ID = "heal";
+
+  /**
+   * Damages every enemy at the target straight away. Also used by projectiles when they hit.
+   */
+  public static final AttackStrategy INSTANT_DAMAGE = new InstantDamageStrategy();
+
+  /** Guarded by the class. */
+  private static final Map<String, BiFunction<AttackData, DataLoader, AttackStrategy>> factories =
+      new HashMap<>();
+
+  static {
+    register(INSTANT_DAMAGE_ID, (data, dataLoader) -> INSTANT_DAMAGE);
+    register(PROJECTILE_ID, (data, dataLoader) -> new ProjectileStrategy(data.getProjectile()));
+    register(DAMAGE_BUFF_ID, (data, dataLoader) -> new DamageBuffStrategy());
+    register(HEAL_ID, (data, dataLoader) -> new HealStrategy(dataLoader));
+  }
+
+  private AttackStrategies() {
+  }
+
+  /**
+   * Adds a built in strategy, replacing any with the same id.
+   *
+   * @param factory makes the strategy for an attack
+   */
+  public static synchronized void register(
+      String id, BiFunction<AttackData, DataLoader, AttackStrategy> factory
+  ) {
+    factories.put(id, factory);
+  }
+
+  /**
+   * Gets the strategy for an attack: the built in one if it has one, otherwise its script.
+   */
+  public static AttackStrategy forAttack(AttackData data, DataLoader dataLoader) {
+    BiFunction<AttackData, DataLoader, AttackStrategy> factory;
+    synchronized (AttackStrategies.class) {
+      factory = data.getStrategy() == null ? null : factories.get(data.getStrategy());
+    }
+    if (factory == null) {
+      return AttackCache.getScript(data.getScriptLocation(), dataLoader);
+    }
+    return factory.apply(data, dataLoader);
+  }
+
+  /**
+   * Whether a unit is on the other side to the owner of an attack.
+   */
+  static boolean isEnemy(Unit owner, Unit unit) {
+    return owner.getTeam().canAttack(unit.getTeam());
+  }
+
+  /**
+   * Uses up a charge of the attack if it is an ability.
+   */
+  static void finish(Attack attack) {
+    if (attack instanceof Ability) {
+      Ability ability = (Ability) attack;
+      ability.startCoolDown();
+      ability.consume();
+    }
+  }
+}
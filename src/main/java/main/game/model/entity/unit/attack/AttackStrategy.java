@@ -0,0 +1,23 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.List;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.world.World;
+
+/**
+ * Carries out an {@link Attack}. The built in attacks are implemented in Java (see {@link
+ * AttackStrategies}) and any others by a script (see {@link AttackScript}).
+ */
+public interface AttackStrategy {
+
+  /**
+   * Carries out the attack.
+   */
+  void apply(Unit owner, Targetable target, Attack attack, World world);
+
+  /**
+   * Gets the units that the attack will affect at the target.
+   */
+  List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack);
+}
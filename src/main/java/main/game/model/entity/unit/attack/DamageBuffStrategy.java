@@ -0,0 +1,37 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.ArrayList;
+import java.util.List;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.entity.usable.DamageBuffEffect;
+import main.game.model.world.World;
+
+/**
+ * Buffs the damage of the first friendly unit at the target by the attack's amount for the
+ * attack's duration. Same as damageBuff.js.
+ */
+class DamageBuffStrategy implements AttackStrategy {
+
+  @Override
+  public void apply(Unit owner, Targetable target, Attack attack, World world) {
+    List<Unit> effectedUnits = getEffectedUnits(owner, world, target, attack);
+    if (effectedUnits.isEmpty()) {
+      return;
+    }
+    Unit unit = effectedUnits.get(0);
+    unit.addEffect(new DamageBuffEffect(unit, world, attack.getDuration(), attack.getAmount()));
+    AttackStrategies.finish(attack);
+  }
+
+  @Override
+  public List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack) {
+    List<Unit> effectedUnits = new ArrayList<>();
+    for (Unit unit : target.getEffectedUnits(world, attack.getRadius())) {
+      if (!AttackStrategies.isEnemy(owner, unit)) {
+        effectedUnits.add(unit);
+      }
+    }
+    return effectedUnits;
+  }
+}
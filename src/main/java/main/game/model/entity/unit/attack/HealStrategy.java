@@ -0,0 +1,57 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.ArrayList;
+import java.util.List;
+import main.game.model.data.DataLoader;
+import main.game.model.data.dataobject.SpriteSheetData;
+import main.game.model.entity.AnimationEntity;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.world.World;
+import main.images.Animation;
+
+/**
+ * Heals the first hurt friendly unit at the target by the attack's amount. Same as healSpell.js.
+ */
+class HealStrategy implements AttackStrategy {
+
+  private static final String EFFECT_SPRITE_SHEET = "misc_sheet:healeffect";
+  private static final String EFFECT_ANIMATION = "animation:healeffect";
+  private static final int EFFECT_ANIMATION_LENGTH = 10;
+  /** Units with more of their health than this are not hurt. */
+  private static final double HURT_HEALTH_PERCENT = 0.999;
+
+  private final SpriteSheetData effectSpriteSheet;
+
+  HealStrategy(DataLoader dataLoader) {
+    this.effectSpriteSheet = dataLoader.getDataForSpriteSheet(EFFECT_SPRITE_SHEET);
+  }
+
+  @Override
+  public void apply(Unit owner, Targetable target, Attack attack, World world) {
+    List<Unit> effectedUnits = getEffectedUnits(owner, world, target, attack);
+    if (effectedUnits.isEmpty()) {
+      return;
+    }
+    Unit unit = effectedUnits.get(0);
+    unit.gainHealth(attack.getAmount());
+    world.addStaticEntity(new AnimationEntity(
+        unit.getTopLeft(),
+        unit.getSize(),
+        new Animation(effectSpriteSheet, EFFECT_ANIMATION, EFFECT_ANIMATION_LENGTH),
+        0
+    ));
+    AttackStrategies.finish(attack);
+  }
+
+  @Override
+  public List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack) {
+    List<Unit> effectedUnits = new ArrayList<>();
+    for (Unit unit : target.getEffectedUnits(world, attack.getRadius())) {
+      if (!AttackStrategies.isEnemy(owner, unit) && unit.getHealthPercent() < HURT_HEALTH_PERCENT) {
+        effectedUnits.add(unit);
+      }
+    }
+    return effectedUnits;
+  }
+}
@@ -0,0 +1,36 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.ArrayList;
+import java.util.List;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.world.World;
+
+/**
+ * Damages every enemy at the target by the attack's amount. Same as instantDamage.js.
+ */
+class InstantDamageStrategy implements AttackStrategy {
+
+  @Override
+  public void apply(Unit owner, Targetable target, Attack attack, World world) {
+    List<Unit> effectedUnits = getEffectedUnits(owner, world, target, attack);
+    if (effectedUnits.isEmpty()) {
+      return;
+    }
+    for (Unit unit : effectedUnits) {
+      unit.takeDamage(attack.getAmount(), world, owner);
+    }
+    AttackStrategies.finish(attack);
+  }
+
+  @Override
+  public List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack) {
+    List<Unit> effectedUnits = new ArrayList<>();
+    for (Unit unit : target.getEffectedUnits(world, attack.getRadius())) {
+      if (AttackStrategies.isEnemy(owner, unit)) {
+        effectedUnits.add(unit);
+      }
+    }
+    return effectedUnits;
+  }
+}
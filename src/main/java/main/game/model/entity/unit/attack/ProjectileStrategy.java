@@ -0,0 +1,68 @@
+package main.game.model.entity.unit.attack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import main.game.model.data.dataobject.ProjectileData;
+import main.game.model.entity.DefaultProjectile;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.state.Targetable;
+import main.game.model.world.World;
+import main.images.Animation;
+import main.images.AnimationLoop;
+import main.util.MapSize;
+
+/**
+ * Fires a projectile, described by the attack's {@link ProjectileData}, at the first enemy at the
+ * target. The projectile does instant damage when it hits. Same as basicArrow.js and the other
+ * projectile scripts.
+ */
+class ProjectileStrategy implements AttackStrategy {
+
+  private final ProjectileData projectile;
+
+  ProjectileStrategy(ProjectileData projectile) {
+    this.projectile = Objects.requireNonNull(projectile, "The attack has no projectile data");
+  }
+
+  @Override
+  public void apply(Unit owner, Targetable target, Attack attack, World world) {
+    List<Unit> effectedUnits = getEffectedUnits(owner, world, target, attack);
+    if (effectedUnits.isEmpty()) {
+      return;
+    }
+    Unit unit = effectedUnits.get(0);
+
+    world.addProjectile(new DefaultProjectile(
+        projectile.isLaunchFromCentre() ? owner.getCentre() : owner.getTopLeft(),
+        new MapSize(projectile.getSize(), projectile.getSize()),
+        owner,
+        unit,
+        attack,
+        new AnimationLoop(
+            projectile.getSpriteSheet(),
+            projectile.getFlyAnimation(),
+            projectile.getFlyAnimationLength()
+        ),
+        new Animation(
+            projectile.getImpactSpriteSheet(),
+            projectile.getImpactAnimation(),
+            projectile.getImpactAnimationLength()
+        ),
+        new MapSize(projectile.getImpactSize(), projectile.getImpactSize()),
+        projectile.getSpeed()
+    ));
+    AttackStrategies.finish(attack);
+  }
+
+  @Override
+  public List<Unit> getEffectedUnits(Unit owner, World world, Targetable target, Attack attack) {
+    List<Unit> effectedUnits = new ArrayList<>();
+    for (Unit unit : target.getEffectedUnits(world, attack.getRadius())) {
+      if (AttackStrategies.isEnemy(owner, unit)) {
+        effectedUnits.add(unit);
+      }
+    }
+    return effectedUnits;
+  }
+}
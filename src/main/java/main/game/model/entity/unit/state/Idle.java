@@ -1,6 +1,5 @@
 package main.game.model.entity.unit.state;
 
-import java.util.Comparator;
 import main.game.model.entity.Team;
 import main.game.model.entity.Unit;
 import main.game.model.world.World;
@@ -16,30 +15,48 @@ public class Idle extends UnitState {
   private static final long serialVersionUID = 1L;
   private final double angle;
 
+  private transient boolean isPlanned;
+  private transient Unit plannedEnemy;
+
   public Idle(Unit unit) {
     super(new Animation(unit.getSpriteSheet(), "animation:idle", 2), unit);
     this.angle = unit.getCurrentAngle();
   }
 
+  @Override
+  public void planTick(World world) {
+    plannedEnemy = findEnemy(world);
+    isPlanned = true;
+  }
+
   @Override
   public void tick(Long timeSinceLastTick, World world) {
     super.tick(timeSinceLastTick, world);
 
-    double autoAttackDistance = unit.getAutoAttackDistance();
-    Unit enemyOrNull = world.getAllUnits()
-        .stream()
-        .filter(worldUnit -> unit.getTeam().canAttack(worldUnit.getTeam()))
-        .filter(enemyUnit -> distanceToUnit(enemyUnit) <= autoAttackDistance)
-        .filter(enemyUnit -> enemyUnit.getHealth() > 0)
-        .sorted(Comparator.comparingDouble(this::distanceToUnit))
-        .findFirst()
-        .orElse(null);
-    if (enemyOrNull != null) {
+    Unit enemyOrNull = isPlanned ? plannedEnemy : findEnemy(world);
+    isPlanned = false;
+    plannedEnemy = null;
+    if (enemyOrNull != null && enemyOrNull.getHealth() > 0) {
       // Assume that walking state will switch to attacking state if unit is close enough.
       requestAttackUnit(enemyOrNull);
     }
   }
 
+  @Override
+  public void onExit() {
+    isPlanned = false;
+    plannedEnemy = null;
+  }
+
+  private Unit findEnemy(World world) {
+    double autoAttackDistance = unit.getAutoAttackDistance();
+    return world.nearestMatching(
+        unit.getCentre(),
+        autoAttackDistance,
+        worldUnit -> unit.getTeam().canAttack(worldUnit.getTeam()) && worldUnit.getHealth() > 0
+    );
+  }
+
   @Override
   public double getCurrentAngle() {
     return this.angle;
@@ -59,8 +76,4 @@ public class Idle extends UnitState {
         new TargetToAttack(unit, enemy, unit.getBaseAttack());
     this.unit.setTarget(enemyTarget);
   }
-
-  private double distanceToUnit(Unit target) {
-    return unit.getCentre().distanceTo(target.getCentre());
-  }
 }
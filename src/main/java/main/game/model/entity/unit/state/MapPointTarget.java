@@ -21,7 +21,8 @@ public class MapPointTarget implements Targetable {
 
   @Override
   public List<Unit> getEffectedUnits(World world, double radius) {
-    return world.getAllUnits().stream()
+    // Units can reach into the radius by up to their width
+    return world.queryRadius(this.mapPoint, radius + Unit.MAX_SIZE).stream()
         .filter(u -> u.getCentre().distanceTo(this.mapPoint) - u.getSize().width < radius)
         .collect(Collectors.toList());
   }
@@ -1,11 +1,13 @@
 package main.game.model.entity.unit.state;
 
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.Queue;
 import main.game.model.entity.Unit;
 import main.game.model.world.World;
+import main.game.model.world.pathfinder.PathRequestService.PathRequest;
 import main.images.Animation;
+import main.util.Geometry;
 import main.util.MapPoint;
 
 /**
@@ -18,13 +20,40 @@ public class Moving extends UnitState {
 
   private static final long serialVersionUID = 1L;
   private static final double LEEWAY_FOR_PATH = 0.1;
+  /**
+   * How far the destination can drift from where the path was planned to before the path is
+   * searched again. Less than a tile, so the last waypoint can just be moved to the destination.
+   */
+  private static final double REPLAN_DISTANCE = 0.5;
+  /**
+   * When replanning, the waypoints within this many times the drift of the old destination are
+   * dropped and only that tail is searched again.
+   */
+  private static final double TAIL_FACTOR = 2;
 
   private final Target target;
   private final UnitState nextState;
   private double direction;
 
   private MapPoint lastKnownDestination;
-  private Queue<MapPoint> path;
+  private Deque<MapPoint> path;
+  /**
+   * Whether the last waypoint of the path is the destination (the search might have given up
+   * before getting there).
+   */
+  private boolean pathReachesDestination;
+
+  /** The path being found off the tick thread, if any. */
+  private transient PathRequest pendingRequest;
+  private transient MapPoint pendingDestination;
+  /** Where the pending path starts if it will be added to the path, or null if it replaces it. */
+  private transient MapPoint pendingTailStart;
+
+  /** The step worked out by {@link #planTick(World)} for the next tick, if any. */
+  private transient boolean isPlanned;
+  private transient boolean hasPlannedStep;
+  private transient double plannedStepX;
+  private transient double plannedStepY;
 
   public Moving(Unit unit, Target target, UnitState nextState) {
     super(
@@ -41,9 +70,19 @@ public class Moving extends UnitState {
     this.direction = unit.getCurrentAngle();
   }
 
+  @Override
+  public void planTick(World world) {
+    planStep(world);
+    isPlanned = true;
+  }
+
   @Override
   public void tick(Long timeSinceLastTick, World world) {
     super.tick(timeSinceLastTick, world);
+    if (!isPlanned) {
+      planStep(world);
+    }
+    isPlanned = false;
     tickPosition(timeSinceLastTick, world);
   }
 
@@ -53,20 +92,22 @@ public class Moving extends UnitState {
   }
 
   /**
-   * Updates the Unit's position depending on it's path.
+   * Works out the step towards the next waypoint of the path. Only changes this state.
    *
-   * @param timeSinceLastTick time passed since last tick.
    * @param world that this Unit is in.
    */
-  private void tickPosition(Long timeSinceLastTick, World world) {
+  private void planStep(World world) {
     updatePath(world);
+    hasPlannedStep = false;
 
     if (path == null || path.isEmpty()) {
       return;
     }
 
+    double centreX = unit.getCentreX();
+    double centreY = unit.getCentreY();
     MapPoint target = path.peek();
-    double distance = unit.getCentre().distanceTo(target);
+    double distance = Geometry.distance(centreX, centreY, target.x, target.y);
     if (distance <= LEEWAY_FOR_PATH) {
       path.poll();
       if (path.size() == 0) {
@@ -76,20 +117,38 @@ public class Moving extends UnitState {
       target = path.peek();
     }
 
-    double dx = target.x - unit.getCentre().x;
-    double dy = target.y - unit.getCentre().y;
-    double mx = (Math.min(unit.getSpeed() / Math.hypot(dx, dy), 1)) * dx;
-    double my = (Math.min(unit.getSpeed() / Math.hypot(dx, dy), 1)) * dy;
+    double dx = target.x - centreX;
+    double dy = target.y - centreY;
+    double scale = Math.min(unit.getSpeed() / Math.hypot(dx, dy), 1);
+    plannedStepX = scale * dx;
+    plannedStepY = scale * dy;
+    hasPlannedStep = true;
+  }
+
+  /**
+   * Updates the Unit's position with the planned step.
+   *
+   * @param timeSinceLastTick time passed since last tick.
+   * @param world that this Unit is in.
+   */
+  private void tickPosition(Long timeSinceLastTick, World world) {
+    if (!hasPlannedStep) {
+      return;
+    }
+    hasPlannedStep = false;
+    double mx = plannedStepX;
+    double my = plannedStepY;
 
     assert unit.getSpeed() + 0.001 > Math.hypot(mx, my)
         : "the unit tried to move faster than its speed";
     assert Math.abs(mx) > 0 || Math.abs(my) > 0;
 
-    MapPoint previousPosition = unit.getCentre();
+    double previousX = unit.getCentreX();
+    double previousY = unit.getCentreY();
 
     unit.translatePosition(mx, my);
 
-    this.direction = previousPosition.angleTo(unit.getCentre());
+    this.direction = Geometry.angle(previousX, previousY, unit.getCentreX(), unit.getCentreY());
 
 
     if (!this.target.isStillValid()) {
@@ -103,24 +162,135 @@ public class Moving extends UnitState {
       // Haven't arrived yet
       // TODO this will mean that when units as repeled greater than 2 spaces away from their target
       // When they have arrived then they will go idle instead of attacking.
-      if (path.isEmpty() && unit.getCentre().distanceTo(this.target.getDestination()) > 2.0) {
+      if (path.isEmpty() && pendingRequest == null
+          && unit.getCentre().distanceTo(this.target.getDestination()) > 2.0) {
         // Can't get to destination
         this.unit.setState(new Idle(unit));
       }
     }
   }
 
+  @Override
+  public void onExit() {
+    cancelPendingRequest();
+    isPlanned = false;
+    hasPlannedStep = false;
+  }
+
   /**
-   * Updates path if target destination changed or no path was calculated yet.
+   * Updates path if target destination changed or no path was calculated yet. When chasing a unit
+   * the destination changes every tick, so instead of searching the whole path again:
+   * <ul>
+   * <li>if the destination is within {@link #REPLAN_DISTANCE} of where the path was planned to,
+   * the last waypoint is moved to it,</li>
+   * <li>otherwise only the tail of the path near the old destination is searched again,</li>
+   * <li>and the whole path is only searched again if there is no path, it didn't reach the old
+   * destination or the destination moved too far compared to the length of the path.</li>
+   * </ul>
+   * This keeps the amount of searching proportional to how far the destination moved.
+   *
+   * <p>
+   * Searches are requested from the world and picked up on a later tick. Until then the unit keeps
+   * following the waypoints it already has.
+   * </p>
    */
   private void updatePath(World world) {
+    collectPendingPath();
+
     MapPoint destination = target.getDestination();
+    if (pendingRequest != null) {
+      if (destination.distanceTo(pendingDestination) < REPLAN_DISTANCE) {
+        // The path being found is still good enough
+        return;
+      }
+      cancelPendingRequest();
+    }
+
     if (path != null && lastKnownDestination != null && destination.equals(lastKnownDestination)) {
       return;
     }
 
-    List<MapPoint> pathList = world.findPath(unit.getCentre(), destination);
-    path = new ArrayDeque<>(pathList);
-    lastKnownDestination = destination;
+    if (path == null || path.isEmpty() || !pathReachesDestination) {
+      requestPath(world, destination);
+      return;
+    }
+
+    double drift = destination.distanceTo(lastKnownDestination);
+    if (drift < REPLAN_DISTANCE && world.isPassable(destination)) {
+      path.pollLast();
+      path.addLast(destination);
+      return;
+    }
+
+    if (drift * TAIL_FACTOR * 2 > unit.getCentre().distanceTo(destination)) {
+      requestPath(world, destination);
+      return;
+    }
+
+    requestTail(world, destination, drift * TAIL_FACTOR);
+  }
+
+  /**
+   * Uses the pending path if it has been found.
+   */
+  private void collectPendingPath() {
+    if (pendingRequest == null) {
+      return;
+    }
+    if (pendingRequest.isCancelled()) {
+      pendingRequest = null;
+      return;
+    }
+    if (!pendingRequest.isDone()) {
+      return;
+    }
+
+    List<MapPoint> found = pendingRequest.getPath();
+    if (pendingTailStart == null || path == null) {
+      path = new ArrayDeque<>(found);
+    } else {
+      path.addAll(found);
+    }
+    pathReachesDestination = !found.isEmpty()
+        && found.get(found.size() - 1).equals(pendingDestination);
+    lastKnownDestination = pendingDestination;
+    pendingRequest = null;
+  }
+
+  private void cancelPendingRequest() {
+    if (pendingRequest != null) {
+      pendingRequest.cancel();
+      pendingRequest = null;
+    }
+  }
+
+  /**
+   * Requests the whole path from the unit to the destination.
+   */
+  private void requestPath(World world, MapPoint destination) {
+    pendingRequest = target.usesFlowField()
+        ? world.requestFlowPath(unit.getCentre(), destination)
+        : world.requestPath(unit.getCentre(), destination);
+    pendingDestination = destination;
+    pendingTailStart = null;
+  }
+
+  /**
+   * Drops the waypoints within tailLength of the old destination and requests a path from the last
+   * remaining waypoint to the new destination.
+   */
+  private void requestTail(World world, MapPoint destination, double tailLength) {
+    while (!path.isEmpty() && path.peekLast().distanceTo(lastKnownDestination) < tailLength) {
+      path.pollLast();
+    }
+    pathReachesDestination = false;
+    if (path.isEmpty()) {
+      requestPath(world, destination);
+      return;
+    }
+
+    pendingTailStart = path.peekLast();
+    pendingRequest = world.requestPath(pendingTailStart, destination);
+    pendingDestination = destination;
   }
 }
@@ -53,6 +53,14 @@ public abstract class Target implements Serializable {
 
   public abstract double acceptableDistanceFromEnd();
 
+  /**
+   * Whether the path to the destination should be found with a shared flow field because many
+   * units are going there.
+   */
+  boolean usesFlowField() {
+    return false;
+  }
+
   /**
    * Gets the state that the unit should be in to execute what it should do for the target.
    */
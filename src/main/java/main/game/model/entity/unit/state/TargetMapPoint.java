@@ -10,6 +10,7 @@ public class TargetMapPoint extends Target implements Serializable {
 
   private final double leewayForPath;
   private final MapPoint target;
+  private final boolean usesFlowField;
 
   /**
    * Default distance is 0.5
@@ -18,12 +19,27 @@ public class TargetMapPoint extends Target implements Serializable {
     super(unit);
     this.target = target;
     this.leewayForPath = 0.5;
+    this.usesFlowField = false;
+  }
+
+  /**
+   * Default distance is 0.5.
+   *
+   * @param usesFlowField whether the unit is one of a group sent to the target, so should follow
+   *     the flow field shared by the group instead of finding its own path
+   */
+  public TargetMapPoint(Unit unit, MapPoint target, boolean usesFlowField) {
+    super(unit);
+    this.target = target;
+    this.leewayForPath = 0.5;
+    this.usesFlowField = usesFlowField;
   }
 
   public TargetMapPoint(Unit unit, MapPoint target, double distance) {
     super(unit);
     this.target = target;
     this.leewayForPath = distance;
+    this.usesFlowField = false;
   }
 
   @Override
@@ -45,4 +61,9 @@ public class TargetMapPoint extends Target implements Serializable {
   public double acceptableDistanceFromEnd() {
     return leewayForPath;
   }
+
+  @Override
+  boolean usesFlowField() {
+    return usesFlowField;
+  }
 }
\ No newline at end of file
@@ -23,6 +23,15 @@ public abstract class UnitState implements Serializable {
     this.unitAnimation = animation;
   }
 
+  /**
+   * Works out what the state will do in the next {@link #tick(Long, World)} without changing
+   * anything but this state, so that it can be called for many units in parallel. The world must
+   * not change while this is being called.
+   */
+  public void planTick(World world) {
+    // nothing to plan
+  }
+
   /**
    * Updates the state.
    *
@@ -50,4 +59,11 @@ public abstract class UnitState implements Serializable {
     // do nothing
   }
 
+  /**
+   * Called when the unit switches from this state to another one.
+   */
+  public void onExit() {
+    // do nothing
+  }
+
 }
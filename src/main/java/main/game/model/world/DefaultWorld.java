@@ -1,18 +1,25 @@
 package main.game.model.world;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import main.game.model.Level;
+import main.game.model.data.SpriteSheetCache;
+import main.game.model.data.dataobject.SpriteSheetData;
 import main.game.model.entity.Entity;
+import main.game.model.entity.EntityStore;
 import main.game.model.entity.HeroUnit;
 import main.game.model.entity.MapEntity;
 import main.game.model.entity.Projectile;
@@ -20,10 +27,13 @@ import main.game.model.entity.StaticEntity;
 import main.game.model.entity.Unit;
 import main.game.model.entity.unit.DefaultUnit;
 import main.game.model.entity.usable.Item;
+import main.game.model.world.pathfinder.FlowFieldCache;
 import main.game.model.world.pathfinder.PathFinder;
+import main.game.model.world.pathfinder.PathRequestService;
+import main.game.model.world.pathfinder.PathRequestService.PathRequest;
+import main.util.Geometry;
 import main.util.MapPoint;
 import main.util.MapRect;
-import main.util.MapSize;
 
 /**
  * Implementation of the World API.
@@ -35,6 +45,11 @@ public class DefaultWorld implements Serializable, World {
 
   private static final long serialVersionUID = 1L;
   private static final double UNIT_REPEL_MULTIPLIER = 25; // bigger is smaller repel
+  private static final int FLOW_FIELD_CACHE_SIZE = 8;
+  /** Fewer entities than this aren't worth planning in parallel. */
+  private static final int PARALLEL_PLANNING_THRESHOLD = 64;
+  private static final int PATH_FINDER_THREADS =
+      Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
 
   private final List<Level> levels;
   private final HeroUnit heroUnit;
@@ -46,6 +61,33 @@ public class DefaultWorld implements Serializable, World {
   private final Set<StaticEntity> staticEntities;
   private final PathFinder pathFinder;
 
+  /** The state of every entity in {@link #getAllEntities()}. Rebuilt on load. */
+  private transient EntityStore entityStore = new EntityStore();
+
+  /** The handles being ticked, reused between ticks. */
+  private transient int[] tickHandles;
+
+  /** Spatial index of {@link #getAllUnits()}. Rebuilt on load. */
+  private transient UnitGrid unitGrid = new UnitGrid();
+
+  /** Rasterised {@link #mapEntities} for the current level. Rebuilt on load. */
+  private transient PassabilityGrid passabilityGrid;
+
+  /** Flow fields over {@link #passabilityGrid}. Rebuilt with it. */
+  private transient FlowFieldCache flowFields;
+
+  /** Finds paths off the tick thread. Recreated on load. */
+  private transient PathRequestService pathRequests = new PathRequestService(PATH_FINDER_THREADS);
+
+  /**
+   * Keeps the sprite sheets of the units that are alive, and of the units in the next level, so
+   * they aren't decoded in the middle of a tick when they are first drawn. Recreated on load.
+   */
+  private transient SpriteSheetCache spriteSheets = new SpriteSheetCache();
+
+  /** The sheets acquired for the units of the next level, see {@link #preloadNextLevel()}. */
+  private transient List<SpriteSheetData> nextLevelSheets = Collections.emptyList();
+
   /** The entities that were recently added to the world. */
   private Set<Entity> recentlyAddedEntities = new HashSet<>();
 
@@ -68,14 +110,64 @@ public class DefaultWorld implements Serializable, World {
     this.recentlyKilledUnits = newConcurrentSet();
     this.items = newConcurrentSet();
     this.mapEntities = newConcurrentSet();
-    this.mapEntities.addAll(currentLevel().getBorderEntities());
     this.projectiles = newConcurrentSet();
     this.pathFinder = pathfinder;
     staticEntities = newConcurrentSet();
 
-    this.addAllEntity(currentLevel().getUnits(), this.units);
+    this.entityStore.add(heroUnit);
+    this.unitGrid.add(heroUnit);
+    this.spriteSheets.acquire(heroUnit.getSpriteSheet());
+    for (MapEntity borderEntity : currentLevel().getBorderEntities()) {
+      if (this.mapEntities.add(borderEntity)) {
+        this.entityStore.add(borderEntity);
+      }
+    }
+    this.addAllUnits(currentLevel().getUnits());
     this.addAllEntity(currentLevel().getItems(), this.items);
     this.addAllEntity(currentLevel().getMapEntities(), this.mapEntities);
+    this.buildPassabilityGrid();
+    this.preloadNextLevel();
+  }
+
+  /**
+   * Called during deserialisation.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    this.entityStore = new EntityStore();
+    getAllEntities().forEach(this.entityStore::add);
+    this.unitGrid = new UnitGrid();
+    getAllUnits().forEach(this.unitGrid::add);
+    this.pathRequests = new PathRequestService(PATH_FINDER_THREADS);
+    this.buildPassabilityGrid();
+    this.spriteSheets = new SpriteSheetCache();
+    getAllUnits().forEach(unit -> this.spriteSheets.acquire(unit.getSpriteSheet()));
+    this.nextLevelSheets = Collections.emptyList();
+    this.preloadNextLevel();
+  }
+
+  private void buildPassabilityGrid() {
+    this.passabilityGrid = new PassabilityGrid(currentLevel().getBounds(), this.mapEntities);
+    this.flowFields = new FlowFieldCache(this.passabilityGrid, FLOW_FIELD_CACHE_SIZE);
+    this.pathFinder.precompute(this.passabilityGrid);
+    // Paths being found are for the old grid
+    this.pathRequests.cancelAll();
+  }
+
+  /**
+   * Keeps the sprite sheets of the units in the next level, instead of the ones of the level that
+   * was next before. Called when the level changes, the units that are alive keep their own sheets
+   * as they are added and removed.
+   */
+  private void preloadNextLevel() {
+    List<SpriteSheetData> sheets = new ArrayList<>();
+    if (levels.size() > 1) {
+      levels.get(1).getUnits().forEach(unit -> sheets.add(unit.getSpriteSheet()));
+    }
+    // Acquired before the old ones are released, so sheets in both aren't released and reloaded
+    sheets.forEach(this.spriteSheets::acquire);
+    this.nextLevelSheets.forEach(this.spriteSheets::release);
+    this.nextLevelSheets = sheets;
   }
 
   /**
@@ -93,19 +185,43 @@ public class DefaultWorld implements Serializable, World {
 
   private <T extends Entity> void addAllEntity(Collection<T> entitiesToAdd, Collection<T> to) {
     this.recentlyAddedEntities.addAll(entitiesToAdd);
-    to.addAll(entitiesToAdd);
+    for (T entity : entitiesToAdd) {
+      if (to.add(entity)) {
+        this.entityStore.add(entity);
+      }
+    }
   }
 
-  private <T extends Entity> void addEntity(T entity, Collection<T> to) {
+  private void addAllUnits(Collection<Unit> unitsToAdd) {
+    unitsToAdd.forEach(this::addUnitEntity);
+  }
+
+  /**
+   * Adds an entity, unless it is already there.
+   *
+   * @return whether it was added
+   */
+  private <T extends Entity> boolean addEntity(T entity, Collection<T> to) {
     this.recentlyAddedEntities.add(entity);
-    to.add(entity);
+    if (to.add(entity)) {
+      this.entityStore.add(entity);
+      return true;
+    }
+    return false;
   }
 
-  private <T extends Entity> void removeEntity(T entity, Collection<T> from) {
+  /**
+   * Removes an entity, if it is there.
+   *
+   * @return whether it was removed
+   */
+  private <T extends Entity> boolean removeEntity(T entity, Collection<T> from) {
     boolean wasRemoved = from.remove(entity);
     if (wasRemoved) {
+      this.entityStore.remove(entity);
       entity.getRemovedEvent().broadcast(null);
     }
+    return wasRemoved;
   }
 
   /**
@@ -116,6 +232,7 @@ public class DefaultWorld implements Serializable, World {
       Collection<T> entitiesToRemove, Collection<T> from
   ) {
     boolean result = from.removeAll(entitiesToRemove);
+    entitiesToRemove.forEach(this.entityStore::remove);
     if (result) {
       entitiesToRemove.forEach(e -> e.getRemovedEvent().broadcast(null));
     }
@@ -145,7 +262,22 @@ public class DefaultWorld implements Serializable, World {
   }
 
   public void addUnit(Unit unit) {
-    this.addEntity(unit, this.units);
+    this.addUnitEntity(unit);
+  }
+
+  @Override
+  public Collection<Unit> queryRadius(MapPoint centre, double radius) {
+    return this.unitGrid.queryRadius(centre, radius);
+  }
+
+  @Override
+  public Collection<Unit> queryRect(MapRect rect) {
+    return this.unitGrid.queryRect(rect);
+  }
+
+  @Override
+  public Unit nearestMatching(MapPoint point, double radius, Predicate<Unit> predicate) {
+    return this.unitGrid.nearestMatching(point, radius, predicate);
   }
 
   /**
@@ -206,24 +338,22 @@ public class DefaultWorld implements Serializable, World {
   }
 
   public void addUnitEntity(Unit unit) {
-    this.addEntity(unit, units);
+    if (this.addEntity(unit, units)) {
+      this.unitGrid.add(unit);
+      this.spriteSheets.acquire(unit.getSpriteSheet());
+    }
   }
 
   public void removeUnitEntity(Unit unit) {
-    this.removeEntity(unit, units);
+    this.unitGrid.remove(unit);
+    if (this.removeEntity(unit, units)) {
+      this.spriteSheets.release(unit.getSpriteSheet());
+    }
   }
 
   @Override
   public boolean isPassable(MapPoint point) {
-    if (!currentLevel().getBounds().contains(point)) {
-      return false;
-    }
-    for (MapEntity mapEntity : mapEntities) {
-      if (!mapEntity.isPassable() && mapEntity.contains(point)) {
-        return false;
-      }
-    }
-    return true;
+    return this.passabilityGrid.isPassable(point);
   }
 
   /**
@@ -252,7 +382,9 @@ public class DefaultWorld implements Serializable, World {
     this.addAllEntity(currentLevel().getItems(), this.items);
     this.addAllEntity(currentLevel().getMapEntities(), this.mapEntities);
     this.addAllEntity(currentLevel().getBorderEntities(), this.mapEntities);
-    this.addAllEntity(currentLevel().getUnits(), this.units);
+    this.addAllUnits(currentLevel().getUnits());
+    this.buildPassabilityGrid();
+    this.preloadNextLevel();
   }
 
   @Override
@@ -262,41 +394,82 @@ public class DefaultWorld implements Serializable, World {
 
   @Override
   public void tick(long timeSinceLastTick) {
-    getAllEntities().forEach(e -> e.tick(timeSinceLastTick, this));
+    this.entityStore.startWriting();
+    try {
+      tickEntities(timeSinceLastTick);
+    } finally {
+      // Lets the renderer see this tick
+      this.entityStore.publish();
+    }
+  }
+
+  private void tickEntities(long timeSinceLastTick) {
+    // The store gives the entities in spawn order
+    int count = this.entityStore.size();
+    int[] handles = this.entityStore.copyHandles(this.tickHandles);
+    this.tickHandles = handles;
+
+    // Phase one: entities work out what they will do without changing anything else, so they can
+    // do it in parallel on the fork join pool
+    if (count >= PARALLEL_PLANNING_THRESHOLD) {
+      IntStream.range(0, count).parallel()
+          .forEach(i -> this.entityStore.get(handles[i]).planTick(this));
+    } else {
+      for (int i = 0; i < count; i++) {
+        this.entityStore.get(handles[i]).planTick(this);
+      }
+    }
+
+    // Phase two: carry it out (moving, damage, deaths, spawns) one entity at a time in a fixed
+    // order. Entities removed earlier in the tick are skipped.
+    for (int i = 0; i < count; i++) {
+      Entity entity = this.entityStore.get(handles[i]);
+      if (entity != null) {
+        entity.tick(timeSinceLastTick, this);
+      }
+    }
     this.repelUnits();
     checkLevelCompletion();
   }
 
   private void repelUnits() {
-    HashMap<Unit, MapSize> unitMovements = new HashMap<>();
-
-    getAllUnits().forEach(baseUnit -> getAllUnits()
-        .stream()
-        .filter(otherUnit -> otherUnit != baseUnit)
-        .filter(otherUnit -> otherUnit.getTeam() == baseUnit.getTeam())
-        .forEach(otherUnit -> {
-          if (baseUnit == otherUnit) {
-            return;
-          }
-          double distance = baseUnit.getCentre().distanceTo(otherUnit.getCentre());
-          double minDistance = baseUnit.getSize().width / 2 + otherUnit.getSize().width / 2;
-          if (distance < minDistance) {
-            double angle = baseUnit.getCentre().angleTo(otherUnit.getCentre()) + (Math.PI) / 2;
-            double dx = (1 / (UNIT_REPEL_MULTIPLIER * distance)) * Math.sin(angle);
-            double dy = (1 / (UNIT_REPEL_MULTIPLIER * distance)) * Math.cos(angle);
-            unitMovements.computeIfAbsent(baseUnit,
-                unit -> unitMovements.put(unit, new MapSize(0, 0)));
-            MapSize currentMovement = unitMovements.get(baseUnit);
-            MapSize newMovement = new MapSize(currentMovement.width - dx,
-                currentMovement.height - dy);
-            unitMovements.put(baseUnit, newMovement);
-          }
-        }));
+    Collection<Unit> allUnits = getAllUnits();
+    List<Unit> repelledUnits = new ArrayList<>();
+    double[] movements = new double[allUnits.size() * 2];
+
+    for (Unit baseUnit : allUnits) {
+      double baseX = baseUnit.getCentreX();
+      double baseY = baseUnit.getCentreY();
+      double baseHalfWidth = baseUnit.getWidth() / 2;
+      double moveX = 0;
+      double moveY = 0;
+      // Only units closer than the sum of the half widths can repel each other
+      for (Unit otherUnit : queryRadius(baseUnit.getCentre(), baseHalfWidth + Unit.MAX_SIZE / 2)) {
+        if (otherUnit == baseUnit || otherUnit.getTeam() != baseUnit.getTeam()) {
+          continue;
+        }
+        double otherX = otherUnit.getCentreX();
+        double otherY = otherUnit.getCentreY();
+        double distance = Geometry.distance(baseX, baseY, otherX, otherY);
+        double minDistance = baseHalfWidth + otherUnit.getWidth() / 2;
+        if (distance < minDistance && distance > 0) {
+          // Push directly away from the other unit, harder the closer it is
+          double push = 1 / (UNIT_REPEL_MULTIPLIER * distance * distance);
+          moveX -= push * (otherX - baseX);
+          moveY -= push * (otherY - baseY);
+        }
+      }
+      if (moveX != 0 || moveY != 0) {
+        movements[repelledUnits.size() * 2] = moveX;
+        movements[repelledUnits.size() * 2 + 1] = moveY;
+        repelledUnits.add(baseUnit);
+      }
+    }
 
-    unitMovements.keySet().forEach(unit -> {
-      MapSize movement = unitMovements.get(unit);
-      unit.slidePosition(movement.width, movement.height);
-    });
+    // Move after working out every movement so the order doesn't matter
+    for (int i = 0; i < repelledUnits.size(); i++) {
+      repelledUnits.get(i).slidePosition(movements[i * 2], movements[i * 2 + 1]);
+    }
   }
 
   @Override
@@ -309,7 +482,33 @@ public class DefaultWorld implements Serializable, World {
 
   @Override
   public List<MapPoint> findPath(MapPoint start, MapPoint end) {
-    return pathFinder.findPath(this::isPassable, start, end);
+    return pathFinder.findPath(this.passabilityGrid, start, end, 0);
+  }
+
+  @Override
+  public List<MapPoint> findFlowPath(MapPoint start, MapPoint end) {
+    return flowFields.findPath(start, end);
+  }
+
+  @Override
+  public PathRequest requestPath(MapPoint start, MapPoint end) {
+    PassabilityGrid grid = this.passabilityGrid;
+    // The lattice the search walks is anchored at the start, so only identical requests share
+    return pathRequests.request(
+        Arrays.asList("path", start, end),
+        () -> pathFinder.findPath(grid, start, end, 0)
+    );
+  }
+
+  @Override
+  public PathRequest requestFlowPath(MapPoint start, MapPoint end) {
+    FlowFieldCache fields = this.flowFields;
+    // A flow path starts at the field point nearest the start, which is the same for every start
+    // in a tile
+    return pathRequests.request(
+        Arrays.asList("flow", (int) Math.floor(start.x), (int) Math.floor(start.y), end),
+        () -> fields.findPath(start, end)
+    );
   }
 
   /**
@@ -0,0 +1,110 @@
+package main.game.model.world;
+
+import java.util.BitSet;
+import java.util.Collection;
+import main.game.model.entity.MapEntity;
+import main.game.model.world.pathfinder.PassableArea;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * An occupancy grid of a level's bounds, so passability checks are an array lookup rather than a
+ * scan of every {@link MapEntity}. The grid is a rasterisation of the impassable map entities at
+ * {@link #CELLS_PER_TILE} cells per tile, where a cell is blocked if any impassable entity
+ * overlaps it. An entity whose right or bottom edge lies on a cell boundary doesn't block the cell
+ * after it.
+ *
+ * <p>
+ * The grid does not follow changes to the entities, so it must be rebuilt whenever the set of map
+ * entities changes (i.e. when the level changes).
+ * </p>
+ */
+public class PassabilityGrid implements PassableArea {
+
+  /**
+   * Number of cells along one side of a tile.
+   */
+  public static final int CELLS_PER_TILE = 4;
+
+  private final MapRect bounds;
+  private final int width;
+  private final int height;
+  /** Bit (x + y * width) is set when cell (x, y) is blocked. */
+  private final BitSet blocked;
+
+  /**
+   * Rasterises the impassable map entities within the bounds.
+   *
+   * @param bounds the playable area, everything outside is impassable
+   * @param mapEntities the map entities (passable ones are ignored)
+   */
+  public PassabilityGrid(MapRect bounds, Collection<? extends MapEntity> mapEntities) {
+    this.bounds = bounds;
+    this.width = Math.max(1, (int) Math.ceil(bounds.getWidth() * CELLS_PER_TILE));
+    this.height = Math.max(1, (int) Math.ceil(bounds.getHeight() * CELLS_PER_TILE));
+    this.blocked = new BitSet(width * height);
+
+    for (MapEntity mapEntity : mapEntities) {
+      if (!mapEntity.isPassable()) {
+        rasterise(mapEntity.getRect());
+      }
+    }
+  }
+
+  /**
+   * Marks every cell that the rect overlaps as blocked. The right and bottom edges are exclusive,
+   * so a rect that ends on a cell boundary doesn't block the next cell, but a rect always blocks at
+   * least the cell its top left is in.
+   */
+  private void rasterise(MapRect rect) {
+    int minCellX = Math.max(0, cellX(rect.topLeft.x));
+    int minCellY = Math.max(0, cellY(rect.topLeft.y));
+    int maxCellX = Math.min(width - 1, Math.max(minCellX, lastCellX(rect.bottomRight.x)));
+    int maxCellY = Math.min(height - 1, Math.max(minCellY, lastCellY(rect.bottomRight.y)));
+    for (int y = minCellY; y <= maxCellY; y++) {
+      blocked.set(minCellX + y * width, maxCellX + y * width + 1);
+    }
+  }
+
+  @Override
+  public boolean isPassable(double x, double y) {
+    if (!bounds.contains(x, y)) {
+      return false;
+    }
+    // The bottom and right edges are inclusive so clamp them into the last cell
+    int cellX = Math.min(width - 1, cellX(x));
+    int cellY = Math.min(height - 1, cellY(y));
+    return !blocked.get(cellX + cellY * width);
+  }
+
+  /**
+   * See {@link #isPassable(double, double)}.
+   */
+  public boolean isPassable(MapPoint point) {
+    return isPassable(point.x, point.y);
+  }
+
+  @Override
+  public MapRect getBounds() {
+    return bounds;
+  }
+
+  private int cellX(double x) {
+    return (int) Math.floor((x - bounds.topLeft.x) * CELLS_PER_TILE);
+  }
+
+  private int cellY(double y) {
+    return (int) Math.floor((y - bounds.topLeft.y) * CELLS_PER_TILE);
+  }
+
+  /**
+   * The last cell that something ending (exclusively) at x overlaps.
+   */
+  private int lastCellX(double x) {
+    return (int) Math.ceil((x - bounds.topLeft.x) * CELLS_PER_TILE) - 1;
+  }
+
+  private int lastCellY(double y) {
+    return (int) Math.ceil((y - bounds.topLeft.y) * CELLS_PER_TILE) - 1;
+  }
+}
@@ -0,0 +1,106 @@
+package main.game.model.world;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import main.game.model.entity.ImageMapEntity;
+import main.game.model.entity.MapEntity;
+import main.util.MapPoint;
+import main.util.MapRect;
+import main.util.MapSize;
+import org.junit.Test;
+
+public class PassabilityGridTest {
+
+  private static final double CELL = 1.0 / PassabilityGrid.CELLS_PER_TILE;
+  private static final double EPSILON = 1e-6;
+
+  private static final MapRect BOUNDS = new MapRect(0, 0, 10, 10);
+
+  private static PassabilityGrid gridWith(MapEntity... entities) {
+    return new PassabilityGrid(BOUNDS, Arrays.asList(entities));
+  }
+
+  private static MapEntity rock(double x, double y, double width, double height) {
+    return new ImageMapEntity(new MapPoint(x, y), new MapSize(width, height), null);
+  }
+
+  @Test
+  public void testEmptyGrid_everythingInBoundsIsPassable() {
+    PassabilityGrid grid = new PassabilityGrid(BOUNDS, Collections.emptyList());
+    assertTrue(grid.isPassable(0, 0));
+    assertTrue(grid.isPassable(5, 5));
+    assertTrue(grid.isPassable(10, 10));
+  }
+
+  @Test
+  public void testOutsideBounds_isNotPassable() {
+    PassabilityGrid grid = new PassabilityGrid(BOUNDS, Collections.emptyList());
+    assertFalse(grid.isPassable(-EPSILON, 5));
+    assertFalse(grid.isPassable(5, -EPSILON));
+    assertFalse(grid.isPassable(10 + EPSILON, 5));
+    assertFalse(grid.isPassable(5, 10 + EPSILON));
+  }
+
+  @Test
+  public void testEntityOnTileBoundaries_blocksOnlyItsTiles() {
+    PassabilityGrid grid = gridWith(rock(2, 3, 2, 1));
+
+    // Inside, including the top left corner
+    assertFalse(grid.isPassable(2, 3));
+    assertFalse(grid.isPassable(3.5, 3.5));
+    assertFalse(grid.isPassable(4 - EPSILON, 4 - EPSILON));
+
+    // Just outside each edge
+    assertTrue(grid.isPassable(2 - EPSILON, 3.5));
+    assertTrue(grid.isPassable(3, 3 - EPSILON));
+    assertTrue(grid.isPassable(4, 3.5));
+    assertTrue(grid.isPassable(3, 4));
+    assertTrue(grid.isPassable(4, 4));
+  }
+
+  @Test
+  public void testEntityOffCellBoundaries_blocksTheCellsItOverlaps() {
+    double left = 2 + CELL / 2;
+    double top = 3 + CELL / 2;
+    PassabilityGrid grid = gridWith(rock(left, top, 1, 1));
+
+    // The cells the edges are in are partly covered, so they are blocked
+    assertFalse(grid.isPassable(2, 3));
+    assertFalse(grid.isPassable(left + 1 + CELL / 4, top + 1 + CELL / 4));
+    // The cells after them aren't
+    assertTrue(grid.isPassable(2 - EPSILON, 3.5));
+    assertTrue(grid.isPassable(3.5, 3 - EPSILON));
+    assertTrue(grid.isPassable(3 + 2 * CELL, 3.5));
+    assertTrue(grid.isPassable(2.5, 4 + 2 * CELL));
+  }
+
+  @Test
+  public void testEntityAtBoundsEdge_blocksTheLastCells() {
+    PassabilityGrid grid = gridWith(rock(9, 9, 1, 1));
+    assertTrue(grid.isPassable(9 - EPSILON, 9.5));
+    assertFalse(grid.isPassable(9, 9));
+    // The bounds' own bottom right edge is inclusive and belongs to the last cell
+    assertFalse(grid.isPassable(10, 10));
+    assertFalse(grid.isPassable(10, 9.5));
+  }
+
+  @Test
+  public void testEntityPastBounds_isClipped() {
+    PassabilityGrid grid = gridWith(rock(-2, -2, 3, 3));
+    assertFalse(grid.isPassable(0, 0));
+    assertFalse(grid.isPassable(1 - EPSILON, 1 - EPSILON));
+    assertTrue(grid.isPassable(1, 0.5));
+    assertTrue(grid.isPassable(0.5, 1));
+  }
+
+  @Test
+  public void testZeroSizedEntity_blocksItsCell() {
+    PassabilityGrid grid = gridWith(rock(5, 5, 0, 0));
+    assertFalse(grid.isPassable(5, 5));
+    assertTrue(grid.isPassable(5 - EPSILON, 5));
+    assertTrue(grid.isPassable(5 + CELL, 5));
+  }
+}
@@ -0,0 +1,187 @@
+package main.game.model.world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import main.game.model.entity.Unit;
+import main.util.Geometry;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * A uniform grid of buckets that indexes {@link Unit}s by the cell their centre is in so that
+ * proximity queries only have to look at the units in nearby cells rather than every unit in the
+ * {@link World}.
+ *
+ * <p>
+ * Units are re-bucketed whenever they broadcast {@link Unit#getMovedEvent()}.
+ * </p>
+ */
+class UnitGrid {
+
+  /**
+   * Width and height of a cell in tiles. Roughly the size of the most common query (melee range
+   * plus a unit) so that most queries only touch a handful of cells.
+   */
+  private static final double CELL_SIZE = 2;
+
+  private final Map<Long, Set<Unit>> cells = new ConcurrentHashMap<>();
+  private final Map<Unit, Long> unitCells = new ConcurrentHashMap<>();
+  private final Map<Unit, Runnable> movedListenerRemovers = new ConcurrentHashMap<>();
+
+  /**
+   * Starts tracking a unit. Does nothing if the unit is already tracked.
+   */
+  void add(Unit unit) {
+    if (unitCells.containsKey(unit)) {
+      return;
+    }
+    long key = keyFor(unit.getCentreX(), unit.getCentreY());
+    unitCells.put(unit, key);
+    cellAt(key).add(unit);
+    movedListenerRemovers.put(unit, unit.getMovedEvent().registerListener(v -> update(unit)));
+  }
+
+  /**
+   * Stops tracking a unit. Does nothing if the unit is not tracked.
+   */
+  void remove(Unit unit) {
+    Long key = unitCells.remove(unit);
+    if (key == null) {
+      return;
+    }
+    Set<Unit> cell = cells.get(key);
+    if (cell != null) {
+      cell.remove(unit);
+    }
+    Runnable removeListener = movedListenerRemovers.remove(unit);
+    if (removeListener != null) {
+      removeListener.run();
+    }
+  }
+
+  /**
+   * Moves the unit to the correct cell if it has moved out of its old one.
+   */
+  void update(Unit unit) {
+    Long oldKey = unitCells.get(unit);
+    if (oldKey == null) {
+      return;
+    }
+    long newKey = keyFor(unit.getCentreX(), unit.getCentreY());
+    if (oldKey == newKey) {
+      return;
+    }
+    unitCells.put(unit, newKey);
+    cellAt(newKey).add(unit);
+    cells.get(oldKey).remove(unit);
+  }
+
+  /**
+   * See {@link World#queryRadius(MapPoint, double)}.
+   */
+  List<Unit> queryRadius(MapPoint centre, double radius) {
+    List<Unit> found = new ArrayList<>();
+    double radiusSquared = radius * radius;
+    forEachCandidate(centre.x - radius, centre.y - radius, centre.x + radius, centre.y + radius,
+        0, unit -> {
+          if (Geometry.distanceSquared(unit.getCentreX(), unit.getCentreY(), centre.x, centre.y)
+              <= radiusSquared) {
+            found.add(unit);
+          }
+        });
+    return Collections.unmodifiableList(found);
+  }
+
+  /**
+   * See {@link World#queryRect(MapRect)}.
+   */
+  List<Unit> queryRect(MapRect rect) {
+    List<Unit> found = new ArrayList<>();
+    forEachCandidate(rect.topLeft.x, rect.topLeft.y, rect.bottomRight.x, rect.bottomRight.y,
+        Unit.MAX_SIZE / 2, unit -> {
+          double left = unit.getLeft();
+          double top = unit.getTop();
+          if (left <= rect.bottomRight.x
+              && top <= rect.bottomRight.y
+              && left + unit.getWidth() >= rect.topLeft.x
+              && top + unit.getHeight() >= rect.topLeft.y) {
+            found.add(unit);
+          }
+        });
+    return Collections.unmodifiableList(found);
+  }
+
+  /**
+   * See {@link World#nearestMatching(MapPoint, double, Predicate)}.
+   */
+  Unit nearestMatching(MapPoint point, double radius, Predicate<Unit> predicate) {
+    Unit nearest = null;
+    double nearestDistanceSquared = radius * radius;
+    int minCellX = cellCoordinate(point.x - radius);
+    int maxCellX = cellCoordinate(point.x + radius);
+    int minCellY = cellCoordinate(point.y - radius);
+    int maxCellY = cellCoordinate(point.y + radius);
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+        Set<Unit> cell = cells.get(key(cellX, cellY));
+        if (cell == null) {
+          continue;
+        }
+        for (Unit unit : cell) {
+          double distanceSquared = Geometry.distanceSquared(
+              unit.getCentreX(), unit.getCentreY(), point.x, point.y);
+          if (distanceSquared <= nearestDistanceSquared && predicate.test(unit)) {
+            nearest = unit;
+            nearestDistanceSquared = distanceSquared;
+          }
+        }
+      }
+    }
+    return nearest;
+  }
+
+  /**
+   * Visits every unit in the cells that overlap the box, after growing the box by padding.
+   */
+  private void forEachCandidate(
+      double minX, double minY, double maxX, double maxY, double padding, Consumer<Unit> visitor
+  ) {
+    int minCellX = cellCoordinate(minX - padding);
+    int maxCellX = cellCoordinate(maxX + padding);
+    int minCellY = cellCoordinate(minY - padding);
+    int maxCellY = cellCoordinate(maxY + padding);
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+        Set<Unit> cell = cells.get(key(cellX, cellY));
+        if (cell == null) {
+          continue;
+        }
+        for (Unit unit : cell) {
+          visitor.accept(unit);
+        }
+      }
+    }
+  }
+
+  private Set<Unit> cellAt(long key) {
+    return cells.computeIfAbsent(key, k -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+  }
+
+  private static long keyFor(double x, double y) {
+    return key(cellCoordinate(x), cellCoordinate(y));
+  }
+
+  private static int cellCoordinate(double position) {
+    return (int) Math.floor(position / CELL_SIZE);
+  }
+
+  private static long key(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+}
@@ -0,0 +1,113 @@
+package main.game.model.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import main.game.model.data.DataLoader;
+import main.game.model.entity.Team;
+import main.game.model.entity.Unit;
+import main.game.model.entity.unit.DefaultUnit;
+import main.util.MapPoint;
+import org.junit.Test;
+
+public class UnitGridTest {
+
+  private static final DataLoader dataLoader = new DataLoader();
+
+  private static Unit unitCentredAt(double x, double y) {
+    DefaultUnit unit = new DefaultUnit(
+        dataLoader.getDataForUnitType("unittype:archer"), new MapPoint(0, 0), Team.PLAYER,
+        dataLoader
+    );
+    unit.translatePosition(x - unit.getCentreX(), y - unit.getCentreY());
+    return unit;
+  }
+
+  /**
+   * The units within the radius by checking every unit.
+   */
+  private static Set<Unit> bruteForce(List<Unit> units, MapPoint centre, double radius) {
+    return units.stream()
+        .filter(unit -> unit.getCentre().distanceTo(centre) <= radius)
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testQueryRadius_findsUnitsInNeighbouringCells() {
+    UnitGrid grid = new UnitGrid();
+    Unit near = unitCentredAt(1.9, 1.9);
+    Unit acrossCellBoundary = unitCentredAt(2.1, 2.1);
+    Unit negative = unitCentredAt(-0.5, 1.5);
+    Unit far = unitCentredAt(6, 6);
+    for (Unit unit : Arrays.asList(near, acrossCellBoundary, negative, far)) {
+      grid.add(unit);
+    }
+
+    assertEquals(
+        new HashSet<>(Arrays.asList(near, acrossCellBoundary, negative)),
+        new HashSet<>(grid.queryRadius(new MapPoint(1, 2), 1.6))
+    );
+  }
+
+  @Test
+  public void testQueryRadius_includesUnitsExactlyOnTheRadius() {
+    UnitGrid grid = new UnitGrid();
+    Unit unit = unitCentredAt(5, 2);
+    grid.add(unit);
+
+    assertEquals(Arrays.asList(unit), grid.queryRadius(new MapPoint(2, 2), 3));
+    assertTrue(grid.queryRadius(new MapPoint(2, 2), 2.999).isEmpty());
+  }
+
+  @Test
+  public void testQueryRadius_followsUnitsThatMove() {
+    UnitGrid grid = new UnitGrid();
+    Unit unit = unitCentredAt(1, 1);
+    grid.add(unit);
+
+    unit.translatePosition(10, 0);
+
+    assertTrue(grid.queryRadius(new MapPoint(1, 1), 1).isEmpty());
+    assertEquals(Arrays.asList(unit), grid.queryRadius(new MapPoint(11, 1), 1));
+  }
+
+  @Test
+  public void testQueryRadius_ignoresRemovedUnits() {
+    UnitGrid grid = new UnitGrid();
+    Unit unit = unitCentredAt(1, 1);
+    grid.add(unit);
+    grid.remove(unit);
+
+    assertTrue(grid.queryRadius(new MapPoint(1, 1), 1).isEmpty());
+    // Isn't re-added by moving after it was removed
+    unit.translatePosition(1, 0);
+    assertTrue(grid.queryRadius(new MapPoint(2, 1), 1).isEmpty());
+  }
+
+  @Test
+  public void testQueryRadius_matchesCheckingEveryUnit() {
+    Random random = new Random(3);
+    UnitGrid grid = new UnitGrid();
+    List<Unit> units = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Unit unit = unitCentredAt(random.nextDouble() * 30 - 5, random.nextDouble() * 30 - 5);
+      units.add(unit);
+      grid.add(unit);
+    }
+
+    for (int i = 0; i < 100; i++) {
+      MapPoint centre = new MapPoint(random.nextDouble() * 20, random.nextDouble() * 20);
+      double radius = random.nextDouble() * 6;
+      assertEquals(
+          bruteForce(units, centre, radius), new HashSet<>(grid.queryRadius(centre, radius))
+      );
+    }
+  }
+}
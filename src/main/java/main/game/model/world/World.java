@@ -2,6 +2,7 @@ package main.game.model.world;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 import main.game.model.entity.Entity;
 import main.game.model.entity.HeroUnit;
 import main.game.model.entity.MapEntity;
@@ -9,6 +10,7 @@ import main.game.model.entity.Projectile;
 import main.game.model.entity.StaticEntity;
 import main.game.model.entity.Unit;
 import main.game.model.entity.usable.Item;
+import main.game.model.world.pathfinder.PathRequestService.PathRequest;
 import main.util.MapPoint;
 import main.util.MapRect;
 
@@ -27,6 +29,34 @@ public interface World {
    */
   Collection<Unit> getAllUnits();
 
+  /**
+   * Gets the units whose centre is within the radius of a point, using the world's spatial index
+   * rather than scanning every unit.
+   *
+   * @param centre the point to search around
+   * @param radius the maximum distance (inclusive) from the centre of the unit to the point
+   * @return an unmodifiable list of the units found, in no particular order
+   */
+  Collection<Unit> queryRadius(MapPoint centre, double radius);
+
+  /**
+   * Gets the units whose bounding box overlaps (or touches) the rectangle.
+   *
+   * @return an unmodifiable list of the units found, in no particular order
+   */
+  Collection<Unit> queryRect(MapRect rect);
+
+  /**
+   * Finds the closest unit to a point (by centre) that matches the predicate, only looking as far
+   * as the radius.
+   *
+   * @param point the point to search around
+   * @param radius the maximum distance (inclusive) from the centre of the unit to the point
+   * @param predicate filter for the units, e.g. whether the unit is on an enemy team
+   * @return the closest matching unit or null if there is none in range
+   */
+  Unit nearestMatching(MapPoint point, double radius, Predicate<Unit> predicate);
+
   void addUnitEntity(Unit unit);
 
   void removeUnitEntity(Unit unit);
@@ -90,6 +120,25 @@ public interface World {
 
   List<MapPoint> findPath(MapPoint start, MapPoint end);
 
+  /**
+   * Finds a path by following a flow field of the end, which is shared by every unit going to the
+   * same tile. Cheaper than {@link #findPath(MapPoint, MapPoint)} when many units have the same
+   * destination.
+   */
+  List<MapPoint> findFlowPath(MapPoint start, MapPoint end);
+
+  /**
+   * Like {@link #findPath(MapPoint, MapPoint)} but the path is found off the tick thread and picked
+   * up from the request on a later tick. The request should be cancelled if it is no longer needed.
+   */
+  PathRequest requestPath(MapPoint start, MapPoint end);
+
+  /**
+   * Like {@link #findFlowPath(MapPoint, MapPoint)} but the path is found off the tick thread, see
+   * {@link #requestPath(MapPoint, MapPoint)}.
+   */
+  PathRequest requestFlowPath(MapPoint start, MapPoint end);
+
   /**
    * Gets the current goal for the current level.
    * @return String description of the current goal
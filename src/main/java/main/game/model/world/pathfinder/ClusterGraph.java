@@ -0,0 +1,391 @@
+package main.game.model.world.pathfinder;
+
+import java.util.Arrays;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * The abstract graph used by {@link HierarchicalPathFinder}. The tiles of an area are split into
+ * square clusters. Wherever two neighbouring clusters can be crossed between there are entrance
+ * nodes on both sides of the border, and the nodes of each cluster are joined by edges weighted
+ * with the shortest distance between them inside the cluster.
+ *
+ * <p>
+ * Tiles are identified by their index (x + y * width) and moves between tiles follow the same rule
+ * as {@link DefaultPathFinder}. Building the graph is done once per area; searching it only needs
+ * small per-search arrays so it can be used from any thread.
+ * </p>
+ */
+final class ClusterGraph {
+
+  /**
+   * Entrances at least this wide get a node at each end rather than one in the middle.
+   */
+  private static final int WIDE_ENTRANCE = 6;
+
+  private static final int[] STEP_X = {-1, 0, 1, -1, 1, -1, 0, 1};
+  private static final int[] STEP_Y = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+  final PassableArea area;
+  private final double originX;
+  private final double originY;
+  private final int width;
+  private final int height;
+  private final int clusterSize;
+  private final int clustersX;
+  private final int clustersY;
+  private final boolean[] passable;
+
+  /** Node id of each tile, or -1. */
+  private final int[] tileNodes;
+  private int nodeCount = 0;
+  private int[] nodeTiles = new int[64];
+
+  /** The nodes of each cluster. */
+  private final int[][] clusterNodes;
+
+  /** Edges of node n are edgeTargets/edgeCosts[edgeStarts[n] until edgeStarts[n + 1]]. */
+  private int[] edgeStarts;
+  private int[] edgeTargets;
+  private float[] edgeCosts;
+
+  // edges before they are sorted by node
+  private int edgeCount = 0;
+  private int[] edgeFroms = new int[256];
+  private int[] unsortedTargets = new int[256];
+  private float[] unsortedCosts = new float[256];
+
+  /**
+   * Builds the graph of the area.
+   */
+  ClusterGraph(PassableArea area, int clusterSize) {
+    this.area = area;
+    MapRect bounds = area.getBounds();
+    this.originX = bounds.topLeft.x;
+    this.originY = bounds.topLeft.y;
+    this.width = Math.max(1, (int) Math.ceil(bounds.getWidth()));
+    this.height = Math.max(1, (int) Math.ceil(bounds.getHeight()));
+    this.clusterSize = clusterSize;
+    this.clustersX = (width + clusterSize - 1) / clusterSize;
+    this.clustersY = (height + clusterSize - 1) / clusterSize;
+
+    this.passable = new boolean[width * height];
+    for (int i = 0; i < passable.length; i++) {
+      passable[i] = area.isPassable(tileX(i), tileY(i));
+    }
+    this.tileNodes = new int[width * height];
+    Arrays.fill(tileNodes, -1);
+
+    findEntrances();
+
+    this.clusterNodes = new int[clustersX * clustersY][];
+    int[] clusterNodeCounts = new int[clusterNodes.length];
+    for (int node = 0; node < nodeCount; node++) {
+      clusterNodeCounts[clusterOf(nodeTiles[node])]++;
+    }
+    for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+      clusterNodes[cluster] = new int[clusterNodeCounts[cluster]];
+      clusterNodeCounts[cluster] = 0;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      int cluster = clusterOf(nodeTiles[node]);
+      clusterNodes[cluster][clusterNodeCounts[cluster]++] = node;
+    }
+
+    for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+      joinClusterNodes(cluster);
+    }
+    sortEdges();
+  }
+
+  /**
+   * Adds nodes and edges for every entrance between neighbouring clusters.
+   */
+  private void findEntrances() {
+    for (int cy = 0; cy < clustersY; cy++) {
+      for (int cx = 0; cx < clustersX; cx++) {
+        int left = cx * clusterSize;
+        int top = cy * clusterSize;
+        int right = Math.min(width, left + clusterSize) - 1;
+        int bottom = Math.min(height, top + clusterSize) - 1;
+        if (right + 1 < width) {
+          findEntrances(right, top, 0, 1, bottom - top + 1, 1, 0);
+        }
+        if (bottom + 1 < height) {
+          findEntrances(left, bottom, 1, 0, right - left + 1, 0, 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Scans along a border for runs of tiles that can be crossed.
+   *
+   * @param x the first tile on the near side of the border
+   * @param y the first tile on the near side of the border
+   * @param alongX the direction along the border
+   * @param alongY the direction along the border
+   * @param length the number of tiles along the border
+   * @param acrossX the direction across the border
+   * @param acrossY the direction across the border
+   */
+  private void findEntrances(
+      int x, int y, int alongX, int alongY, int length, int acrossX, int acrossY
+  ) {
+    int runStart = -1;
+    for (int i = 0; i <= length; i++) {
+      boolean open = i < length
+          && isPassable(x + alongX * i, y + alongY * i)
+          && isPassable(x + alongX * i + acrossX, y + alongY * i + acrossY);
+      if (open && runStart < 0) {
+        runStart = i;
+      } else if (!open && runStart >= 0) {
+        int runEnd = i - 1;
+        if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+          addTransition(x + alongX * runStart, y + alongY * runStart, acrossX, acrossY);
+          addTransition(x + alongX * runEnd, y + alongY * runEnd, acrossX, acrossY);
+        } else {
+          int middle = (runStart + runEnd) / 2;
+          addTransition(x + alongX * middle, y + alongY * middle, acrossX, acrossY);
+        }
+        runStart = -1;
+      }
+    }
+  }
+
+  private void addTransition(int x, int y, int acrossX, int acrossY) {
+    int near = nodeAt(x + y * width);
+    int far = nodeAt(x + acrossX + (y + acrossY) * width);
+    addEdge(near, far, 1);
+    addEdge(far, near, 1);
+  }
+
+  private int nodeAt(int tile) {
+    if (tileNodes[tile] < 0) {
+      if (nodeCount == nodeTiles.length) {
+        nodeTiles = Arrays.copyOf(nodeTiles, nodeCount * 2);
+      }
+      nodeTiles[nodeCount] = tile;
+      tileNodes[tile] = nodeCount++;
+    }
+    return tileNodes[tile];
+  }
+
+  /**
+   * Adds edges between every pair of nodes in the cluster that can reach each other inside it.
+   */
+  private void joinClusterNodes(int cluster) {
+    int[] nodes = clusterNodes[cluster];
+    for (int from : nodes) {
+      float[] distances = clusterDistances(nodeTiles[from]);
+      for (int to : nodes) {
+        float distance = distances[localIndex(nodeTiles[to])];
+        if (to != from && distance < Float.POSITIVE_INFINITY) {
+          addEdge(from, to, distance);
+        }
+      }
+    }
+  }
+
+  private void addEdge(int from, int to, float cost) {
+    if (edgeCount == edgeFroms.length) {
+      edgeFroms = Arrays.copyOf(edgeFroms, edgeCount * 2);
+      unsortedTargets = Arrays.copyOf(unsortedTargets, edgeCount * 2);
+      unsortedCosts = Arrays.copyOf(unsortedCosts, edgeCount * 2);
+    }
+    edgeFroms[edgeCount] = from;
+    unsortedTargets[edgeCount] = to;
+    unsortedCosts[edgeCount] = cost;
+    edgeCount++;
+  }
+
+  /**
+   * Groups the edges by the node they come from.
+   */
+  private void sortEdges() {
+    edgeStarts = new int[nodeCount + 1];
+    for (int i = 0; i < edgeCount; i++) {
+      edgeStarts[edgeFroms[i] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      edgeStarts[node + 1] += edgeStarts[node];
+    }
+    int[] next = Arrays.copyOf(edgeStarts, nodeCount);
+    edgeTargets = new int[edgeCount];
+    edgeCosts = new float[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      int slot = next[edgeFroms[i]]++;
+      edgeTargets[slot] = unsortedTargets[i];
+      edgeCosts[slot] = unsortedCosts[i];
+    }
+    edgeFroms = null;
+    unsortedTargets = null;
+    unsortedCosts = null;
+  }
+
+  /**
+   * Dijkstra from a tile to every tile of its cluster without leaving the cluster.
+   *
+   * @return the distances indexed by {@link #localIndex(int)}
+   */
+  private float[] clusterDistances(int fromTile) {
+    int cluster = clusterOf(fromTile);
+    int left = (cluster % clustersX) * clusterSize;
+    int top = (cluster / clustersX) * clusterSize;
+    int right = Math.min(width, left + clusterSize);
+    int bottom = Math.min(height, top + clusterSize);
+
+    float[] distances = new float[clusterSize * clusterSize];
+    Arrays.fill(distances, Float.POSITIVE_INFINITY);
+    distances[localIndex(fromTile)] = 0;
+    IntMinHeap open = new IntMinHeap();
+    open.push(fromTile, 0);
+    while (!open.isEmpty()) {
+      float distance = open.peekKey();
+      int tile = open.pop();
+      if (distance > distances[localIndex(tile)]) {
+        continue; // stale entry
+      }
+      int x = tile % width;
+      int y = tile / width;
+      for (int step = 0; step < STEP_X.length; step++) {
+        int nx = x + STEP_X[step];
+        int ny = y + STEP_Y[step];
+        if (nx < left || ny < top || nx >= right || ny >= bottom
+            || !canStep(x, y, STEP_X[step], STEP_Y[step])) {
+          continue;
+        }
+        int neighbour = nx + ny * width;
+        float neighbourDistance = distance + (STEP_X[step] != 0 && STEP_Y[step] != 0
+            ? SearchSpace.DIAGONAL_COST : 1);
+        if (neighbourDistance < distances[localIndex(neighbour)]) {
+          distances[localIndex(neighbour)] = neighbourDistance;
+          open.push(neighbour, neighbourDistance);
+        }
+      }
+    }
+    return distances;
+  }
+
+  /**
+   * Searches the graph for a route between the tiles containing start and end.
+   *
+   * @return the tiles of the nodes along the route, or null if there is no route
+   */
+  int[] findRoute(MapPoint start, MapPoint end) {
+    int startTile = tileAt(start);
+    int endTile = tileAt(end);
+    if (startTile < 0 || endTile < 0) {
+      return null;
+    }
+    float[] fromStart = clusterDistances(startTile);
+    float[] toEnd = clusterDistances(endTile);
+    int startCluster = clusterOf(startTile);
+    int endCluster = clusterOf(endTile);
+
+    float[] costs = new float[nodeCount];
+    Arrays.fill(costs, Float.POSITIVE_INFINITY);
+    int[] parents = new int[nodeCount];
+    boolean[] closed = new boolean[nodeCount];
+    IntMinHeap open = new IntMinHeap();
+    for (int node : clusterNodes[startCluster]) {
+      float cost = fromStart[localIndex(nodeTiles[node])];
+      if (cost < Float.POSITIVE_INFINITY) {
+        costs[node] = cost;
+        parents[node] = -1;
+        open.push(node, cost + estimate(nodeTiles[node], endTile));
+      }
+    }
+
+    int bestLast = -1;
+    float bestCost = Float.POSITIVE_INFINITY;
+    while (!open.isEmpty() && open.peekKey() < bestCost) {
+      int node = open.pop();
+      if (closed[node]) {
+        continue;
+      }
+      closed[node] = true;
+
+      if (clusterOf(nodeTiles[node]) == endCluster) {
+        float total = costs[node] + toEnd[localIndex(nodeTiles[node])];
+        if (total < bestCost) {
+          bestCost = total;
+          bestLast = node;
+        }
+      }
+
+      for (int edge = edgeStarts[node]; edge < edgeStarts[node + 1]; edge++) {
+        int neighbour = edgeTargets[edge];
+        float cost = costs[node] + edgeCosts[edge];
+        if (!closed[neighbour] && cost < costs[neighbour]) {
+          costs[neighbour] = cost;
+          parents[neighbour] = node;
+          open.push(neighbour, cost + estimate(nodeTiles[neighbour], endTile));
+        }
+      }
+    }
+
+    if (bestLast < 0) {
+      return null;
+    }
+    int length = 0;
+    for (int node = bestLast; node >= 0; node = parents[node]) {
+      length++;
+    }
+    int[] route = new int[length];
+    for (int node = bestLast; node >= 0; node = parents[node]) {
+      route[--length] = nodeTiles[node];
+    }
+    return route;
+  }
+
+  private float estimate(int tile, int endTile) {
+    return (float) Math.hypot(tile % width - endTile % width, tile / width - endTile / width);
+  }
+
+  private boolean canStep(int x, int y, int dx, int dy) {
+    if (!isPassable(x + dx, y + dy)) {
+      return false;
+    }
+    return dx == 0 || dy == 0 || isPassable(x, y + dy) || isPassable(x + dx, y);
+  }
+
+  private boolean isPassable(int x, int y) {
+    return x >= 0 && y >= 0 && x < width && y < height && passable[x + y * width];
+  }
+
+  /**
+   * The tile containing the point, or -1 if it is outside the area.
+   */
+  int tileAt(MapPoint point) {
+    int x = (int) Math.floor(point.x - originX);
+    int y = (int) Math.floor(point.y - originY);
+    if (x < 0 || y < 0 || x >= width || y >= height) {
+      return -1;
+    }
+    return x + y * width;
+  }
+
+  int clusterOf(int tile) {
+    return (tile % width) / clusterSize + (tile / width) / clusterSize * clustersX;
+  }
+
+  private int localIndex(int tile) {
+    return (tile % width) % clusterSize + (tile / width) % clusterSize * clusterSize;
+  }
+
+  /**
+   * The centre of a tile.
+   */
+  MapPoint centreOf(int tile) {
+    return new MapPoint(tileX(tile), tileY(tile));
+  }
+
+  private double tileX(int tile) {
+    return originX + tile % width + 0.5;
+  }
+
+  private double tileY(int tile) {
+    return originY + tile / width + 0.5;
+  }
+}
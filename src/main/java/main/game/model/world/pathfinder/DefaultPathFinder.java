@@ -1,9 +1,7 @@
 package main.game.model.world.pathfinder;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.Stack;
@@ -86,8 +84,6 @@ public class DefaultPathFinder implements PathFinder, Serializable {
         if (!visited.contains(neigh)) {
           double costToNeigh = tuple.getCostFromStart() + tuple.getPoint().distanceTo(neigh);
           double estTotal = costToNeigh + neigh.distanceTo(end);
-          List<MapPoint> neighPath = new ArrayList<>(tuple.getPath());
-          neighPath.add(neigh);
           fringe.add(
               new AStarNode(neigh, tuple, costToNeigh, estTotal));
         }
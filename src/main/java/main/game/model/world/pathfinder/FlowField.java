@@ -0,0 +1,164 @@
+package main.game.model.world.pathfinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * The direction to move in from every point of an area to get to one destination, found with a
+ * single Dijkstra pass outwards from the destination. Any number of units going to the same place
+ * can follow the field without searching.
+ *
+ * <p>
+ * The field is a lattice of points one tile apart anchored on the centre of the destination tile
+ * and uses the same moves as {@link DefaultPathFinder} (including the rule for diagonal moves past
+ * corners), so units following it take the same kind of paths as units following an A* path.
+ * </p>
+ */
+public final class FlowField {
+
+  private static final int[] STEP_X = {-1, 0, 1, -1, 1, -1, 0, 1};
+  private static final int[] STEP_Y = {-1, -1, -1, 0, 0, 1, 1, 1};
+  private static final byte NO_STEP = -1;
+
+  private final double originX;
+  private final double originY;
+  private final int columns;
+  private final int rows;
+  private final int destinationIndex;
+  private final boolean[] passable;
+  private final float[] distances;
+  /** Index into STEP_X/STEP_Y of the move towards the destination, or NO_STEP. */
+  private final byte[] steps;
+
+  /**
+   * Builds the field for the tile containing the destination.
+   */
+  public FlowField(PassableArea area, MapPoint destination) {
+    MapRect bounds = area.getBounds();
+    double anchorX = Math.floor(destination.x) + 0.5;
+    double anchorY = Math.floor(destination.y) + 0.5;
+    int destinationColumn = (int) Math.floor(anchorX - Math.min(bounds.topLeft.x, anchorX));
+    int destinationRow = (int) Math.floor(anchorY - Math.min(bounds.topLeft.y, anchorY));
+    this.originX = anchorX - destinationColumn;
+    this.originY = anchorY - destinationRow;
+    this.columns =
+        destinationColumn + (int) Math.floor(Math.max(bounds.bottomRight.x, anchorX) - anchorX) + 1;
+    this.rows =
+        destinationRow + (int) Math.floor(Math.max(bounds.bottomRight.y, anchorY) - anchorY) + 1;
+    this.destinationIndex = destinationColumn + destinationRow * columns;
+
+    int size = columns * rows;
+    this.passable = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      passable[i] = area.isPassable(x(i), y(i));
+    }
+    this.distances = new float[size];
+    this.steps = new byte[size];
+    integrate();
+  }
+
+  /**
+   * Dijkstra from the destination. A point's step is the move that reaches its parent.
+   */
+  private void integrate() {
+    Arrays.fill(distances, Float.POSITIVE_INFINITY);
+    Arrays.fill(steps, NO_STEP);
+    distances[destinationIndex] = 0;
+
+    IntMinHeap open = new IntMinHeap();
+    open.push(destinationIndex, 0);
+    while (!open.isEmpty()) {
+      float distance = open.peekKey();
+      int current = open.pop();
+      if (distance > distances[current]) {
+        continue; // stale entry
+      }
+      int column = current % columns;
+      int row = current / columns;
+      for (int step = 0; step < STEP_X.length; step++) {
+        int fromColumn = column - STEP_X[step];
+        int fromRow = row - STEP_Y[step];
+        if (!canStep(fromColumn, fromRow, STEP_X[step], STEP_Y[step])) {
+          continue;
+        }
+        int from = fromColumn + fromRow * columns;
+        float fromDistance = distance + (STEP_X[step] != 0 && STEP_Y[step] != 0
+            ? SearchSpace.DIAGONAL_COST : 1);
+        if (fromDistance < distances[from]) {
+          distances[from] = fromDistance;
+          steps[from] = (byte) step;
+          open.push(from, fromDistance);
+        }
+      }
+    }
+  }
+
+  /**
+   * Whether a unit at a passable point can step to the neighbouring point, see {@link
+   * SearchSpace#canStep(int, int, int, int)}.
+   */
+  private boolean canStep(int column, int row, int dx, int dy) {
+    if (!isPassable(column, row) || !isPassable(column + dx, row + dy)) {
+      return false;
+    }
+    return dx == 0 || dy == 0 || isPassable(column, row + dy) || isPassable(column + dx, row);
+  }
+
+  private boolean isPassable(int column, int row) {
+    return column >= 0 && row >= 0 && column < columns && row < rows
+        && passable[column + row * columns];
+  }
+
+  private double x(int index) {
+    return originX + index % columns;
+  }
+
+  private double y(int index) {
+    return originY + index / columns;
+  }
+
+  /**
+   * Follows the field from the lattice point nearest to the start. If that point can't reach the
+   * destination the best of its neighbours is used instead.
+   *
+   * @return the waypoints to the destination, ending with the destination itself, or an empty list
+   *     if the destination can't be reached from the start
+   */
+  public List<MapPoint> tracePath(MapPoint start, MapPoint destination) {
+    int column = (int) Math.round(start.x - originX);
+    int row = (int) Math.round(start.y - originY);
+    int current = -1;
+    float best = Float.POSITIVE_INFINITY;
+    for (int dy = -1; dy <= 1; dy++) {
+      for (int dx = -1; dx <= 1; dx++) {
+        int c = column + dx;
+        int r = row + dy;
+        if (c < 0 || r < 0 || c >= columns || r >= rows) {
+          continue;
+        }
+        int index = c + r * columns;
+        // Prefer the nearest point over a cheaper neighbour
+        float distance = distances[index] + (dx == 0 && dy == 0 ? 0 : columns * rows);
+        if (distance < best) {
+          best = distance;
+          current = index;
+        }
+      }
+    }
+
+    List<MapPoint> path = new ArrayList<>();
+    if (current < 0) {
+      return path;
+    }
+    while (current != destinationIndex) {
+      path.add(new MapPoint(x(current), y(current)));
+      int step = steps[current];
+      current += STEP_X[step] + STEP_Y[step] * columns;
+    }
+    path.add(destination);
+    return path;
+  }
+}
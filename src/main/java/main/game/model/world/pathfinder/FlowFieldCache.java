@@ -0,0 +1,48 @@
+package main.game.model.world.pathfinder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import main.util.MapPoint;
+
+/**
+ * Keeps the {@link FlowField}s of the most recently used destination tiles of one area, so a group
+ * of units sent to the same place shares one field. The least recently used field is evicted once
+ * there are more than the capacity.
+ */
+public class FlowFieldCache {
+
+  private final PassableArea area;
+  private final Map<Long, FlowField> fields;
+
+  /**
+   * Creates an empty cache for fields over the area.
+   *
+   * @param capacity the most fields to keep
+   */
+  public FlowFieldCache(PassableArea area, int capacity) {
+    this.area = area;
+    this.fields = new LinkedHashMap<Long, FlowField>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, FlowField> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Gets the field for the tile containing the destination, building it if it isn't cached.
+   */
+  public synchronized FlowField get(MapPoint destination) {
+    long key = ((long) (int) Math.floor(destination.x) << 32)
+        | ((int) Math.floor(destination.y) & 0xFFFFFFFFL);
+    return fields.computeIfAbsent(key, k -> new FlowField(area, destination));
+  }
+
+  /**
+   * Finds a path by following the field of the destination.
+   */
+  public List<MapPoint> findPath(MapPoint start, MapPoint destination) {
+    return get(destination).tracePath(start, destination);
+  }
+}
@@ -0,0 +1,65 @@
+package main.game.model.world.pathfinder;
+
+import static main.game.model.world.pathfinder.PathFinderAssert.assertPathsMatchDefault;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import main.util.MapPoint;
+import org.junit.Test;
+
+public class FlowFieldTest {
+
+  @Test
+  public void testOpenMap_sameLengthAsDefault() {
+    GridArea area = GridArea.open(32, new Random(1));
+    assertPathsMatchDefault(
+        area, (start, end) -> new FlowField(area, end).tracePath(start, end), 1, 50, 2
+    );
+  }
+
+  @Test
+  public void testMaze_sameLengthAsDefault() {
+    GridArea area = GridArea.maze(32, new Random(3));
+    assertPathsMatchDefault(
+        area, (start, end) -> new FlowField(area, end).tracePath(start, end), 1, 50, 4
+    );
+  }
+
+  @Test
+  public void testOneField_servesEveryStart() {
+    GridArea area = GridArea.open(32, new Random(5));
+    Random random = new Random(6);
+    MapPoint end = area.randomOpenPoint(random);
+    FlowField field = new FlowField(area, end);
+    for (int i = 0; i < 50; i++) {
+      MapPoint start = area.randomOpenPoint(random);
+      List<MapPoint> expected = new DefaultPathFinder().findPath(area, start, end, 0);
+      List<MapPoint> actual = field.tracePath(start, end);
+      assertEquals(GridArea.reaches(expected, end), GridArea.reaches(actual, end));
+      if (GridArea.reaches(expected, end)) {
+        assertTrue(area.isValidPath(start, actual));
+        assertEquals(
+            GridArea.length(start, expected), GridArea.length(start, actual), 1e-3
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testStartAtDestination_endsAtDestination() {
+    GridArea area = GridArea.open(32, new Random(7));
+    MapPoint end = area.randomOpenPoint(new Random(8));
+    assertEquals(Arrays.asList(end), new FlowField(area, end).tracePath(end, end));
+  }
+
+  @Test
+  public void testUnreachableDestination_givesEmptyPath() {
+    GridArea area = GridArea.maze(9, new Random(9));
+    // The outer wall of a maze is never opened
+    MapPoint end = new MapPoint(0.5, 0.5);
+    assertTrue(new FlowField(area, end).tracePath(new MapPoint(7.5, 7.5), end).isEmpty());
+  }
+}
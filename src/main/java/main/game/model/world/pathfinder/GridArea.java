@@ -0,0 +1,165 @@
+package main.game.model.world.pathfinder;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * A square map of whole tiles that are either open or blocked, for comparing the path finders
+ * with each other (see {@link PathFinderBenchmark} and the path finder tests).
+ */
+class GridArea implements PassableArea {
+
+  private final String name;
+  private final int size;
+  private final boolean[][] blocked;
+  private final MapRect bounds;
+
+  private GridArea(String name, int size) {
+    this.name = name;
+    this.size = size;
+    this.blocked = new boolean[size][size];
+    this.bounds = new MapRect(0, 0, size - 0.001, size - 0.001);
+  }
+
+  /**
+   * A mostly open map with some rectangular obstacles, like the trees and rocks of a level.
+   */
+  static GridArea open(int size, Random random) {
+    GridArea area = new GridArea("open", size);
+    for (int i = 0; i < size / 2; i++) {
+      int left = random.nextInt(size);
+      int top = random.nextInt(size);
+      int right = Math.min(size, left + 1 + random.nextInt(6));
+      int bottom = Math.min(size, top + 1 + random.nextInt(6));
+      for (int x = left; x < right; x++) {
+        Arrays.fill(area.blocked[x], top, bottom, true);
+      }
+    }
+    return area;
+  }
+
+  /**
+   * A maze of one tile wide corridors made with a randomised depth first search.
+   */
+  static GridArea maze(int size, Random random) {
+    GridArea area = new GridArea("maze", size);
+    for (boolean[] column : area.blocked) {
+      Arrays.fill(column, true);
+    }
+    Deque<int[]> stack = new ArrayDeque<>();
+    area.blocked[1][1] = false;
+    stack.push(new int[]{1, 1});
+    int[][] directions = {{2, 0}, {-2, 0}, {0, 2}, {0, -2}};
+    while (!stack.isEmpty()) {
+      int[] cell = stack.peek();
+      int start = random.nextInt(directions.length);
+      boolean moved = false;
+      for (int i = 0; i < directions.length && !moved; i++) {
+        int[] direction = directions[(start + i) % directions.length];
+        int x = cell[0] + direction[0];
+        int y = cell[1] + direction[1];
+        if (x > 0 && y > 0 && x < size - 1 && y < size - 1 && area.blocked[x][y]) {
+          area.blocked[cell[0] + direction[0] / 2][cell[1] + direction[1] / 2] = false;
+          area.blocked[x][y] = false;
+          stack.push(new int[]{x, y});
+          moved = true;
+        }
+      }
+      if (!moved) {
+        stack.pop();
+      }
+    }
+    return area;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean isPassable(double x, double y) {
+    return bounds.contains(x, y) && !blocked[(int) x][(int) y];
+  }
+
+  @Override
+  public MapRect getBounds() {
+    return bounds;
+  }
+
+  /**
+   * The centre of a random open tile.
+   */
+  MapPoint randomOpenPoint(Random random) {
+    while (true) {
+      int x = random.nextInt(size);
+      int y = random.nextInt(size);
+      if (!blocked[x][y]) {
+        return new MapPoint(x + 0.5, y + 0.5);
+      }
+    }
+  }
+
+  /**
+   * Pairs of random open points to find paths between.
+   */
+  MapPoint[][] randomSearches(int count, Random random) {
+    MapPoint[][] searches = new MapPoint[count][];
+    for (int i = 0; i < count; i++) {
+      searches[i] = new MapPoint[]{randomOpenPoint(random), randomOpenPoint(random)};
+    }
+    return searches;
+  }
+
+  /**
+   * Whether every step of the path is a move that {@link DefaultPathFinder} could make: to a
+   * passable neighbouring lattice point, diagonally only if one of the two sides is passable. The
+   * last step may go to anywhere in the tile it is in.
+   */
+  boolean isValidPath(MapPoint start, List<MapPoint> path) {
+    MapPoint from = start;
+    for (int i = 0; i < path.size(); i++) {
+      MapPoint to = path.get(i);
+      if (i == path.size() - 1 && (int) to.x == (int) from.x && (int) to.y == (int) from.y) {
+        return isPassable(to.x, to.y);
+      }
+      double dx = to.x - from.x;
+      double dy = to.y - from.y;
+      if (Math.abs(Math.abs(dx) - Math.round(Math.abs(dx))) > 1e-9
+          || Math.abs(Math.abs(dy) - Math.round(Math.abs(dy))) > 1e-9
+          || Math.abs(dx) > 1 || Math.abs(dy) > 1 || !isPassable(to.x, to.y)) {
+        return false;
+      }
+      if (dx != 0 && dy != 0
+          && !isPassable(from.x + dx, from.y) && !isPassable(from.x, from.y + dy)) {
+        return false;
+      }
+      from = to;
+    }
+    return true;
+  }
+
+  /**
+   * The length of the path from the start through every point.
+   */
+  static double length(MapPoint start, List<MapPoint> path) {
+    double length = 0;
+    MapPoint from = start;
+    for (MapPoint to : path) {
+      length += from.distanceTo(to);
+      from = to;
+    }
+    return length;
+  }
+
+  /**
+   * Whether the path ends at the end.
+   */
+  static boolean reaches(List<MapPoint> path, MapPoint end) {
+    return !path.isEmpty() && path.get(path.size() - 1).equals(end);
+  }
+}
@@ -0,0 +1,167 @@
+package main.game.model.world.pathfinder;
+
+import java.io.Serializable;
+import java.util.Stack;
+import java.util.function.Function;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * An A* path finder that finds the same kind of paths as {@link DefaultPathFinder} but works on
+ * int indices of a lattice instead of {@link MapPoint}s. The open set is a primitive binary heap
+ * and the closed set, costs and parents are generation stamped arrays that are reused by every
+ * search on the same thread, so a search does not create any garbage apart from the returned path.
+ */
+public class GridPathFinder implements PathFinder, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int SEARCH_LIMIT = 200;
+
+  /**
+   * How far past the start and end to search when only given a passability function, which has no
+   * bounds.
+   */
+  private static final double UNBOUNDED_SEARCH_PADDING = 32;
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable, MapPoint start, MapPoint end
+  ) {
+    return findPath(isPassable, start, end, 0);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable,
+      MapPoint start,
+      MapPoint end,
+      double acceptableDistanceFromEnd
+  ) {
+    MapRect bounds = new MapRect(start, end);
+    MapRect searchBounds = new MapRect(
+        bounds.x() - UNBOUNDED_SEARCH_PADDING,
+        bounds.y() - UNBOUNDED_SEARCH_PADDING,
+        bounds.getWidth() + UNBOUNDED_SEARCH_PADDING * 2,
+        bounds.getHeight() + UNBOUNDED_SEARCH_PADDING * 2
+    );
+    PassableArea area = new PassableArea() {
+      @Override
+      public boolean isPassable(double x, double y) {
+        return searchBounds.contains(x, y) && isPassable.apply(new MapPoint(x, y));
+      }
+
+      @Override
+      public MapRect getBounds() {
+        return searchBounds;
+      }
+    };
+    return findPath(area, start, end, acceptableDistanceFromEnd);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      PassableArea area, MapPoint start, MapPoint end, double acceptableDistanceFromEnd
+  ) {
+    SearchSpace space = SearchSpace.forCurrentThread();
+    boolean reachedEnd = search(space, area, start, end, acceptableDistanceFromEnd);
+
+    Stack<MapPoint> path = new Stack<>();
+    for (int i = 0; i < space.pathLength(); i++) {
+      int index = space.pathAt(i);
+      path.push(new MapPoint(space.x(index), space.y(index)));
+    }
+    // Same as DefaultPathFinder: make sure the units can get more exact destinations
+    if (reachedEnd && !path.isEmpty()) {
+      path.pop();
+      path.push(end);
+    }
+    return path;
+  }
+
+  /**
+   * Runs A* and leaves the path in the search space.
+   *
+   * @return whether the path ends in the same tile as the end
+   */
+  static boolean search(
+      SearchSpace space,
+      PassableArea area,
+      MapPoint start,
+      MapPoint end,
+      double acceptableDistanceFromEnd
+  ) {
+    int startIndex = space.prepare(area, start);
+    double costLimit = Math.max(start.distanceTo(end) * 3, SEARCH_LIMIT);
+    int endTileX = (int) end.x;
+    int endTileY = (int) end.y;
+
+    space.setCost(startIndex, 0, -1);
+    space.open.push(startIndex, (float) start.distanceTo(end));
+
+    int best = -1;
+    double bestEstimate = Double.POSITIVE_INFINITY;
+
+    while (!space.open.isEmpty()) {
+      int current = space.open.pop();
+      if (space.isClosed(current)) {
+        continue;
+      }
+      space.close(current);
+
+      double x = space.x(current);
+      double y = space.y(current);
+      double estimate = Math.hypot(x - end.x, y - end.y);
+      if (estimate < bestEstimate) {
+        best = current;
+        bestEstimate = estimate;
+      }
+
+      // stop finding a path if we have explored too many nodes
+      if (space.cost(current) > costLimit) {
+        break;
+      }
+
+      if ((int) x == endTileX && (int) y == endTileY) {
+        space.tracePath(current);
+        return true;
+      }
+
+      if (estimate < acceptableDistanceFromEnd) {
+        space.tracePath(current);
+        return false;
+      }
+
+      expand(space, current, end);
+    }
+
+    if (best >= 0) {
+      space.tracePath(best);
+    }
+    return false;
+  }
+
+  private static void expand(SearchSpace space, int current, MapPoint end) {
+    int column = space.column(current);
+    int row = space.row(current);
+    float cost = space.cost(current);
+    for (int dy = -1; dy <= 1; dy++) {
+      for (int dx = -1; dx <= 1; dx++) {
+        if ((dx == 0 && dy == 0) || !space.canStep(column, row, dx, dy)) {
+          continue;
+        }
+        int neighbour = space.index(column + dx, row + dy);
+        if (space.isClosed(neighbour)) {
+          continue;
+        }
+        float neighbourCost = cost + (dx != 0 && dy != 0 ? SearchSpace.DIAGONAL_COST : 1);
+        if (space.hasCost(neighbour) && space.cost(neighbour) <= neighbourCost) {
+          continue;
+        }
+        space.setCost(neighbour, neighbourCost, current);
+        double estimate = Math.hypot(space.x(neighbour) - end.x, space.y(neighbour) - end.y);
+        space.open.push(neighbour, (float) (neighbourCost + estimate));
+      }
+    }
+  }
+}
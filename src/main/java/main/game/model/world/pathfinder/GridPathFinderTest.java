@@ -0,0 +1,43 @@
+package main.game.model.world.pathfinder;
+
+import static main.game.model.world.pathfinder.PathFinderAssert.assertPathsMatchDefault;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import main.util.MapPoint;
+import org.junit.Test;
+
+public class GridPathFinderTest {
+
+  @Test
+  public void testOpenMap_sameLengthAsDefault() {
+    GridArea area = GridArea.open(32, new Random(1));
+    assertPathsMatchDefault(area, new GridPathFinder(), 1, 50, 2);
+  }
+
+  @Test
+  public void testMaze_sameLengthAsDefault() {
+    GridArea area = GridArea.maze(32, new Random(3));
+    assertPathsMatchDefault(area, new GridPathFinder(), 1, 50, 4);
+  }
+
+  @Test
+  public void testFunctionOverload_sameLengthAsDefault() {
+    GridArea area = GridArea.open(32, new Random(5));
+    PathFinder pathFinder = new GridPathFinder();
+    assertPathsMatchDefault(
+        area,
+        (start, end) -> pathFinder.findPath(point -> area.isPassable(point.x, point.y), start, end),
+        1, 50, 6
+    );
+  }
+
+  @Test
+  public void testWalledOffEnd_isNotReached() {
+    GridArea area = GridArea.maze(9, new Random(7));
+    MapPoint start = new MapPoint(1.5, 1.5);
+    // The outer wall of a maze is never opened
+    MapPoint end = new MapPoint(0.5, 0.5);
+    assertTrue(!GridArea.reaches(new GridPathFinder().findPath(area, start, end, 0), end));
+  }
+}
@@ -0,0 +1,114 @@
+package main.game.model.world.pathfinder;
+
+import java.io.Serializable;
+import java.util.Stack;
+import java.util.function.Function;
+import main.util.MapPoint;
+
+/**
+ * A hierarchical (HPA*) path finder for large maps. When an area is precomputed it is split into
+ * clusters of {@link #CLUSTER_SIZE} tiles with precomputed entrances and distances between them
+ * (see {@link ClusterGraph}). Long paths are found by searching that small graph first and then
+ * refining each leg of the route with a {@link GridPathFinder}, so they don't hit the search limit
+ * that a single A* search over the whole map would.
+ *
+ * <p>
+ * Short paths, and paths through areas that haven't been precomputed, are found directly with the
+ * {@link GridPathFinder}.
+ * </p>
+ */
+public class HierarchicalPathFinder implements PathFinder, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Number of tiles along a side of a cluster.
+   */
+  public static final int CLUSTER_SIZE = 16;
+
+  private final GridPathFinder localPathFinder = new GridPathFinder();
+
+  /** The graph of the last precomputed area. Rebuilt when the world is loaded. */
+  private transient volatile ClusterGraph graph;
+
+  @Override
+  public void precompute(PassableArea area) {
+    this.graph = new ClusterGraph(area, CLUSTER_SIZE);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable, MapPoint start, MapPoint end
+  ) {
+    return localPathFinder.findPath(isPassable, start, end);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable,
+      MapPoint start,
+      MapPoint end,
+      double acceptableDistanceFromEnd
+  ) {
+    return localPathFinder.findPath(isPassable, start, end, acceptableDistanceFromEnd);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      PassableArea area, MapPoint start, MapPoint end, double acceptableDistanceFromEnd
+  ) {
+    ClusterGraph graph = this.graph;
+    if (graph == null || graph.area != area || start.distanceTo(end) < CLUSTER_SIZE) {
+      return localPathFinder.findPath(area, start, end, acceptableDistanceFromEnd);
+    }
+    int startTile = graph.tileAt(start);
+    int endTile = graph.tileAt(end);
+    if (startTile < 0 || endTile < 0 || graph.clusterOf(startTile) == graph.clusterOf(endTile)) {
+      return localPathFinder.findPath(area, start, end, acceptableDistanceFromEnd);
+    }
+
+    int[] route = graph.findRoute(start, end);
+    if (route == null) {
+      // Unreachable, so get as close as the normal search can
+      return localPathFinder.findPath(area, start, end, acceptableDistanceFromEnd);
+    }
+
+    Stack<MapPoint> path = new Stack<>();
+    MapPoint legStart = start;
+    for (int tile : route) {
+      MapPoint legEnd = graph.centreOf(tile);
+      if (!appendLeg(area, path, legStart, legEnd)) {
+        return localPathFinder.findPath(area, start, end, acceptableDistanceFromEnd);
+      }
+      if (!path.isEmpty()) {
+        legStart = path.peek();
+      }
+    }
+    if (legStart.isSimilar(end)) {
+      // The route ended in the end's tile
+      path.push(end);
+    } else {
+      path.addAll(localPathFinder.findPath(area, legStart, end, acceptableDistanceFromEnd));
+    }
+    return path;
+  }
+
+  /**
+   * Refines one leg of the route and adds it to the path.
+   *
+   * @return whether the leg got to its end
+   */
+  private boolean appendLeg(
+      PassableArea area, Stack<MapPoint> path, MapPoint legStart, MapPoint legEnd
+  ) {
+    if (legStart.isSimilar(legEnd)) {
+      return true;
+    }
+    Stack<MapPoint> leg = localPathFinder.findPath(area, legStart, legEnd, 0);
+    if (leg.isEmpty() || !leg.peek().equals(legEnd)) {
+      return false;
+    }
+    path.addAll(leg);
+    return true;
+  }
+}
@@ -0,0 +1,43 @@
+package main.game.model.world.pathfinder;
+
+import static main.game.model.world.pathfinder.PathFinderAssert.assertPathsMatchDefault;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class HierarchicalPathFinderTest {
+
+  /**
+   * Paths through the cluster graph go through the cluster entrances, so they can be a bit longer.
+   */
+  private static final double MAX_STRETCH = 1.25;
+
+  /**
+   * Big enough for several clusters, so that most searches use the cluster graph.
+   */
+  private static final int MAP_SIZE = 3 * HierarchicalPathFinder.CLUSTER_SIZE;
+
+  private static HierarchicalPathFinder precomputed(GridArea area) {
+    HierarchicalPathFinder pathFinder = new HierarchicalPathFinder();
+    pathFinder.precompute(area);
+    return pathFinder;
+  }
+
+  @Test
+  public void testOpenMap_nearlyAsShortAsDefault() {
+    GridArea area = GridArea.open(MAP_SIZE, new Random(1));
+    assertPathsMatchDefault(area, precomputed(area), MAX_STRETCH, 50, 2);
+  }
+
+  @Test
+  public void testMaze_nearlyAsShortAsDefault() {
+    GridArea area = GridArea.maze(MAP_SIZE, new Random(3));
+    assertPathsMatchDefault(area, precomputed(area), MAX_STRETCH, 50, 4);
+  }
+
+  @Test
+  public void testNotPrecomputed_sameLengthAsDefault() {
+    GridArea area = GridArea.open(MAP_SIZE, new Random(5));
+    assertPathsMatchDefault(area, new HierarchicalPathFinder(), 1, 50, 6);
+  }
+}
@@ -0,0 +1,83 @@
+package main.game.model.world.pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int values ordered by float keys, stored in parallel primitive arrays so
+ * pushing and popping never allocates (apart from growing). Used as the open set of the grid
+ * searches.
+ */
+final class IntMinHeap {
+
+  private int[] values = new int[256];
+  private float[] keys = new float[256];
+  private int size = 0;
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  /**
+   * The key of the smallest value. Undefined if the heap is empty.
+   */
+  float peekKey() {
+    return keys[0];
+  }
+
+  /**
+   * Adds the value. Values may be added more than once.
+   */
+  void push(int value, float key) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+    int child = size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      values[child] = values[parent];
+      keys[child] = keys[parent];
+      child = parent;
+    }
+    values[child] = value;
+    keys[child] = key;
+  }
+
+  /**
+   * Removes and returns the value with the smallest key.
+   */
+  int pop() {
+    int top = values[0];
+    size--;
+    if (size > 0) {
+      int lastValue = values[size];
+      float lastKey = keys[size];
+      int parent = 0;
+      while (true) {
+        int child = parent * 2 + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (keys[child] >= lastKey) {
+          break;
+        }
+        values[parent] = values[child];
+        keys[parent] = keys[child];
+        parent = child;
+      }
+      values[parent] = lastValue;
+      keys[parent] = lastKey;
+    }
+    return top;
+  }
+}
@@ -0,0 +1,99 @@
+package main.game.model.world.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class IntMinHeapTest {
+
+  @Test
+  public void testNewHeap_isEmpty() {
+    assertTrue(new IntMinHeap().isEmpty());
+  }
+
+  @Test
+  public void testPop_returnsValuesInKeyOrder() {
+    IntMinHeap heap = new IntMinHeap();
+    heap.push(1, 3f);
+    heap.push(2, 1f);
+    heap.push(3, 2f);
+
+    assertEquals(1f, heap.peekKey(), 0);
+    assertEquals(2, heap.pop());
+    assertEquals(2f, heap.peekKey(), 0);
+    assertEquals(3, heap.pop());
+    assertEquals(1, heap.pop());
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void testDuplicateValues_arePoppedOncePerPush() {
+    IntMinHeap heap = new IntMinHeap();
+    heap.push(7, 5f);
+    heap.push(7, 2f);
+
+    assertEquals(2f, heap.peekKey(), 0);
+    assertEquals(7, heap.pop());
+    assertEquals(5f, heap.peekKey(), 0);
+    assertEquals(7, heap.pop());
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void testManyPushes_growAndStaySorted() {
+    Random random = new Random(1);
+    IntMinHeap heap = new IntMinHeap();
+    float[] keys = new float[1000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextFloat() * 100;
+      heap.push(i, keys[i]);
+    }
+    float[] sortedKeys = keys.clone();
+    Arrays.sort(sortedKeys);
+
+    for (float expectedKey : sortedKeys) {
+      assertFalse(heap.isEmpty());
+      assertEquals(expectedKey, heap.peekKey(), 0);
+      assertEquals(expectedKey, keys[heap.pop()], 0);
+    }
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void testInterleavedPushesAndPops_stayOrdered() {
+    Random random = new Random(2);
+    IntMinHeap heap = new IntMinHeap();
+    float[] keys = new float[500];
+    int pushed = 0;
+    float lastPopped = Float.NEGATIVE_INFINITY;
+    while (pushed < keys.length || !heap.isEmpty()) {
+      if (pushed < keys.length && (heap.isEmpty() || random.nextBoolean())) {
+        // Never less than what has been popped, like the keys of a Dijkstra search
+        keys[pushed] = lastPopped + random.nextFloat() * 10;
+        heap.push(pushed, keys[pushed]);
+        pushed++;
+      } else {
+        float key = keys[heap.pop()];
+        assertTrue(key >= lastPopped);
+        lastPopped = key;
+      }
+    }
+  }
+
+  @Test
+  public void testClear_emptiesTheHeap() {
+    IntMinHeap heap = new IntMinHeap();
+    heap.push(1, 1f);
+    heap.push(2, 2f);
+    heap.clear();
+
+    assertTrue(heap.isEmpty());
+    heap.push(3, 3f);
+    assertEquals(3, heap.pop());
+    assertTrue(heap.isEmpty());
+  }
+}
@@ -0,0 +1,269 @@
+package main.game.model.world.pathfinder;
+
+import java.io.Serializable;
+import java.util.Stack;
+import java.util.function.Function;
+import main.util.MapPoint;
+
+/**
+ * A Jump Point Search path finder. On a grid where every move costs the same, most of the nodes
+ * that A* expands are on one of many equally short paths. Jump Point Search only expands the
+ * points where the shortest path might have to turn (next to the corner of an obstacle) and jumps
+ * straight over the rest.
+ *
+ * <p>
+ * Uses the same lattice, corner rule and end handling as {@link GridPathFinder}, so it finds paths
+ * as short as A* and the returned path still has a point for every tile, but it expands far fewer
+ * nodes in open areas.
+ * </p>
+ */
+public class JumpPointPathFinder implements PathFinder, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int SEARCH_LIMIT = 200;
+
+  private final GridPathFinder fallback = new GridPathFinder();
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable, MapPoint start, MapPoint end
+  ) {
+    return fallback.findPath(isPassable, start, end);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      Function<MapPoint, Boolean> isPassable,
+      MapPoint start,
+      MapPoint end,
+      double acceptableDistanceFromEnd
+  ) {
+    return fallback.findPath(isPassable, start, end, acceptableDistanceFromEnd);
+  }
+
+  @Override
+  public Stack<MapPoint> findPath(
+      PassableArea area, MapPoint start, MapPoint end, double acceptableDistanceFromEnd
+  ) {
+    SearchSpace space = SearchSpace.forCurrentThread();
+    boolean reachedEnd = new Search(space, area, start, end).run(acceptableDistanceFromEnd);
+
+    // Fill in the points that were jumped over
+    Stack<MapPoint> path = new Stack<>();
+    int previous = space.startIndex();
+    for (int i = 0; i < space.pathLength(); i++) {
+      int jumpPoint = space.pathAt(i);
+      int dx = Integer.signum(space.column(jumpPoint) - space.column(previous));
+      int dy = Integer.signum(space.row(jumpPoint) - space.row(previous));
+      int column = space.column(previous);
+      int row = space.row(previous);
+      do {
+        column += dx;
+        row += dy;
+        int index = space.index(column, row);
+        path.push(new MapPoint(space.x(index), space.y(index)));
+      } while (space.index(column, row) != jumpPoint);
+      previous = jumpPoint;
+    }
+    // Same as DefaultPathFinder: make sure the units can get more exact destinations
+    if (reachedEnd && !path.isEmpty()) {
+      path.pop();
+      path.push(end);
+    }
+    return path;
+  }
+
+  /**
+   * The state of one search.
+   */
+  private static class Search {
+
+    private final SearchSpace space;
+    private final MapPoint end;
+    private final int startIndex;
+    private final double costLimit;
+    private final int goalColumn;
+    private final int goalRow;
+
+    Search(SearchSpace space, PassableArea area, MapPoint start, MapPoint end) {
+      this.space = space;
+      this.end = end;
+      this.startIndex = space.prepare(area, start);
+      this.costLimit = Math.max(start.distanceTo(end) * 3, SEARCH_LIMIT);
+      // The only lattice point in the same tile as the end
+      double originX = space.x(startIndex) - space.column(startIndex);
+      double originY = space.y(startIndex) - space.row(startIndex);
+      this.goalColumn = (int) Math.ceil(Math.floor(end.x) - originX);
+      this.goalRow = (int) Math.ceil(Math.floor(end.y) - originY);
+    }
+
+    /**
+     * Runs the search and leaves the jump points of the path in the search space.
+     *
+     * @return whether the path ends in the same tile as the end
+     */
+    boolean run(double acceptableDistanceFromEnd) {
+      space.setCost(startIndex, 0, -1);
+      space.open.push(startIndex, (float) estimate(startIndex));
+
+      int best = -1;
+      double bestEstimate = Double.POSITIVE_INFINITY;
+
+      while (!space.open.isEmpty()) {
+        int current = space.open.pop();
+        if (space.isClosed(current)) {
+          continue;
+        }
+        space.close(current);
+
+        double estimate = estimate(current);
+        if (estimate < bestEstimate) {
+          best = current;
+          bestEstimate = estimate;
+        }
+
+        // stop finding a path if we have explored too much
+        if (space.cost(current) > costLimit) {
+          break;
+        }
+
+        if (isGoal(space.column(current), space.row(current))) {
+          space.tracePath(current);
+          return true;
+        }
+
+        if (estimate < acceptableDistanceFromEnd) {
+          space.tracePath(current);
+          return false;
+        }
+
+        expand(current);
+      }
+
+      if (best >= 0) {
+        space.tracePath(best);
+      }
+      return false;
+    }
+
+    /**
+     * Jumps in each direction that a shortest path through the point could continue in.
+     */
+    private void expand(int current) {
+      int column = space.column(current);
+      int row = space.row(current);
+      int parent = space.parent(current);
+      if (parent < 0) {
+        for (int dy = -1; dy <= 1; dy++) {
+          for (int dx = -1; dx <= 1; dx++) {
+            if (dx != 0 || dy != 0) {
+              jumpFrom(current, dx, dy);
+            }
+          }
+        }
+        return;
+      }
+
+      int dx = Integer.signum(column - space.column(parent));
+      int dy = Integer.signum(row - space.row(parent));
+      if (dx != 0 && dy != 0) {
+        jumpFrom(current, dx, 0);
+        jumpFrom(current, 0, dy);
+        jumpFrom(current, dx, dy);
+        // forced neighbours
+        if (!isPassable(column - dx, row)) {
+          jumpFrom(current, -dx, dy);
+        }
+        if (!isPassable(column, row - dy)) {
+          jumpFrom(current, dx, -dy);
+        }
+      } else if (dx != 0) {
+        jumpFrom(current, dx, 0);
+        if (!isPassable(column, row + 1)) {
+          jumpFrom(current, dx, 1);
+        }
+        if (!isPassable(column, row - 1)) {
+          jumpFrom(current, dx, -1);
+        }
+      } else {
+        jumpFrom(current, 0, dy);
+        if (!isPassable(column + 1, row)) {
+          jumpFrom(current, 1, dy);
+        }
+        if (!isPassable(column - 1, row)) {
+          jumpFrom(current, -1, dy);
+        }
+      }
+    }
+
+    private void jumpFrom(int current, int dx, int dy) {
+      int jumpPoint = jump(space.column(current), space.row(current), dx, dy);
+      if (jumpPoint < 0 || space.isClosed(jumpPoint)) {
+        return;
+      }
+      int steps = Math.max(
+          Math.abs(space.column(jumpPoint) - space.column(current)),
+          Math.abs(space.row(jumpPoint) - space.row(current))
+      );
+      float cost = space.cost(current)
+          + steps * (dx != 0 && dy != 0 ? SearchSpace.DIAGONAL_COST : 1);
+      if (space.hasCost(jumpPoint) && space.cost(jumpPoint) <= cost) {
+        return;
+      }
+      space.setCost(jumpPoint, cost, current);
+      space.open.push(jumpPoint, (float) (cost + estimate(jumpPoint)));
+    }
+
+    /**
+     * Steps from a point in one direction until reaching a point where the path might turn.
+     *
+     * @return the index of that point, or -1 if the way is blocked first
+     */
+    private int jump(int column, int row, int dx, int dy) {
+      while (true) {
+        if (!space.canStep(column, row, dx, dy)) {
+          return -1;
+        }
+        column += dx;
+        row += dy;
+        if (isGoal(column, row)) {
+          return space.index(column, row);
+        }
+
+        if (dx != 0 && dy != 0) {
+          if ((isPassable(column - dx, row + dy) && !isPassable(column - dx, row))
+              || (isPassable(column + dx, row - dy) && !isPassable(column, row - dy))) {
+            return space.index(column, row);
+          }
+          // Moving diagonally, so check for jump points along the sides
+          if (jump(column, row, dx, 0) >= 0 || jump(column, row, 0, dy) >= 0) {
+            return space.index(column, row);
+          }
+        } else if (dx != 0) {
+          if ((isPassable(column + dx, row + 1) && !isPassable(column, row + 1))
+              || (isPassable(column + dx, row - 1) && !isPassable(column, row - 1))) {
+            return space.index(column, row);
+          }
+        } else {
+          if ((isPassable(column + 1, row + dy) && !isPassable(column + 1, row))
+              || (isPassable(column - 1, row + dy) && !isPassable(column - 1, row))) {
+            return space.index(column, row);
+          }
+        }
+      }
+    }
+
+    private boolean isGoal(int column, int row) {
+      return column == goalColumn && row == goalRow;
+    }
+
+    private boolean isPassable(int column, int row) {
+      return space.isPassable(column, row);
+    }
+
+    private double estimate(int index) {
+      return Math.hypot(space.x(index) - end.x, space.y(index) - end.y);
+    }
+  }
+}
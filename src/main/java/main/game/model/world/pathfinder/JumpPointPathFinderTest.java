@@ -0,0 +1,21 @@
+package main.game.model.world.pathfinder;
+
+import static main.game.model.world.pathfinder.PathFinderAssert.assertPathsMatchDefault;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class JumpPointPathFinderTest {
+
+  @Test
+  public void testOpenMap_sameLengthAsDefault() {
+    GridArea area = GridArea.open(32, new Random(1));
+    assertPathsMatchDefault(area, new JumpPointPathFinder(), 1, 50, 2);
+  }
+
+  @Test
+  public void testMaze_sameLengthAsDefault() {
+    GridArea area = GridArea.maze(32, new Random(3));
+    assertPathsMatchDefault(area, new JumpPointPathFinder(), 1, 50, 4);
+  }
+}
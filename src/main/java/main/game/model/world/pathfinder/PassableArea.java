@@ -0,0 +1,21 @@
+package main.game.model.world.pathfinder;
+
+import main.util.MapRect;
+
+/**
+ * The area that a {@link PathFinder} searches in. Takes raw coordinates so that path finders can
+ * query it without allocating a {@link main.util.MapPoint} for every check.
+ */
+public interface PassableArea {
+
+  /**
+   * Whether a point on the map can be moved into. Must return false for points outside the
+   * bounds.
+   */
+  boolean isPassable(double x, double y);
+
+  /**
+   * The smallest rectangle that contains every passable point.
+   */
+  MapRect getBounds();
+}
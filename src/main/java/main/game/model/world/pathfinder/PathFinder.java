@@ -28,4 +28,24 @@ public interface PathFinder {
                            MapPoint end,
                            double acceptableDistanceFromEnd);
 
+  /**
+   * Finds a path through a {@link PassableArea}. Implementations that can make use of the raw
+   * coordinates and the bounds should override this.
+   */
+  default Stack<MapPoint> findPath(PassableArea area,
+                                   MapPoint start,
+                                   MapPoint end,
+                                   double acceptableDistanceFromEnd) {
+    return findPath(
+        point -> area.isPassable(point.x, point.y), start, end, acceptableDistanceFromEnd
+    );
+  }
+
+  /**
+   * Called when the area that paths will be found in changes (e.g. a level is loaded), so
+   * implementations can precompute anything they need about it.
+   */
+  default void precompute(PassableArea area) {
+  }
+
 }
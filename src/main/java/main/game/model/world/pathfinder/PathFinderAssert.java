@@ -0,0 +1,75 @@
+package main.game.model.world.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import main.util.MapPoint;
+
+/**
+ * Checks the paths of a path finder against the ones {@link DefaultPathFinder} finds, which are
+ * the shortest paths on the lattice.
+ */
+final class PathFinderAssert {
+
+  private static final double EPSILON = 1e-3;
+
+  private PathFinderAssert() {
+  }
+
+  /**
+   * Runs random searches on the area with both path finders. Wherever {@link DefaultPathFinder}
+   * reaches the end the other path finder must too, with a valid path no more than {@code
+   * maxStretch} times as long.
+   *
+   * @param findPath finds a path from the first point to the second
+   */
+  static void assertPathsMatchDefault(
+      GridArea area,
+      BiFunction<MapPoint, MapPoint, List<MapPoint>> findPath,
+      double maxStretch,
+      int searchCount,
+      long seed
+  ) {
+    PathFinder reference = new DefaultPathFinder();
+    int compared = 0;
+    for (MapPoint[] search : area.randomSearches(searchCount, new Random(seed))) {
+      MapPoint start = search[0];
+      MapPoint end = search[1];
+      List<MapPoint> expected = reference.findPath(area, start, end, 0);
+      if (!GridArea.reaches(expected, end)) {
+        continue;
+      }
+      compared++;
+
+      List<MapPoint> actual = findPath.apply(start, end);
+      String message = area.getName() + " map from " + start + " to " + end + ": " + actual;
+      assertTrue(message, GridArea.reaches(actual, end));
+      assertTrue(message, area.isValidPath(start, actual));
+      double expectedLength = GridArea.length(start, expected);
+      double actualLength = GridArea.length(start, actual);
+      if (maxStretch == 1) {
+        assertEquals(message, expectedLength, actualLength, EPSILON);
+      } else {
+        assertTrue(message, actualLength >= expectedLength - EPSILON);
+        assertTrue(message, actualLength <= expectedLength * maxStretch + EPSILON);
+      }
+    }
+    // Make sure the searches actually tested something
+    assertTrue(area.getName() + " map only compared " + compared, compared >= searchCount / 2);
+  }
+
+  /**
+   * See {@link #assertPathsMatchDefault(GridArea, BiFunction, double, int, long)}.
+   */
+  static void assertPathsMatchDefault(
+      GridArea area, PathFinder pathFinder, double maxStretch, int searchCount, long seed
+  ) {
+    assertPathsMatchDefault(
+        area, (start, end) -> pathFinder.findPath(area, start, end, 0), maxStretch, searchCount,
+        seed
+    );
+  }
+}
@@ -0,0 +1,68 @@
+package main.game.model.world.pathfinder;
+
+import java.util.List;
+import java.util.Random;
+import main.util.MapPoint;
+
+/**
+ * Compares how long the {@link PathFinder}s take on an open map and a maze, against the A* that
+ * the world used before them ({@link DefaultPathFinder}). Run with {@code gradle
+ * pathFinderBenchmark}.
+ */
+public class PathFinderBenchmark {
+
+  private static final int MAP_SIZE = 128;
+  private static final int SEARCHES = 200;
+  private static final int WARM_UP_ROUNDS = 3;
+
+  /**
+   * Prints the average time per search of each path finder on each map, and how many times faster
+   * than {@link DefaultPathFinder} it is.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    GridArea[] areas = {
+        GridArea.open(MAP_SIZE, random),
+        GridArea.maze(MAP_SIZE, random)
+    };
+    // The first is the one the others are compared to
+    PathFinder[] pathFinders = {
+        new DefaultPathFinder(),
+        new GridPathFinder(),
+        new JumpPointPathFinder()
+    };
+
+    for (GridArea area : areas) {
+      MapPoint[][] searches = area.randomSearches(SEARCHES, random);
+      long baselineNanos = 0;
+      for (PathFinder pathFinder : pathFinders) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+          run(pathFinder, area, searches);
+        }
+        long startTime = System.nanoTime();
+        int reached = run(pathFinder, area, searches);
+        long nanos = System.nanoTime() - startTime;
+        if (baselineNanos == 0) {
+          baselineNanos = nanos;
+        }
+        System.out.printf(
+            "%-6s %-22s %6d us/search, %5.1fx, %d/%d reached%n",
+            area.getName(), pathFinder.getClass().getSimpleName(),
+            nanos / 1000 / searches.length, (double) baselineNanos / nanos, reached,
+            searches.length
+        );
+      }
+    }
+  }
+
+  private static int run(PathFinder pathFinder, PassableArea area, MapPoint[][] searches) {
+    int reached = 0;
+    for (MapPoint[] search : searches) {
+      List<MapPoint> path = pathFinder.findPath(area, search[0], search[1], 0);
+      if (GridArea.reaches(path, search[1])) {
+        reached++;
+      }
+    }
+    return reached;
+  }
+}
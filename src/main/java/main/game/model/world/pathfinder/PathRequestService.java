@@ -0,0 +1,180 @@
+package main.game.model.world.pathfinder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import main.util.MapPoint;
+
+/**
+ * Finds paths on a small pool of worker threads so that searching doesn't hold up the game tick.
+ * Requests for the same key that are still waiting share one search, and a search is cancelled
+ * once everyone that asked for it has cancelled their {@link PathRequest}. Paths are never handed
+ * out after {@link #cancelAll()}, even if they were already found, since they are for an area that
+ * has changed.
+ */
+public class PathRequestService {
+
+  private static final long IDLE_THREAD_TIMEOUT_SECONDS = 10;
+
+  private final ThreadPoolExecutor executor;
+  /** Searches that haven't finished, by key. Guarded by this. */
+  private final Map<Object, Job> pendingJobs = new HashMap<>();
+  /** Incremented by {@link #cancelAll()}. Jobs from an older generation are cancelled. */
+  private volatile int generation = 0;
+
+  /**
+   * Creates a service with its own worker threads.
+   *
+   * @param workerCount the most searches to run at once
+   */
+  public PathRequestService(int workerCount) {
+    this.executor = new ThreadPoolExecutor(
+        workerCount, workerCount,
+        IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "path-finder");
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queues a search unless one for the same key is already waiting or running.
+   *
+   * @param key identifies searches that will give the same path
+   * @param search finds the path, run on a worker thread
+   */
+  public synchronized PathRequest request(Object key, Supplier<List<MapPoint>> search) {
+    Job job = pendingJobs.get(key);
+    if (job == null) {
+      job = new Job(key, search, generation);
+      pendingJobs.put(key, job);
+      job.future = executor.submit(job);
+    }
+    job.subscribers++;
+    return new PathRequest(job);
+  }
+
+  /**
+   * Cancels every search, e.g. because the area they are searching has changed.
+   */
+  public synchronized void cancelAll() {
+    generation++;
+    for (Job job : pendingJobs.values()) {
+      job.cancelled = true;
+      job.future.cancel(false);
+    }
+    pendingJobs.clear();
+  }
+
+  private synchronized void unsubscribe(Job job) {
+    job.subscribers--;
+    if (job.subscribers == 0 && job.path == null) {
+      job.cancelled = true;
+      job.future.cancel(false);
+      pendingJobs.remove(job.key, job);
+    }
+  }
+
+  /**
+   * Publishes the path of a search, unless it was cancelled while it ran.
+   */
+  private synchronized void finish(Job job, List<MapPoint> path) {
+    pendingJobs.remove(job.key, job);
+    if (!job.cancelled) {
+      job.path = path;
+    }
+  }
+
+  /**
+   * A search shared by all of the requests for its key.
+   */
+  private class Job implements Runnable {
+
+    private final Object key;
+    private final Supplier<List<MapPoint>> search;
+    private final int generation;
+    private Future<?> future;
+    private int subscribers = 0;
+    private volatile boolean cancelled = false;
+    private volatile List<MapPoint> path;
+
+    Job(Object key, Supplier<List<MapPoint>> search, int generation) {
+      this.key = key;
+      this.search = search;
+      this.generation = generation;
+    }
+
+    @Override
+    public void run() {
+      if (cancelled) {
+        return;
+      }
+      List<MapPoint> result = Collections.emptyList();
+      try {
+        result = Collections.unmodifiableList(search.get());
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      } finally {
+        finish(this, result);
+      }
+    }
+  }
+
+  /**
+   * The result of a path search that will be available some time later.
+   */
+  public class PathRequest {
+
+    private final Job job;
+    private boolean cancelled = false;
+
+    private PathRequest(Job job) {
+      this.job = job;
+    }
+
+    /**
+     * Whether the path has been found. Never true once the request is cancelled.
+     */
+    public boolean isDone() {
+      return job.path != null && !isCancelled();
+    }
+
+    /**
+     * Whether the request won't ever be done because it (or every search) was cancelled.
+     */
+    public boolean isCancelled() {
+      return cancelled || job.cancelled || job.generation != generation;
+    }
+
+    /**
+     * The path that was found. Only available once {@link #isDone()}.
+     */
+    public List<MapPoint> getPath() {
+      if (!isDone()) {
+        throw new IllegalStateException("The path hasn't been found yet");
+      }
+      return job.path;
+    }
+
+    /**
+     * Says that the path isn't needed any more.
+     */
+    public void cancel() {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      unsubscribe(job);
+    }
+  }
+}
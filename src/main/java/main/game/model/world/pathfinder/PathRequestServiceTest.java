@@ -0,0 +1,128 @@
+package main.game.model.world.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import main.game.model.world.pathfinder.PathRequestService.PathRequest;
+import main.util.MapPoint;
+import org.junit.Test;
+
+public class PathRequestServiceTest {
+
+  private static final List<MapPoint> PATH = Arrays.asList(new MapPoint(1, 1));
+
+  private static void waitUntil(Supplier<Boolean> condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.get()) {
+      assertTrue("Timed out", System.nanoTime() < deadline);
+      Thread.sleep(1);
+    }
+  }
+
+  @Test
+  public void testRequest_isDoneWithThePath() throws InterruptedException {
+    PathRequest request = new PathRequestService(1).request("key", () -> PATH);
+    waitUntil(request::isDone);
+
+    assertEquals(PATH, request.getPath());
+    assertFalse(request.isCancelled());
+  }
+
+  @Test
+  public void testSameKey_sharesOneSearch() throws InterruptedException {
+    PathRequestService service = new PathRequestService(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger searches = new AtomicInteger();
+    Supplier<List<MapPoint>> search = () -> {
+      searches.incrementAndGet();
+      awaitQuietly(release);
+      return PATH;
+    };
+    PathRequest first = service.request("key", search);
+    PathRequest second = service.request("key", search);
+    release.countDown();
+    waitUntil(() -> first.isDone() && second.isDone());
+
+    assertEquals(1, searches.get());
+    assertSame(first.getPath(), second.getPath());
+  }
+
+  @Test
+  public void testCancelAllWhileSearching_pathIsNeverDone() throws InterruptedException {
+    PathRequestService service = new PathRequestService(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger finished = new AtomicInteger();
+    PathRequest request = service.request("key", () -> {
+      started.countDown();
+      awaitQuietly(release);
+      finished.incrementAndGet();
+      return PATH;
+    });
+    started.await();
+    service.cancelAll();
+    release.countDown();
+    waitUntil(() -> finished.get() == 1);
+    // Give the worker time to publish, if it was going to
+    Thread.sleep(50);
+
+    assertTrue(request.isCancelled());
+    assertFalse(request.isDone());
+  }
+
+  @Test
+  public void testCancelAllAfterFinishing_pathIsNoLongerDone() throws InterruptedException {
+    PathRequestService service = new PathRequestService(1);
+    PathRequest request = service.request("key", () -> PATH);
+    waitUntil(request::isDone);
+    service.cancelAll();
+
+    assertTrue(request.isCancelled());
+    assertFalse(request.isDone());
+  }
+
+  @Test
+  public void testRequestAfterCancelAll_isNotCancelled() throws InterruptedException {
+    PathRequestService service = new PathRequestService(1);
+    service.cancelAll();
+    PathRequest request = service.request("key", () -> PATH);
+    waitUntil(request::isDone);
+
+    assertFalse(request.isCancelled());
+  }
+
+  @Test
+  public void testCancel_onlyCancelsThatRequest() throws InterruptedException {
+    PathRequestService service = new PathRequestService(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<List<MapPoint>> search = () -> {
+      awaitQuietly(release);
+      return PATH;
+    };
+    PathRequest cancelled = service.request("key", search);
+    PathRequest kept = service.request("key", search);
+    cancelled.cancel();
+    release.countDown();
+    waitUntil(kept::isDone);
+
+    assertTrue(cancelled.isCancelled());
+    assertFalse(cancelled.isDone());
+    assertFalse(kept.isCancelled());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package main.game.model.world.pathfinder;
+
+import java.util.Arrays;
+import main.util.MapPoint;
+import main.util.MapRect;
+
+/**
+ * The working memory of a grid search. The grid is a lattice of points one tile apart that is
+ * anchored on the start of the search (like {@link DefaultPathFinder}, which steps one tile at a
+ * time from the start) and covers the bounds of the {@link PassableArea}. Each lattice point is
+ * identified by an int index.
+ *
+ * <p>
+ * The per-point arrays are stamped with a generation number instead of being cleared, so a search
+ * space can be reused for any number of searches without allocating or clearing. They are not
+ * thread safe, so each thread needs its own, see {@link #forCurrentThread()}.
+ * </p>
+ */
+final class SearchSpace {
+
+  private static final ThreadLocal<SearchSpace> SEARCH_SPACES =
+      ThreadLocal.withInitial(SearchSpace::new);
+
+  static final float DIAGONAL_COST = (float) Math.sqrt(2);
+
+  final IntMinHeap open = new IntMinHeap();
+
+  private PassableArea area;
+  private double originX;
+  private double originY;
+  private int columns;
+  private int rows;
+  private int startIndex;
+
+  private int generation = 0;
+  private int[] costStamps = new int[0];
+  private float[] costs = new float[0];
+  private int[] parents = new int[0];
+  private int[] closedStamps = new int[0];
+  private int[] passableStamps = new int[0];
+  private boolean[] passable = new boolean[0];
+
+  private int[] path = new int[64];
+  private int pathLength = 0;
+
+  /**
+   * Gets the search space for the thread that is calling this.
+   */
+  static SearchSpace forCurrentThread() {
+    return SEARCH_SPACES.get();
+  }
+
+  /**
+   * Lays the lattice over the area so that the start is on a lattice point and forgets the
+   * previous search.
+   *
+   * @return the index of the start point
+   */
+  int prepare(PassableArea area, MapPoint start) {
+    this.area = area;
+    MapRect bounds = area.getBounds();
+    double minX = Math.min(bounds.topLeft.x, start.x);
+    double minY = Math.min(bounds.topLeft.y, start.y);
+    double maxX = Math.max(bounds.bottomRight.x, start.x);
+    double maxY = Math.max(bounds.bottomRight.y, start.y);
+    int startColumn = (int) Math.floor(start.x - minX);
+    int startRow = (int) Math.floor(start.y - minY);
+    this.originX = start.x - startColumn;
+    this.originY = start.y - startRow;
+    this.columns = startColumn + (int) Math.floor(maxX - start.x) + 1;
+    this.rows = startRow + (int) Math.floor(maxY - start.y) + 1;
+
+    ensureCapacity(columns * rows);
+    nextGeneration();
+    open.clear();
+    pathLength = 0;
+    startIndex = index(startColumn, startRow);
+    return startIndex;
+  }
+
+  private void ensureCapacity(int size) {
+    if (costs.length >= size) {
+      return;
+    }
+    costStamps = new int[size];
+    costs = new float[size];
+    parents = new int[size];
+    closedStamps = new int[size];
+    passableStamps = new int[size];
+    passable = new boolean[size];
+    generation = 0;
+  }
+
+  private void nextGeneration() {
+    generation++;
+    if (generation == Integer.MAX_VALUE) {
+      // Wrapped around, so old stamps could be mistaken for new ones
+      Arrays.fill(costStamps, 0);
+      Arrays.fill(closedStamps, 0);
+      Arrays.fill(passableStamps, 0);
+      generation = 1;
+    }
+  }
+
+  /**
+   * The index of the start of the last search.
+   */
+  int startIndex() {
+    return startIndex;
+  }
+
+  int columns() {
+    return columns;
+  }
+
+  int rows() {
+    return rows;
+  }
+
+  int index(int column, int row) {
+    return column + row * columns;
+  }
+
+  int column(int index) {
+    return index % columns;
+  }
+
+  int row(int index) {
+    return index / columns;
+  }
+
+  double x(int index) {
+    return originX + column(index);
+  }
+
+  double y(int index) {
+    return originY + row(index);
+  }
+
+  /**
+   * Whether the lattice point can be moved into. Points off the lattice are not passable.
+   */
+  boolean isPassable(int column, int row) {
+    if (column < 0 || row < 0 || column >= columns || row >= rows) {
+      return false;
+    }
+    int index = index(column, row);
+    if (passableStamps[index] != generation) {
+      passableStamps[index] = generation;
+      passable[index] = area.isPassable(originX + column, originY + row);
+    }
+    return passable[index];
+  }
+
+  /**
+   * Whether a step to a neighbouring lattice point is allowed. Follows the same rule as {@link
+   * DefaultPathFinder}: the destination must be passable and, for diagonal steps, at least one of
+   * the two sides next to the corner must be passable too.
+   */
+  boolean canStep(int column, int row, int dx, int dy) {
+    if (!isPassable(column + dx, row + dy)) {
+      return false;
+    }
+    return dx == 0 || dy == 0 || isPassable(column, row + dy) || isPassable(column + dx, row);
+  }
+
+  boolean hasCost(int index) {
+    return costStamps[index] == generation;
+  }
+
+  float cost(int index) {
+    return costs[index];
+  }
+
+  int parent(int index) {
+    return parents[index];
+  }
+
+  /**
+   * Records the cost of getting to a point and where it was reached from.
+   */
+  void setCost(int index, float cost, int parent) {
+    costStamps[index] = generation;
+    costs[index] = cost;
+    parents[index] = parent;
+  }
+
+  boolean isClosed(int index) {
+    return closedStamps[index] == generation;
+  }
+
+  void close(int index) {
+    closedStamps[index] = generation;
+  }
+
+  /**
+   * Follows the parents back from the point to the root (a point with a negative parent) and
+   * stores the path, not including the root.
+   */
+  void tracePath(int index) {
+    int length = 0;
+    for (int current = index; parents[current] >= 0; current = parents[current]) {
+      length++;
+    }
+    if (path.length < length) {
+      path = new int[Math.max(length, path.length * 2)];
+    }
+    pathLength = length;
+    for (int current = index; parents[current] >= 0; current = parents[current]) {
+      path[--length] = current;
+    }
+  }
+
+  int pathLength() {
+    return pathLength;
+  }
+
+  /**
+   * The index of the i'th point of the last traced path.
+   */
+  int pathAt(int i) {
+    return path[i];
+  }
+}
@@ -5,6 +5,7 @@ import static main.game.model.entity.usable.BaseAbility.INFINITE_USES;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.function.Supplier;
 import main.game.model.GameModel;
 import main.game.model.Level;
 import main.game.model.Level.Goal;
@@ -21,7 +22,8 @@ import main.game.model.entity.usable.DefaultItem;
 import main.game.model.entity.usable.Item;
 import main.game.model.world.DefaultWorld;
 import main.game.model.world.World;
-import main.game.model.world.pathfinder.DefaultPathFinder;
+import main.game.model.world.pathfinder.HierarchicalPathFinder;
+import main.game.model.world.pathfinder.PathFinder;
 import main.util.MapPoint;
 import main.util.MapRect;
 import main.util.MapSize;
@@ -36,6 +38,21 @@ public class DefaultWorldLoader implements WorldLoader {
   private static final MapSize HERO_SIZE = new MapSize(0.9, 0.9);
   private static final MapSize STANDARD_UNIT_SIZE = new MapSize(0.5, 0.5);
 
+  private final Supplier<PathFinder> pathFinderSupplier;
+
+  public DefaultWorldLoader() {
+    this(HierarchicalPathFinder::new);
+  }
+
+  /**
+   * Creates a loader whose worlds find paths with the given kind of {@link PathFinder}.
+   *
+   * @param pathFinderSupplier makes a path finder for each world that is loaded
+   */
+  public DefaultWorldLoader(Supplier<PathFinder> pathFinderSupplier) {
+    this.pathFinderSupplier = pathFinderSupplier;
+  }
+
   @Override
   public World load() {
     DataLoader dataLoader = new DataLoader();
@@ -522,6 +539,6 @@ public class DefaultWorldLoader implements WorldLoader {
           "Gold ring is love. Gold ring is life"
       ));
     }
-    return new DefaultWorld(levels, heroUnit, new DefaultPathFinder());
+    return new DefaultWorld(levels, heroUnit, pathFinderSupplier.get());
   }
 }
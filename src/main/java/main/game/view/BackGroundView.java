@@ -1,79 +1,176 @@
 package main.game.view;
 
+import java.awt.Graphics2D;
+import java.awt.Polygon;
 import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import main.util.Config;
-import main.util.MapPoint;
-import main.util.MapSize;
+import main.util.Geometry;
+import main.util.MapRect;
 
 /**
  * The View for the background.
+ *
+ * <p>
+ * The terrain is drawn into square chunks of the screen (in pixels relative to the origin of the
+ * view) the first time they are needed, so each frame only draws the few chunks that the view box
+ * covers. Chunks that haven't been drawn for the longest are dropped when the chunks take more
+ * memory than {@link Config#getTerrainCacheBytes()}, and all of them are redrawn when the tile size
+ * changes. Only the drawing thread should use this.
+ * </p>
+ *
  * @author Andrew McGhie
  */
 public class BackGroundView {
 
+  private static final int CHUNK_SIZE = 512;
+  private static final long CHUNK_BYTES = (long)CHUNK_SIZE * CHUNK_SIZE * Integer.BYTES;
+
   private final Config config;
-  private final GameView gameView;
-  private final MapSize size;
-  private final BufferedImage background;
+  private final Terrain terrain;
+  /** Chunks by position, from least to most recently drawn. */
+  private final Map<Long, Chunk> chunks = new LinkedHashMap<>(16, 0.75f, true);
+  /** The tile size that the chunks were drawn at. */
+  private int chunkTilePixelsX;
+  private int chunkTilePixelsY;
+  private final Polygon tileShape = new Polygon();
+  private long frameCount = 0;
 
-  BackGroundView(Config config, GameView gameView, BufferedImage baseImage) {
+  BackGroundView(Config config, Terrain terrain) {
     this.config = config;
-    this.gameView = gameView;
-    this.size = new MapSize(config.getContextScreenWidth() * 2,
-        config.getContextScreenHeight() * 2);
-    this.background = new BufferedImage(config.getContextScreenWidth() * 2,
-        config.getContextScreenHeight() * 2,
-        BufferedImage.TYPE_4BYTE_ABGR);
-    background.getGraphics().drawImage(baseImage,
-        0,
-        0,
-        config.getContextScreenWidth(),
-        config.getContextScreenHeight(),
-        null);
-    background.getGraphics().drawImage(baseImage,
-        config.getContextScreenWidth(),
-        0,
-        config.getContextScreenWidth(),
-        config.getContextScreenHeight(),
-        null);
-    background.getGraphics().drawImage(baseImage,
-        0,
-        config.getContextScreenHeight(),
-        config.getContextScreenWidth(),
-        config.getContextScreenHeight(),
-        null);
-    background.getGraphics().drawImage(baseImage,
-        config.getContextScreenWidth(),
-        config.getContextScreenHeight(),
-        config.getContextScreenWidth(),
-        config.getContextScreenHeight(),
-        null);
+    this.terrain = terrain;
   }
 
   /**
-   * Gets the position that the background image should be drawn.
+   * Draws the part of the terrain in the view box onto the screen.
    */
-  public MapPoint getImagePosition() {
-    double x = gameView.getViewBox().x() < 0
-        ? - gameView.getViewBox().x() % config.getContextScreenWidth()
-        : config.getContextScreenWidth()
-            - gameView.getViewBox().x() % config.getContextScreenWidth();
-    double y = gameView.getViewBox().y() < 0
-        ? - gameView.getViewBox().y() % config.getContextScreenHeight()
-        : config.getContextScreenHeight()
-            - gameView.getViewBox().y() % config.getContextScreenHeight();
-    return new MapPoint(
-        x - config.getContextScreenWidth(),
-        y - config.getContextScreenHeight());
+  public void draw(Graphics2D g, MapRect viewBox) {
+    this.frameCount++;
+    if (this.chunkTilePixelsX != this.config.getEntityViewTilePixelsX()
+        || this.chunkTilePixelsY != this.config.getEntityViewTilePixelsY()) {
+      // The tiles have been resized (zoomed) since the chunks were drawn
+      this.chunks.clear();
+      this.chunkTilePixelsX = this.config.getEntityViewTilePixelsX();
+      this.chunkTilePixelsY = this.config.getEntityViewTilePixelsY();
+    }
+    int left = (int)Math.floor(viewBox.x());
+    int top = (int)Math.floor(viewBox.y());
+    int firstChunkX = Math.floorDiv(left, CHUNK_SIZE);
+    int firstChunkY = Math.floorDiv(top, CHUNK_SIZE);
+    int lastChunkX = Math.floorDiv(left + (int)Math.ceil(viewBox.getWidth()), CHUNK_SIZE);
+    int lastChunkY = Math.floorDiv(top + (int)Math.ceil(viewBox.getHeight()), CHUNK_SIZE);
+
+    for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+      for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+        Chunk chunk = this.getChunk(chunkX, chunkY);
+        chunk.lastDrawnFrame = this.frameCount;
+        g.drawImage(chunk.image,
+            chunkX * CHUNK_SIZE - left,
+            chunkY * CHUNK_SIZE - top,
+            null);
+      }
+    }
+    this.evictChunks();
+  }
+
+  private Chunk getChunk(int chunkX, int chunkY) {
+    long key = ((long)chunkX << 32) | (chunkY & 0xffffffffL);
+    Chunk chunk = this.chunks.get(key);
+    if (chunk == null) {
+      chunk = new Chunk(this.renderChunk(chunkX * CHUNK_SIZE, chunkY * CHUNK_SIZE));
+      this.chunks.put(key, chunk);
+    }
+    return chunk;
+  }
+
+  /**
+   * Draws every tile that is at least partly in the chunk with the given top left.
+   */
+  private BufferedImage renderChunk(int left, int top) {
+    BufferedImage image = new BufferedImage(CHUNK_SIZE, CHUNK_SIZE,
+        BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g = image.createGraphics();
+    g.translate(-left, -top);
+
+    double tileWidth = this.chunkTilePixelsX;
+    double tileHeight = this.chunkTilePixelsY;
+    int right = left + CHUNK_SIZE;
+    int bottom = top + CHUNK_SIZE;
+    // The map x goes up to the right and down, the map y goes up to the left and down
+    int minTileX = (int)Math.floor(Geometry.mapXFromIsometric(left, top, tileWidth, tileHeight));
+    int maxTileX = (int)Math.floor(
+        Geometry.mapXFromIsometric(right, bottom, tileWidth, tileHeight)
+    );
+    int minTileY = (int)Math.floor(Geometry.mapYFromIsometric(right, top, tileWidth, tileHeight));
+    int maxTileY = (int)Math.floor(
+        Geometry.mapYFromIsometric(left, bottom, tileWidth, tileHeight)
+    );
+
+    for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+      for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+        this.setTileShape(tileX, tileY, tileWidth, tileHeight);
+        if (this.tileShape.intersects(left, top, CHUNK_SIZE, CHUNK_SIZE)) {
+          this.terrain.drawTile(g, tileX, tileY, this.tileShape);
+        }
+      }
+    }
+    g.dispose();
+    return image;
   }
 
+  /**
+   * Sets the tile shape to the diamond of a tile. Neighbouring tiles share corners exactly so there
+   * are no gaps between them.
+   */
+  private void setTileShape(int tileX, int tileY, double tileWidth, double tileHeight) {
+    this.tileShape.reset();
+    this.tileShape.addPoint(
+        (int)Math.round(Geometry.isometricX(tileX, tileY, tileWidth)),
+        (int)Math.round(Geometry.isometricY(tileX, tileY, tileHeight))
+    );
+    this.tileShape.addPoint(
+        (int)Math.round(Geometry.isometricX(tileX + 1, tileY, tileWidth)),
+        (int)Math.round(Geometry.isometricY(tileX + 1, tileY, tileHeight))
+    );
+    this.tileShape.addPoint(
+        (int)Math.round(Geometry.isometricX(tileX + 1, tileY + 1, tileWidth)),
+        (int)Math.round(Geometry.isometricY(tileX + 1, tileY + 1, tileHeight))
+    );
+    this.tileShape.addPoint(
+        (int)Math.round(Geometry.isometricX(tileX, tileY + 1, tileWidth)),
+        (int)Math.round(Geometry.isometricY(tileX, tileY + 1, tileHeight))
+    );
+  }
 
-  public MapSize getImageSize() {
-    return this.size;
+  /**
+   * Drops the least recently drawn chunks until they fit in the budget. Chunks on the screen are
+   * never dropped, even if they don't fit.
+   */
+  private void evictChunks() {
+    long budget = this.config.getTerrainCacheBytes();
+    Iterator<Chunk> iterator = this.chunks.values().iterator();
+    while (this.chunks.size() * CHUNK_BYTES > budget && iterator.hasNext()) {
+      Chunk chunk = iterator.next();
+      if (chunk.lastDrawnFrame == this.frameCount) {
+        // Everything after this was drawn this frame too
+        break;
+      }
+      iterator.remove();
+    }
   }
 
+  /**
+   * A pre-drawn square of the terrain.
+   */
+  private static class Chunk {
+
+    private final BufferedImage image;
+    private long lastDrawnFrame;
 
-  public BufferedImage getImage() {
-    return this.background;
+    Chunk(BufferedImage image) {
+      this.image = image;
+    }
   }
 }
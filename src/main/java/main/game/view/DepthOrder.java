@@ -0,0 +1,94 @@
+package main.game.view;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps renderables in the order they should be drawn: by layer, back to front, then by depth
+ * (see {@link Renderable#getDepth(long)}). Things only move a little between frames, so the order
+ * from the last frame is kept and fixed with an insertion sort, which is close to linear on an
+ * almost sorted array. The sort keys are worked out once per renderable per frame into primitive
+ * arrays rather than in every comparison.
+ *
+ * <p>
+ * Not thread safe, it is meant to be used for one frame at a time.
+ * </p>
+ */
+class DepthOrder {
+
+  private Renderable[] order = new Renderable[0];
+  private int[] layers = new int[0];
+  private double[] depths = new double[0];
+  private int size = 0;
+
+  /**
+   * Changes which renderables are ordered. Ones that were already here keep their place, new ones
+   * are put in place by the next {@link #sort(long)}.
+   */
+  void setRenderables(Collection<Renderable> renderables) {
+    Set<Renderable> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+    remaining.addAll(renderables);
+    if (order.length < remaining.size()) {
+      int capacity = remaining.size() * 2;
+      order = Arrays.copyOf(order, capacity);
+      layers = new int[capacity];
+      depths = new double[capacity];
+    }
+
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (remaining.remove(order[i])) {
+        order[kept++] = order[i];
+      }
+    }
+    for (Renderable renderable : remaining) {
+      order[kept++] = renderable;
+    }
+    Arrays.fill(order, kept, Math.max(kept, size), null);
+    size = kept;
+  }
+
+  /**
+   * Orders the renderables for the given time.
+   *
+   * @return the renderables in drawing order, only valid until this is next changed
+   */
+  List<Renderable> sort(long currentTime) {
+    for (int i = 0; i < size; i++) {
+      layers[i] = order[i].getLayer();
+      depths[i] = order[i].getDepth(currentTime);
+    }
+
+    for (int i = 1; i < size; i++) {
+      Renderable renderable = order[i];
+      int layer = layers[i];
+      double depth = depths[i];
+      int j = i - 1;
+      while (j >= 0 && isAfter(layers[j], depths[j], layer, depth)) {
+        order[j + 1] = order[j];
+        layers[j + 1] = layers[j];
+        depths[j + 1] = depths[j];
+        j--;
+      }
+      order[j + 1] = renderable;
+      layers[j + 1] = layer;
+      depths[j + 1] = depth;
+    }
+
+    return Collections.unmodifiableList(Arrays.asList(order).subList(0, size));
+  }
+
+  /**
+   * Whether the first renderable should be drawn after the second. Bigger layers are drawn first.
+   */
+  private static boolean isAfter(int layer1, double depth1, int layer2, double depth2) {
+    if (layer1 != layer2) {
+      return layer1 < layer2;
+    }
+    return Double.compare(depth1, depth2) > 0;
+  }
+}
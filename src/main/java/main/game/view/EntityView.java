@@ -1,12 +1,13 @@
 package main.game.view;
 
 import java.awt.Graphics2D;
-import java.util.Comparator;
 import main.game.model.GameModel;
 import main.game.model.data.dataobject.ImageData;
 import main.game.model.entity.Entity;
 import main.util.Config;
+import main.util.Geometry;
 import main.util.MapPoint;
+import main.util.MapRect;
 import main.util.MapSize;
 
 /**
@@ -103,8 +104,8 @@ public class EntityView implements Renderable {
    */
   public static MapPoint tileToPix(MapPoint tilePosition, Config config) {
     return new MapPoint(
-        ((double)config.getEntityViewTilePixelsX() / 2D) * (tilePosition.x - tilePosition.y),
-        ((double)config.getEntityViewTilePixelsY() / 2D) * (tilePosition.x + tilePosition.y)
+        Geometry.isometricX(tilePosition.x, tilePosition.y, config.getEntityViewTilePixelsX()),
+        Geometry.isometricY(tilePosition.x, tilePosition.y, config.getEntityViewTilePixelsY())
     );
   }
 
@@ -115,13 +116,51 @@ public class EntityView implements Renderable {
    * @return the MapPoint of the object considering the unitAnimation state
    */
   public MapPoint getEffectiveEntityPosition(long currentTime) {
-    double animationMultiplyer = 1D - (((double)this.lastTickTime)
-        - ((double)currentTime)) / ((double)this.config.getGameModelDelay());
+    double animationMultiplyer = getAnimationMultiplyer(currentTime);
     double deltaX = (this.destination.x - this.oldPosition.x) * animationMultiplyer;
     double deltaY = (this.destination.y - this.oldPosition.y) * animationMultiplyer;
     return new MapPoint(oldPosition.x + deltaX, oldPosition.y + deltaY);
   }
 
+  @Override
+  public double getDepth(long currentTime) {
+    double animationMultiplyer = getAnimationMultiplyer(currentTime);
+    return Geometry.isometricDepth(
+        oldPosition.x + (this.destination.x - this.oldPosition.x) * animationMultiplyer,
+        oldPosition.y + (this.destination.y - this.oldPosition.y) * animationMultiplyer
+    );
+  }
+
+  @Override
+  public boolean isInside(MapRect screenArea) {
+    double tileWidth = this.config.getEntityViewTilePixelsX();
+    double tileHeight = this.config.getEntityViewTilePixelsY();
+    double x = Geometry.isometricX(this.entity.getLeft(), this.entity.getTop(), tileWidth);
+    double y = Geometry.isometricY(this.entity.getLeft(), this.entity.getTop(), tileHeight);
+    double width = this.entity.getWidth() * tileWidth;
+    double height = this.entity.getHeight() * tileHeight;
+    if (this.currentImage != null) {
+      x -= width * this.currentImage.getWestOverflow();
+      y -= height * this.currentImage.getNorthOverflow();
+      width *= 1 + this.currentImage.getEastOverflow() + this.currentImage.getWestOverflow();
+      height *= 1 + this.currentImage.getNorthOverflow() + this.currentImage.getSouthOverflow();
+    }
+    return Geometry.rectsOverlap(
+        x, y, width, height,
+        screenArea.x(), screenArea.y(), screenArea.getWidth(), screenArea.getHeight()
+    );
+  }
+
+  @Override
+  public boolean isMoving() {
+    return this.oldPosition.x != this.destination.x || this.oldPosition.y != this.destination.y;
+  }
+
+  private double getAnimationMultiplyer(long currentTime) {
+    return 1D - (((double)this.lastTickTime)
+        - ((double)currentTime)) / ((double)this.config.getGameModelDelay());
+  }
+
   @Override
   public ImageData getImage() {
     return this.currentImage;
@@ -141,27 +180,4 @@ public class EntityView implements Renderable {
   public int getLayer() {
     return this.layer;
   }
-
-  static class EntityRenderableComparator implements Comparator<Renderable> {
-    private final long currentTime;
-
-    /**
-     * .
-     * @param currentTime The time stamp for when you want to sort for
-     */
-    EntityRenderableComparator(long currentTime) {
-      this.currentTime = currentTime;
-    }
-
-    @Override
-    public int compare(Renderable er1, Renderable er2) {
-      if (er1.getLayer() == er2.getLayer()) {
-        MapPoint er1Pos = er1.getEffectiveEntityPosition(this.currentTime);
-        MapPoint er2Pos = er2.getEffectiveEntityPosition(this.currentTime);
-        return Double.compare(er1Pos.x + er1Pos.y, er2Pos.x + er2Pos.y);
-      } else {
-        return Integer.compare(er2.getLayer(), er1.getLayer());
-      }
-    }
-  }
 }
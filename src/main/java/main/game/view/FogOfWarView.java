@@ -4,57 +4,178 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import main.game.model.entity.Entity;
 import main.util.Config;
 import main.util.MapPoint;
+import main.util.MapRect;
 import main.util.MapSize;
 
 /**
  * Represents the fog of war that covers anything that the player doesnt have a unit close enough.
+ *
+ * <p>
+ * What can be seen is worked out per tile: every tile of the level keeps a count of the units that
+ * can see it, and a unit only changes the counts when it moves to another tile. The tiles are kept
+ * as a tiny image with one pixel per tile, which is stretched onto the screen with bilinear
+ * filtering so the edges of the fog are smooth. The stretched image is only redrawn when the fog or
+ * the view box changes.
+ * </p>
+ *
  * @author Andrew McGhie
  */
 public class FogOfWarView {
 
+  /** Tiles of fog around the level so the fog fades in before the edge of the mask. */
+  private static final int PADDING_TILES = 8;
+
+  private final Config config;
   private final Color baseColor;
+  private final int fogPixel;
   private final MapPoint origin = new MapPoint(0, 0);
   private final MapSize size;
 
-  private BufferedImage fowMask;
+  /** The level the tiles cover, or null before the first calculation. */
+  private MapRect levelBounds;
+  private int gridLeft;
+  private int gridTop;
+  private int gridWidth;
+  private int gridHeight;
+  /** How many revealing units can see each tile. */
+  private short[] seenBy;
+  /** One pixel per tile, fog or clear. */
+  private BufferedImage mask;
+  private int[] maskPixels;
+
+  /** The area each unit is currently revealing. */
+  private final Map<UnitView, Reveal> reveals = new IdentityHashMap<>();
+  private long calculationCount = 0;
+
+  private final BufferedImage fowImage;
+  private final Graphics2D fowGraphics;
+  private boolean isMaskChanged = true;
+  private MapRect drawnViewBox;
 
   FogOfWarView(Config config) {
+    this.config = config;
     this.size = new MapSize(config.getContextScreenWidth(), config.getContextScreenHeight());
     this.baseColor = config.getBaseFogOfWarColor();
+    this.fogPixel = this.baseColor.getRGB();
+    this.fowImage = new BufferedImage(
+        (int)this.size.width,
+        (int)this.size.height,
+        BufferedImage.TYPE_INT_ARGB_PRE
+    );
+    this.fowGraphics = this.fowImage.createGraphics();
+    this.fowGraphics.setComposite(AlphaComposite.Src);
+    this.fowGraphics.setRenderingHint(
+        RenderingHints.KEY_INTERPOLATION,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR
+    );
   }
 
   /**
-   * Recalculates what the fog of war should cover and what it should display.
+   * Recalculates what the fog of war should cover. Only units that have moved to another tile
+   * since the last calculation (or have stopped revealing) change anything.
    */
-  void calculate(Collection<UnitView> unitViews, GameView gameView, long currentTime) {
-    this.fowMask = new BufferedImage((int)this.size.width,
-        (int)this.size.height,
-        BufferedImage.TYPE_4BYTE_ABGR);
-    Graphics2D g = ((Graphics2D) this.fowMask.getGraphics());
-    g.setColor(this.baseColor);
-    g.fillRect(0, 0, (int)this.size.width, (int)this.size.height);
-
-    g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC, 0F));
-    g.setColor(new Color(255,255,255, 0));
-    RenderingHints rh = new RenderingHints(
-        RenderingHints.KEY_ANTIALIASING,
-        RenderingHints.VALUE_ANTIALIAS_ON
+  synchronized void calculate(Collection<UnitView> unitViews, MapRect levelBounds) {
+    if (!levelBounds.equals(this.levelBounds)) {
+      this.resize(levelBounds);
+    }
+    this.calculationCount++;
+
+    for (UnitView unitView : unitViews) {
+      Entity entity = unitView.getEntity();
+      int tileX = (int)Math.floor(entity.getCentreX());
+      int tileY = (int)Math.floor(entity.getCentreY());
+      // The circle on the map that is the oval the same width and height as the LoS on the screen
+      double radius = unitView.getLineOfSight() / Math.sqrt(2);
+
+      Reveal reveal = this.reveals.get(unitView);
+      if (reveal == null) {
+        reveal = new Reveal();
+        this.reveals.put(unitView, reveal);
+      } else if (reveal.tileX == tileX && reveal.tileY == tileY && reveal.radius == radius) {
+        reveal.calculationCount = this.calculationCount;
+        continue;
+      } else {
+        this.reveal(reveal, -1);
+      }
+      reveal.tileX = tileX;
+      reveal.tileY = tileY;
+      reveal.radius = radius;
+      reveal.calculationCount = this.calculationCount;
+      this.reveal(reveal, 1);
+    }
+
+    // Units that weren't given any more, e.g. because they died
+    Iterator<Reveal> iterator = this.reveals.values().iterator();
+    while (iterator.hasNext()) {
+      Reveal reveal = iterator.next();
+      if (reveal.calculationCount != this.calculationCount) {
+        this.reveal(reveal, -1);
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Makes a new grid for the level, with nothing revealed.
+   */
+  private void resize(MapRect levelBounds) {
+    this.levelBounds = levelBounds;
+    this.gridLeft = (int)Math.floor(levelBounds.x()) - PADDING_TILES;
+    this.gridTop = (int)Math.floor(levelBounds.y()) - PADDING_TILES;
+    this.gridWidth = (int)Math.ceil(levelBounds.getWidth()) + 2 * PADDING_TILES;
+    this.gridHeight = (int)Math.ceil(levelBounds.getHeight()) + 2 * PADDING_TILES;
+    this.seenBy = new short[this.gridWidth * this.gridHeight];
+    this.mask = new BufferedImage(
+        this.gridWidth,
+        this.gridHeight,
+        BufferedImage.TYPE_INT_ARGB
     );
-    g.setRenderingHints(rh);
-    unitViews.forEach(unitView -> {
-      MapPoint position = unitView.getImagePosition(currentTime);
-      MapSize imageSize = unitView.getImageSize();
-      MapSize los = unitView.getLos();
-      g.fillOval(
-          (int)(position.x + imageSize.width / 2 - gameView.getViewBox().x() - los.width / 2),
-          (int)(position.y + imageSize.height / 2 - gameView.getViewBox().y() - los.height / 2),
-          (int)los.width,
-          (int)los.height);
-    });
+    this.maskPixels = ((DataBufferInt)this.mask.getRaster().getDataBuffer()).getData();
+    Arrays.fill(this.maskPixels, this.fogPixel);
+    this.reveals.clear();
+    this.isMaskChanged = true;
+  }
+
+  /**
+   * Adds or removes a unit from the count of every tile in its circle, clearing or covering the
+   * tiles that change between seen and unseen.
+   */
+  private void reveal(Reveal reveal, int change) {
+    int radiusTiles = (int)Math.ceil(reveal.radius);
+    double radiusSquared = reveal.radius * reveal.radius;
+    int minX = Math.max(reveal.tileX - radiusTiles - this.gridLeft, 0);
+    int maxX = Math.min(reveal.tileX + radiusTiles - this.gridLeft, this.gridWidth - 1);
+    int minY = Math.max(reveal.tileY - radiusTiles - this.gridTop, 0);
+    int maxY = Math.min(reveal.tileY + radiusTiles - this.gridTop, this.gridHeight - 1);
+    for (int y = minY; y <= maxY; y++) {
+      int dy = y + this.gridTop - reveal.tileY;
+      for (int x = minX; x <= maxX; x++) {
+        int dx = x + this.gridLeft - reveal.tileX;
+        if (dx * dx + dy * dy > radiusSquared) {
+          continue;
+        }
+        int index = y * this.gridWidth + x;
+        this.seenBy[index] += change;
+        if (this.seenBy[index] == 0) {
+          this.maskPixels[index] = this.fogPixel;
+          this.isMaskChanged = true;
+        } else if (this.seenBy[index] == 1 && change > 0) {
+          this.maskPixels[index] = 0;
+          this.isMaskChanged = true;
+        }
+      }
+    }
   }
 
   public MapPoint getImagePosition(long currentTime) {
@@ -66,8 +187,43 @@ public class FogOfWarView {
     return this.size;
   }
 
+  /**
+   * Gets the fog to draw over the screen for the view box. The same image is reused, so it
+   * should be drawn before this is called again.
+   */
+  public synchronized BufferedImage getImage(MapRect viewBox) {
+    if (!this.isMaskChanged && viewBox.equals(this.drawnViewBox)) {
+      return this.fowImage;
+    }
+    this.isMaskChanged = false;
+    this.drawnViewBox = viewBox;
+
+    this.fowGraphics.setColor(this.baseColor);
+    this.fowGraphics.fillRect(0, 0, (int)this.size.width, (int)this.size.height);
+    if (this.mask == null) {
+      return this.fowImage;
+    }
+    // Each pixel of the mask is a tile, which is a diamond on the screen
+    double halfTileWidth = this.config.getEntityViewTilePixelsX() / 2.0;
+    double halfTileHeight = this.config.getEntityViewTilePixelsY() / 2.0;
+    AffineTransform transform = new AffineTransform(
+        halfTileWidth, halfTileHeight,
+        -halfTileWidth, halfTileHeight,
+        halfTileWidth * (this.gridLeft - this.gridTop) - viewBox.x(),
+        halfTileHeight * (this.gridLeft + this.gridTop) - viewBox.y()
+    );
+    this.fowGraphics.drawImage(this.mask, transform, null);
+    return this.fowImage;
+  }
+
+  /**
+   * The circle of tiles a unit is revealing.
+   */
+  private static class Reveal {
 
-  public BufferedImage getImage() {
-    return this.fowMask;
+    private int tileX;
+    private int tileY;
+    private double radius;
+    private long calculationCount;
   }
 }
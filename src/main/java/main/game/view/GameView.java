@@ -3,11 +3,11 @@ package main.game.view;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 import main.game.controller.GameController;
@@ -15,13 +15,13 @@ import main.game.model.GameModel;
 import main.game.model.entity.Unit;
 import main.game.model.entity.usable.Ability;
 import main.game.model.world.World;
-import main.game.view.EntityView.EntityRenderableComparator;
 import main.menu.controller.events.AbilityIconClick;
 import main.menu.controller.events.ItemIconClick;
 import main.menu.controller.events.MouseClick;
 import main.menu.controller.events.MouseDrag;
 import main.menu.controller.events.UnitIconClick;
 import main.util.Config;
+import main.util.Geometry;
 import main.util.MapPoint;
 import main.util.MapPolygon;
 import main.util.MapRect;
@@ -36,6 +36,9 @@ import main.util.MapRect;
 public class GameView {
 
   private static final int SCROLL_AREA_WIDTH = 5;
+  /** Views this many tiles or more off the screen are only updated once every few ticks. */
+  private static final int OFF_SCREEN_MARGIN_TILES = 4;
+  private static final int OFF_SCREEN_TICK_INTERVAL = 4;
 
   private final Config config;
 
@@ -54,9 +57,17 @@ public class GameView {
    * rather than calling {@link List#add(Object)} for each element.
    */
   private List<Renderable> renderablesCache = new CopyOnWriteArrayList<>();
+  private final DepthOrder depthOrder = new DepthOrder();
+  /** Goes up whenever a renderable is added or removed. */
+  private final AtomicLong membershipChangeCount = new AtomicLong();
+  private long orderedMembershipChangeCount = -1;
   private FogOfWarView fogOfWarView;
   private final BackGroundView backGroundView;
 
+  private final AtomicLong changeCount = new AtomicLong();
+  private volatile boolean hasMovingRenderables = false;
+  private long tickCount = 0;
+
   /**
    * Constructor for game view sets the viewBox to start at origin 0,0.
    * @param config screen width and height must be set here
@@ -81,7 +92,6 @@ public class GameView {
       // TODO load this though the dataloader as tiles rather than one big image.
       this.backGroundView = ViewFactory.makeBackGroundView(
           config,
-          this,
           ImageIO.read(new File("resources/images/tiles/grass.png"))
       );
     } catch (IOException e) {
@@ -89,9 +99,17 @@ public class GameView {
     }
   }
 
+  /**
+   * Gets the renderables in the order to draw them at the given time. Meant to be called once per
+   * frame, the list is only valid until the next call.
+   */
   public synchronized List<Renderable> getRenderables(long currentTime) {
-    this.renderablesCache.sort(new EntityRenderableComparator(currentTime));
-    return Collections.unmodifiableList(this.renderablesCache);
+    long membershipChangeCount = this.membershipChangeCount.get();
+    if (membershipChangeCount != this.orderedMembershipChangeCount) {
+      this.depthOrder.setRenderables(this.renderablesCache);
+      this.orderedMembershipChangeCount = membershipChangeCount;
+    }
+    return this.depthOrder.sort(currentTime);
   }
 
   public synchronized FogOfWarView getFogOfWarView() {
@@ -107,16 +125,43 @@ public class GameView {
    * @param tickTime the time that the tick happened.
    */
   private synchronized void updateRenderables(long tickTime) {
-    renderablesCache.addAll(
-        this.model.getWorld().recieveRecentlyAddedEntities().stream()
-          .map(entity -> {
-            Renderable renderable = ViewFactory.makeEntityView(this.config, entity);
-            entity.getRemovedEvent().registerListener(Void -> renderablesCache.remove(renderable));
-            return renderable;
-          })
-          .collect(Collectors.toSet())
+    Set<Renderable> addedRenderables = this.model.getWorld().recieveRecentlyAddedEntities()
+        .stream()
+        .map(entity -> {
+          Renderable renderable = ViewFactory.makeEntityView(this.config, entity);
+          entity.getRemovedEvent().registerListener(Void -> {
+            renderablesCache.remove(renderable);
+            membershipChangeCount.incrementAndGet();
+          });
+          return renderable;
+        })
+        .collect(Collectors.toSet());
+    renderablesCache.addAll(addedRenderables);
+    if (!addedRenderables.isEmpty()) {
+      membershipChangeCount.incrementAndGet();
+    }
+
+    // Views far off the screen can't be seen so they are only updated every few ticks. Views that
+    // reveal fog of war still affect the screen so always update them, and new views need a tick
+    // before they can be drawn.
+    boolean updateAll = this.tickCount++ % OFF_SCREEN_TICK_INTERVAL == 0;
+    double marginX = OFF_SCREEN_MARGIN_TILES * this.config.getEntityViewTilePixelsX();
+    double marginY = OFF_SCREEN_MARGIN_TILES * this.config.getEntityViewTilePixelsY();
+    MapRect nearScreen = new MapRect(
+        this.viewBox.x() - marginX,
+        this.viewBox.y() - marginY,
+        this.viewBox.getWidth() + 2 * marginX,
+        this.viewBox.getHeight() + 2 * marginY
     );
-    this.renderablesCache.forEach(entityView -> entityView.onTick(tickTime, model));
+    for (Renderable renderable : this.renderablesCache) {
+      if (updateAll
+          || addedRenderables.contains(renderable)
+          || renderable.isInside(nearScreen)
+          || renderable instanceof UnitView && ((UnitView) renderable).revealsFogOfWar()) {
+        renderable.onTick(tickTime, model);
+      }
+    }
+    this.hasMovingRenderables = this.renderablesCache.stream().anyMatch(Renderable::isMoving);
 
     // Update FoW
 
@@ -126,7 +171,7 @@ public class GameView {
         .filter(entityView -> entityView instanceof UnitView)
         .filter(unitView -> ((UnitView) unitView).revealsFogOfWar())
         .forEach(unitView -> revealingUnits.add((UnitView)unitView));
-    fogOfWarView.calculate(revealingUnits, this, tickTime);
+    fogOfWarView.calculate(revealingUnits, this.world.getCurrentLevelBounds());
   }
 
   private synchronized void updateViewBoxPosition() {
@@ -162,9 +207,30 @@ public class GameView {
     }
   }
 
-  public void onTick(Long timeSinceLastTick) {
-    this.updateRenderables(timeSinceLastTick);
+  /**
+   * Called when the Main Game Loop ticks.
+   *
+   * @param tickTime the time that the tick happened.
+   */
+  public void onTick(Long tickTime) {
+    this.updateRenderables(tickTime);
     this.updateViewBoxPosition();
+    this.changeCount.incrementAndGet();
+  }
+
+  /**
+   * Counts the changes to what is drawn, other than movement between ticks. Goes up every tick.
+   */
+  public long getChangeCount() {
+    return this.changeCount.get();
+  }
+
+  /**
+   * Whether anything drawn moves between ticks (see {@link Renderable#isMoving()}), so that a
+   * frame drawn now would be different to one drawn earlier without any tick in between.
+   */
+  public boolean hasMovingRenderables() {
+    return this.hasMovingRenderables;
   }
 
   /**
@@ -181,13 +247,13 @@ public class GameView {
     int originAdjustedX = (int)(x + this.viewBox.x());
     int originAdjustedY = (int)(y + this.viewBox.y());
 
-    double tileWidthHalf = this.config.getEntityViewTilePixelsX() / 2D;
-    double tileHeightHalf = this.config.getEntityViewTilePixelsY() / 2D;
+    double tileWidth = this.config.getEntityViewTilePixelsX();
+    double tileHeight = this.config.getEntityViewTilePixelsY();
 
-    double mapX = ((originAdjustedY / tileHeightHalf) + (originAdjustedX / tileWidthHalf)) / 2;
-    double mapY = ((originAdjustedY / tileHeightHalf) - (originAdjustedX / tileWidthHalf)) / 2;
-
-    return new MapPoint(mapX, mapY);
+    return new MapPoint(
+        Geometry.mapXFromIsometric(originAdjustedX, originAdjustedY, tileWidth, tileHeight),
+        Geometry.mapYFromIsometric(originAdjustedX, originAdjustedY, tileWidth, tileHeight)
+    );
   }
 
   public MapRect getViewBox() {
@@ -3,7 +3,9 @@ package main.game.view;
 import java.awt.Graphics2D;
 import main.game.model.GameModel;
 import main.game.model.data.dataobject.ImageData;
+import main.util.Geometry;
 import main.util.MapPoint;
+import main.util.MapRect;
 import main.util.MapSize;
 
 /**
@@ -55,6 +57,33 @@ public interface Renderable {
    */
   MapPoint getEffectiveEntityPosition(long currentTime);
 
+  /**
+   * Gets how close to the viewer the entity is for sorting, bigger is closer. See {@link
+   * Geometry#isometricDepth(double, double)}.
+   */
+  default double getDepth(long currentTime) {
+    MapPoint position = getEffectiveEntityPosition(currentTime);
+    return Geometry.isometricDepth(position.x, position.y);
+  }
+
+  /**
+   * Whether the position of this changes with the current time between ticks, so that it has to be
+   * drawn again even if nothing has ticked.
+   */
+  default boolean isMoving() {
+    return true;
+  }
+
+  /**
+   * Whether any of the image is inside an area of the screen, going by the model as it is now
+   * rather than the last tick. Things that aren't near the view box don't need updating every tick.
+   *
+   * @param screenArea the area in pixels, relative to the origin of the view
+   */
+  default boolean isInside(MapRect screenArea) {
+    return true;
+  }
+
   /**
    * Gets the position the entity should be on the screen.
    * Does not adujst for viewbox changes.
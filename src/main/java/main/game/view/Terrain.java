@@ -0,0 +1,19 @@
+package main.game.view;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+
+/**
+ * The ground of the map, which is drawn one tile at a time and cached by {@link BackGroundView}.
+ */
+interface Terrain {
+
+  /**
+   * Draws a tile.
+   *
+   * @param g graphics in pixels relative to the origin of the view (see {@link
+   *        EntityView#tileToPix})
+   * @param tileShape the diamond the tile covers
+   */
+  void drawTile(Graphics2D g, int tileX, int tileY, Shape tileShape);
+}
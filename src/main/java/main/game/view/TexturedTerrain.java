@@ -0,0 +1,32 @@
+package main.game.view;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.TexturePaint;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Terrain that is the same texture everywhere, e.g. grass. The texture is lined up across the
+ * whole map so there are no seams between tiles.
+ */
+class TexturedTerrain implements Terrain {
+
+  private final TexturePaint paint;
+
+  /**
+   * Creates the terrain.
+   *
+   * @param width the width in pixels to stretch the texture to
+   * @param height the height in pixels to stretch the texture to
+   */
+  TexturedTerrain(BufferedImage texture, int width, int height) {
+    this.paint = new TexturePaint(texture, new Rectangle2D.Double(0, 0, width, height));
+  }
+
+  @Override
+  public void drawTile(Graphics2D g, int tileX, int tileY, Shape tileShape) {
+    g.setPaint(this.paint);
+    g.fill(tileShape);
+  }
+}
@@ -10,7 +10,6 @@ import main.game.model.entity.Team;
 import main.game.model.entity.Unit;
 import main.util.Config;
 import main.util.MapPoint;
-import main.util.MapSize;
 
 /**
  * View of a unit.
@@ -31,11 +30,11 @@ public class UnitView extends EntityView {
     this.unit = unit;
   }
 
-  MapSize getLos() {
-    return new MapSize(
-        this.unit.getLineOfSight() * this.config.getEntityViewTilePixelsX(),
-        this.unit.getLineOfSight() * this.config.getEntityViewTilePixelsY()
-    );
+  /**
+   * How far the unit can see in tiles.
+   */
+  double getLineOfSight() {
+    return this.unit.getLineOfSight();
   }
 
   boolean revealsFogOfWar() {
@@ -24,9 +24,18 @@ class ViewFactory {
     return new FogOfWarView(config);
   }
 
-  static BackGroundView makeBackGroundView(Config config,
-                                           GameView gameView,
-                                           BufferedImage baseImage) {
-    return new BackGroundView(config, gameView, baseImage);
+  /**
+   * Makes the background, covering the map with the base image stretched to the size of the
+   * screen.
+   */
+  static BackGroundView makeBackGroundView(Config config, BufferedImage baseImage) {
+    return new BackGroundView(
+        config,
+        new TexturedTerrain(
+            baseImage,
+            config.getContextScreenWidth(),
+            config.getContextScreenHeight()
+        )
+    );
   }
 }
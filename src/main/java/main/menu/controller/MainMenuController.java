@@ -97,7 +97,8 @@ public class MainMenuController extends MenuController {
         gameModel,
         world
     );
-    tickEvent.registerListener(gameView::onTick);
+    // The views interpolate between ticks so need to know when the tick happened
+    tickEvent.registerListener(timeSinceLastTick -> gameView.onTick(System.currentTimeMillis()));
     Renderer renderer = new DefaultRenderer(gameView, this.imageView, config, new Looper());
     Hud hud = new Hud(
         this.main,
@@ -110,7 +111,7 @@ public class MainMenuController extends MenuController {
     );
     tickEvent.registerListener(parameter -> hud.updateIcons());
     tickEvent.registerListener(parameter -> hud.updateGoal(world.getCurrentGoalDescription()));
-    tickEvent.registerListener(parameter -> world.tick(config.getGameModelDelay()));
+    tickEvent.registerListener(world::tick);
     wonEvent.registerListener(parameter -> {
       gameModel.stopGame();
       renderer.stop();
@@ -3,16 +3,24 @@ package main.renderer;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import main.game.view.Renderable;
-import main.game.view.BackGroundView;
 import main.game.view.EntityView;
 import main.game.view.GameView;
 import main.util.Config;
 import main.util.Looper;
 import main.util.MapPoint;
+import main.util.MapRect;
 import main.util.MapSize;
 
 /**
@@ -22,11 +30,29 @@ import main.util.MapSize;
  */
 public class DefaultRenderer implements Renderer {
 
+  /** Pixels around the screen that a renderable can be in and still be drawn. */
+  private static final int CULL_MARGIN = 128;
+  private static final int BOUNDS_PER_RENDERABLE = 8;
+
   private final GameView gameView;
   private final ImageView imageView;
   private final Config config;
   private final Looper looper;
 
+  private final FrameBuffers frameBuffers = new FrameBuffers();
+  private final ScaledSpriteCache spriteCache;
+  private final AtomicBoolean isUploadScheduled = new AtomicBoolean(false);
+  /** The image shown by the image view, only used on the FX thread. */
+  private WritableImage fxImage;
+
+  private final AtomicLong lateFrameCount = new AtomicLong();
+  private final AtomicLong skippedFrameCount = new AtomicLong();
+  /** The renderables on the screen this frame, only used by the drawing thread. */
+  private Renderable[] visibleRenderables = new Renderable[0];
+  private int[] visibleBounds = new int[0];
+  /** The change count of the game view when the last frame was drawn. */
+  private long lastDrawnChangeCount = -1;
+
   /**
    * Creates a Renderer and the rendering loop.
    *
@@ -40,6 +66,7 @@ public class DefaultRenderer implements Renderer {
     this.imageView = imageView;
     this.config = config;
     this.looper = looper;
+    this.spriteCache = new ScaledSpriteCache(config.getSpriteCacheBytes());
   }
 
   @Override
@@ -47,6 +74,20 @@ public class DefaultRenderer implements Renderer {
     Objects.requireNonNull(gameView);
     Objects.requireNonNull(imageView);
 
+    if (config.isBufferedRendering()) {
+      FrameBuffers.Frame frame = frameBuffers.getBack(
+          config.getContextScreenWidth(),
+          config.getContextScreenHeight()
+      );
+      draw(frame.getGraphics(), currentTime, gameView);
+      frameBuffers.publish();
+      // Only one upload needs to be waiting, it will show the newest frame
+      if (!isUploadScheduled.getAndSet(true)) {
+        Platform.runLater(() -> uploadFrame(imageView));
+      }
+      return;
+    }
+
     BufferedImage image = new BufferedImage(config.getContextScreenWidth(),
         config.getContextScreenHeight(),
         BufferedImage.TYPE_INT_ARGB);
@@ -56,42 +97,39 @@ public class DefaultRenderer implements Renderer {
         RenderingHints.VALUE_ANTIALIAS_ON
     );
     g.setRenderingHints(rh);
-    BackGroundView background = gameView.getBackGroundView();
-    g.drawImage(background.getImage(),
-        (int)background.getImagePosition().x,
-        (int)background.getImagePosition().y,
-        (int)background.getImageSize().width,
-        (int)background.getImageSize().height,
-        null);
-    for (Renderable renderable : gameView.getRenderables(currentTime)) {
-      MapPoint position = renderable.getEntityScreenPosition(currentTime);
-      MapSize size = renderable.getEntityScreenSize();
-      renderable.drawDecorationsBeneth(g,
-          (int)(position.x - gameView.getViewBox().topLeft.x),
-          (int)(position.y - gameView.getViewBox().topLeft.y),
-          (int)size.width,
-          (int)size.height);
+    draw(g, currentTime, gameView);
+    imageView.setImage(SwingFXUtils.toFXImage(image, null));
+
+  }
+
+  private void draw(Graphics2D g, long currentTime, GameView gameView) {
+    MapRect viewBox = gameView.getViewBox();
+    gameView.getBackGroundView().draw(g, viewBox);
+    int visibleCount = cullRenderables(gameView.getRenderables(currentTime), currentTime, viewBox);
+    for (int i = 0; i < visibleCount; i++) {
+      int b = i * BOUNDS_PER_RENDERABLE;
+      visibleRenderables[i].drawDecorationsBeneth(
+          g, visibleBounds[b], visibleBounds[b + 1], visibleBounds[b + 2], visibleBounds[b + 3]
+      );
     }
-    for (Renderable renderable : gameView.getRenderables(currentTime)) {
-      MapPoint position = renderable.getImagePosition(currentTime);
-      MapSize size = renderable.getImageSize();
-      g.drawImage(renderable.getImage().getImage(),
-          (int)(position.x - gameView.getViewBox().topLeft.x),
-          (int)(position.y - gameView.getViewBox().topLeft.y),
-          (int)size.width,
-          (int)size.height,
-          null);
+    for (int i = 0; i < visibleCount; i++) {
+      int b = i * BOUNDS_PER_RENDERABLE;
+      spriteCache.draw(g,
+          visibleRenderables[i].getImage(),
+          visibleBounds[b + 4],
+          visibleBounds[b + 5],
+          visibleBounds[b + 6],
+          visibleBounds[b + 7]);
     }
-    for (Renderable renderable : gameView.getRenderables(currentTime)) {
-      MapPoint position = renderable.getEntityScreenPosition(currentTime);
-      MapSize size = renderable.getEntityScreenSize();
-      renderable.drawDecorationsOntop(g,
-          (int)(position.x - gameView.getViewBox().topLeft.x),
-          (int)(position.y - gameView.getViewBox().topLeft.y),
-          (int)size.width,
-          (int)size.height);
+    for (int i = 0; i < visibleCount; i++) {
+      int b = i * BOUNDS_PER_RENDERABLE;
+      visibleRenderables[i].drawDecorationsOntop(
+          g, visibleBounds[b], visibleBounds[b + 1], visibleBounds[b + 2], visibleBounds[b + 3]
+      );
     }
-    g.drawImage(gameView.getFogOfWarView().getImage(), 0, 0, null);
+    // Don't hold on to renderables that might be removed
+    Arrays.fill(visibleRenderables, 0, visibleCount, null);
+    g.drawImage(gameView.getFogOfWarView().getImage(viewBox), 0, 0, null);
 
     if (config.isDebugMode()) {
       for (int i = 0; i < 100; i++) {
@@ -120,8 +158,99 @@ public class DefaultRenderer implements Renderer {
       }
 
     }
-    imageView.setImage(SwingFXUtils.toFXImage(image, null));
+  }
+
+  /**
+   * Finds the renderables that are at least partly on the screen and works out where to draw
+   * them, so that the rest aren't drawn at all. The renderables are put in visibleRenderables, and
+   * the screen bounds of each (entity x, y, width, height then sprite x, y, width, height) in
+   * visibleBounds.
+   *
+   * @return the number of visible renderables
+   */
+  private int cullRenderables(List<Renderable> renderables, long currentTime, MapRect viewBox) {
+    if (visibleRenderables.length < renderables.size()) {
+      visibleRenderables = new Renderable[renderables.size() * 2];
+      visibleBounds = new int[visibleRenderables.length * BOUNDS_PER_RENDERABLE];
+    }
+    int screenWidth = (int) viewBox.getWidth();
+    int screenHeight = (int) viewBox.getHeight();
+
+    int count = 0;
+    for (Renderable renderable : renderables) {
+      MapPoint position = renderable.getEntityScreenPosition(currentTime);
+      MapSize size = renderable.getEntityScreenSize();
+      MapPoint imagePosition = renderable.getImagePosition(currentTime);
+      MapSize imageSize = renderable.getImageSize();
+      int x = (int) (position.x - viewBox.topLeft.x);
+      int y = (int) (position.y - viewBox.topLeft.y);
+      int imageX = (int) (imagePosition.x - viewBox.topLeft.x);
+      int imageY = (int) (imagePosition.y - viewBox.topLeft.y);
+
+      // Decorations are drawn around the entity so give them some room
+      int left = Math.min(x, imageX) - CULL_MARGIN;
+      int top = Math.min(y, imageY) - CULL_MARGIN;
+      int right = Math.max(x + (int) size.width, imageX + (int) imageSize.width) + CULL_MARGIN;
+      int bottom = Math.max(y + (int) size.height, imageY + (int) imageSize.height) + CULL_MARGIN;
+      if (right < 0 || bottom < 0 || left > screenWidth || top > screenHeight) {
+        continue;
+      }
 
+      visibleRenderables[count] = renderable;
+      int b = count * BOUNDS_PER_RENDERABLE;
+      visibleBounds[b] = x;
+      visibleBounds[b + 1] = y;
+      visibleBounds[b + 2] = (int) size.width;
+      visibleBounds[b + 3] = (int) size.height;
+      visibleBounds[b + 4] = imageX;
+      visibleBounds[b + 5] = imageY;
+      visibleBounds[b + 6] = (int) imageSize.width;
+      visibleBounds[b + 7] = (int) imageSize.height;
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Copies the newest frame into the image shown by the image view. Must be called on the FX
+   * thread.
+   */
+  private void uploadFrame(ImageView imageView) {
+    isUploadScheduled.set(false);
+    FrameBuffers.Frame frame = frameBuffers.takeFront();
+    if (frame == null) {
+      return;
+    }
+    int width = frame.getWidth();
+    int height = frame.getHeight();
+    if (fxImage == null || fxImage.getWidth() != width || fxImage.getHeight() != height) {
+      fxImage = new WritableImage(width, height);
+    }
+    fxImage.getPixelWriter().setPixels(
+        0, 0, width, height, PixelFormat.getIntArgbPreInstance(), frame.getPixels(), 0, width
+    );
+    if (imageView.getImage() != fxImage) {
+      imageView.setImage(fxImage);
+    }
+  }
+
+  /**
+   * Draws a frame unless it would look the same as the last one.
+   */
+  private void renderFrame(long framePeriodNanos) {
+    // Read before drawing so a tick during the frame gets drawn next time
+    long changeCount = gameView.getChangeCount();
+    if (changeCount == lastDrawnChangeCount && !gameView.hasMovingRenderables()) {
+      skippedFrameCount.incrementAndGet();
+      return;
+    }
+    lastDrawnChangeCount = changeCount;
+
+    long startTime = System.nanoTime();
+    drawAll(System.currentTimeMillis(), gameView, imageView);
+    if (System.nanoTime() - startTime > framePeriodNanos) {
+      lateFrameCount.incrementAndGet();
+    }
   }
 
   @Override
@@ -136,13 +265,28 @@ public class DefaultRenderer implements Renderer {
 
   @Override
   public void start() {
-    looper.start(
-        () -> drawAll(System.currentTimeMillis(), gameView, imageView)
-    );
+    int targetFps = config.getTargetFps();
+    long framePeriodNanos = TimeUnit.SECONDS.toNanos(1) / targetFps;
+    looper.startAtFrameRate(() -> renderFrame(framePeriodNanos), targetFps);
   }
 
   @Override
   public void stop() {
     looper.stop();
   }
+
+  @Override
+  public long getLateFrameCount() {
+    return lateFrameCount.get();
+  }
+
+  @Override
+  public long getDroppedFrameCount() {
+    return looper.getDroppedTickCount();
+  }
+
+  @Override
+  public long getSkippedFrameCount() {
+    return skippedFrameCount.get();
+  }
 }
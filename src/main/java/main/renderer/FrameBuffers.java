@@ -0,0 +1,110 @@
+package main.renderer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Three frames that are reused forever, passed between the thread that draws them and the FX
+ * thread that shows them (triple buffering). The drawing thread always has a frame to draw into
+ * and the FX thread always gets the newest finished frame, so neither waits for the other and no
+ * frame is copied except when the FX thread uploads it.
+ */
+class FrameBuffers {
+
+  private final AtomicReference<Frame> ready;
+  /** Only used by the drawing thread. */
+  private Frame back;
+  /** Only used by the FX thread. */
+  private Frame front;
+
+  FrameBuffers() {
+    this.back = new Frame();
+    this.ready = new AtomicReference<>(new Frame());
+    this.front = new Frame();
+  }
+
+  /**
+   * Gets the frame to draw into, cleared and at least the given size. Only call from the drawing
+   * thread.
+   */
+  Frame getBack(int width, int height) {
+    back.prepare(width, height);
+    return back;
+  }
+
+  /**
+   * Makes the frame from {@link #getBack(int, int)} the newest finished frame. Only call from the
+   * drawing thread.
+   */
+  void publish() {
+    back.isNew = true;
+    back = ready.getAndSet(back);
+  }
+
+  /**
+   * Takes the newest finished frame, if there is one that hasn't been taken yet. The frame belongs
+   * to the caller until the next call. Only call from the FX thread.
+   *
+   * @return the frame or null if there isn't a new one
+   */
+  Frame takeFront() {
+    if (!ready.get().isNew) {
+      return null;
+    }
+    front.isNew = false;
+    front = ready.getAndSet(front);
+    return front;
+  }
+
+  /**
+   * A frame backed by an int array of premultiplied ARGB pixels.
+   */
+  static class Frame {
+
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int[] pixels;
+    private volatile boolean isNew = false;
+
+    private void prepare(int width, int height) {
+      if (image == null || image.getWidth() != width || image.getHeight() != height) {
+        if (graphics != null) {
+          graphics.dispose();
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        graphics = image.createGraphics();
+        graphics.setRenderingHints(new RenderingHints(
+            RenderingHints.KEY_ANTIALIASING,
+            RenderingHints.VALUE_ANTIALIAS_ON
+        ));
+      } else {
+        Arrays.fill(pixels, 0);
+      }
+    }
+
+    /**
+     * The graphics to draw the frame with. Kept for the life of the frame so its state (colour,
+     * font, etc.) carries over between frames.
+     */
+    Graphics2D getGraphics() {
+      return graphics;
+    }
+
+    int[] getPixels() {
+      return pixels;
+    }
+
+    int getWidth() {
+      return image.getWidth();
+    }
+
+    int getHeight() {
+      return image.getHeight();
+    }
+  }
+}
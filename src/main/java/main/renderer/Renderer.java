@@ -43,4 +43,19 @@ public interface Renderer {
    * Stops the looper.
    */
   void stop();
+
+  /**
+   * Number of frames that took longer to draw than the time between frames.
+   */
+  long getLateFrameCount();
+
+  /**
+   * Number of frames that weren't drawn because the rendering loop fell behind.
+   */
+  long getDroppedFrameCount();
+
+  /**
+   * Number of frames that weren't drawn because nothing had changed since the last one.
+   */
+  long getSkippedFrameCount();
 }
@@ -0,0 +1,193 @@
+package main.renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import main.game.model.data.dataobject.ImageData;
+import main.game.model.data.dataobject.SpriteSheetData;
+import main.game.model.data.dataobject.SpriteSheetData.FrameKey;
+
+/**
+ * Keeps sprites already scaled to the size they are drawn at, so drawing them is a plain copy
+ * instead of scaling every frame. Each sprite also has a chain of mipmaps (each half the size of
+ * the one before) so that shrinking it, e.g. when the tiles get smaller, is done from the closest
+ * level and stays smooth.
+ *
+ * <p>
+ * Scaled images and mipmaps are both kept by frame and size, so a frame can be cached at as many
+ * sizes as are on screen (e.g. units of different levels). The images that haven't been used for
+ * the longest are dropped once the cache uses more than its budget, which counts every image the
+ * cache holds. The frames themselves belong to their sprite sheets and aren't counted.
+ * </p>
+ *
+ * <p>
+ * Images are kept by the {@link ImageData#getCacheKey()} of the frame, which doesn't hold on to the
+ * frame's atlas. The images of a sheet are dropped as soon as the sheet is released, so that the
+ * sheet's frames and atlas can be thrown away. Only the drawing thread should use this.
+ * </p>
+ */
+class ScaledSpriteCache {
+
+  /** Sprites drawn bigger than this aren't cached, they would use too much of the budget. */
+  private static final int MAX_CACHED_SIZE = 1024;
+
+  private final long budgetBytes;
+  /** Scaled images and mipmaps from least to most recently used. */
+  private final Map<Key, BufferedImage> images = new LinkedHashMap<>(256, 0.75f, true);
+  /** Reused to look images up without allocating. */
+  private final Key lookupKey = new Key(null, 0, 0);
+  private long usedBytes = 0;
+  /** The {@link SpriteSheetData#getReleaseCount()} when released sheets were last dropped. */
+  private int releaseCount = SpriteSheetData.getReleaseCount();
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param budgetBytes the most memory the scaled images and mipmaps can use
+   */
+  ScaledSpriteCache(long budgetBytes) {
+    this.budgetBytes = budgetBytes;
+  }
+
+  /**
+   * Draws an image stretched over a rectangle.
+   */
+  void draw(Graphics2D g, ImageData imageData, int x, int y, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    if (width > MAX_CACHED_SIZE || height > MAX_CACHED_SIZE) {
+      imageData.draw(g, x, y, width, height);
+      return;
+    }
+    this.dropReleasedSheets();
+    Object frame = imageData.getCacheKey();
+    BufferedImage scaled = this.get(frame, width, height);
+    if (scaled == null) {
+      scaled = scale(this.getMipmapFor(imageData, width, height), width, height);
+      this.put(frame, scaled);
+      this.evict();
+    }
+    g.drawImage(scaled, x, y, null);
+  }
+
+  /**
+   * Gets the smallest mipmap that is at least the given size, making more levels if they are
+   * needed. Anything bigger than the frame uses the frame.
+   */
+  private BufferedImage getMipmapFor(ImageData imageData, int width, int height) {
+    Object frame = imageData.getCacheKey();
+    BufferedImage mipmap = imageData.getImage();
+    while (mipmap.getWidth() / 2 >= width && mipmap.getHeight() / 2 >= height) {
+      int nextWidth = mipmap.getWidth() / 2;
+      int nextHeight = mipmap.getHeight() / 2;
+      BufferedImage next = this.get(frame, nextWidth, nextHeight);
+      if (next == null) {
+        next = scale(mipmap, nextWidth, nextHeight);
+        this.put(frame, next);
+      }
+      mipmap = next;
+    }
+    return mipmap;
+  }
+
+  private BufferedImage get(Object frame, int width, int height) {
+    this.lookupKey.frame = frame;
+    this.lookupKey.width = width;
+    this.lookupKey.height = height;
+    BufferedImage image = this.images.get(this.lookupKey);
+    this.lookupKey.frame = null;
+    return image;
+  }
+
+  private void put(Object frame, BufferedImage image) {
+    this.images.put(new Key(frame, image.getWidth(), image.getHeight()), image);
+    this.usedBytes += bytesOf(image);
+  }
+
+  /**
+   * Drops the least recently used images until the cache fits in the budget. The image that was
+   * just added is never dropped.
+   */
+  private void evict() {
+    Iterator<BufferedImage> iterator = this.images.values().iterator();
+    while (this.usedBytes > this.budgetBytes && this.images.size() > 1) {
+      this.usedBytes -= bytesOf(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Drops the images of sheets that have been released since the last time, if any have.
+   */
+  private void dropReleasedSheets() {
+    int releaseCount = SpriteSheetData.getReleaseCount();
+    if (releaseCount == this.releaseCount) {
+      return;
+    }
+    this.releaseCount = releaseCount;
+    Iterator<Map.Entry<Key, BufferedImage>> iterator = this.images.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, BufferedImage> entry = iterator.next();
+      Object frame = entry.getKey().frame;
+      if (frame instanceof FrameKey && !((FrameKey) frame).getSheet().isKept()) {
+        this.usedBytes -= bytesOf(entry.getValue());
+        iterator.remove();
+      }
+    }
+  }
+
+  private static long bytesOf(BufferedImage image) {
+    return (long)image.getWidth() * image.getHeight() * Integer.BYTES;
+  }
+
+  private static BufferedImage scale(BufferedImage image, int width, int height) {
+    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g = scaled.createGraphics();
+    g.setComposite(AlphaComposite.Src);
+    g.setRenderingHint(
+        RenderingHints.KEY_INTERPOLATION,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR
+    );
+    g.drawImage(image, 0, 0, width, height, null);
+    g.dispose();
+    return scaled;
+  }
+
+  /**
+   * A frame, identified by its {@link ImageData#getCacheKey()}, at a size.
+   */
+  private static class Key {
+
+    private Object frame;
+    private int width;
+    private int height;
+
+    Key(Object frame, int width, int height) {
+      this.frame = frame;
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(this.frame, key.frame)
+          && this.width == key.width
+          && this.height == key.height;
+    }
+
+    @Override
+    public int hashCode() {
+      return (Objects.hashCode(this.frame) * 31 + this.width) * 31 + this.height;
+    }
+  }
+}
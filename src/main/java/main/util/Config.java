@@ -11,8 +11,16 @@ public class Config {
 
   private boolean isDebugMode = false;
 
+  private boolean isBufferedRendering = true;
+
   private int gameModelDelay = 50;
 
+  private int targetFps = 60;
+
+  private long terrainCacheBytes = 48L * 1024 * 1024;
+
+  private long spriteCacheBytes = 64L * 1024 * 1024;
+
   private double gameViewScrollSpeed = 50;
 
   private double entityViewTilePixelsRatio = 2.0 / 3;
@@ -35,10 +43,59 @@ public class Config {
     return isDebugMode;
   }
 
+  /**
+   * Makes the renderer draw a new image for every frame instead of reusing its buffers.
+   */
+  public void disableBufferedRendering() {
+    this.isBufferedRendering = false;
+  }
+
+  /**
+   * Whether the renderer draws into reused pixel buffers and copies them straight into the image
+   * shown on screen, instead of making new images every frame.
+   */
+  public boolean isBufferedRendering() {
+    return isBufferedRendering;
+  }
+
   public int getGameModelDelay() {
     return gameModelDelay;
   }
 
+  /**
+   * The most frames per second the renderer draws.
+   */
+  public int getTargetFps() {
+    return targetFps;
+  }
+
+  /**
+   * Sets the most frames per second the renderer draws.
+   *
+   * @throws IllegalArgumentException if it isn't positive
+   */
+  public void setTargetFps(int targetFps) {
+    if (targetFps <= 0) {
+      throw new IllegalArgumentException("The target fps must be positive: " + targetFps);
+    }
+    this.targetFps = targetFps;
+  }
+
+  /**
+   * The most memory that pre-drawn chunks of terrain can use.
+   */
+  public long getTerrainCacheBytes() {
+    return terrainCacheBytes;
+  }
+
+  /**
+   * The most memory that sprites scaled to the size they are drawn at, and their mipmaps, can use.
+   * The frames they are scaled from aren't counted.
+   */
+  public long getSpriteCacheBytes() {
+    return spriteCacheBytes;
+  }
+
   public double getGameViewScrollSpeed() {
     return gameViewScrollSpeed;
   }
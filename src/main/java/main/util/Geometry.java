@@ -0,0 +1,109 @@
+package main.util;
+
+/**
+ * Geometry on plain doubles, for code that runs for every entity every tick or frame and shouldn't
+ * allocate a {@link MapPoint}, {@link MapSize} or {@link MapRect} for each calculation. The value
+ * classes use the same conventions and call through to these.
+ */
+public final class Geometry {
+
+  private static final double FULL_TURN = 2 * Math.PI;
+
+  private Geometry() {
+  }
+
+  /**
+   * The square of the distance between two points. Compare it to the square of a distance to avoid
+   * a square root.
+   */
+  public static double distanceSquared(double x1, double y1, double x2, double y2) {
+    double dx = x2 - x1;
+    double dy = y2 - y1;
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * The distance between two points.
+   */
+  public static double distance(double x1, double y1, double x2, double y2) {
+    return Math.hypot(x2 - x1, y2 - y1);
+  }
+
+  /**
+   * The angle in radians from the positive horizontal to the line from one point to another, going
+   * anticlockwise on the screen (i.e. towards negative y). Between 0 and 2 pi.
+   */
+  public static double angle(double fromX, double fromY, double toX, double toY) {
+    double angle = Math.atan2(fromY - toY, toX - fromX);
+    return angle < 0 ? angle + FULL_TURN : angle;
+  }
+
+  /**
+   * Whether a point is inside a rectangle, including its edges.
+   */
+  public static boolean rectContains(
+      double left, double top, double width, double height, double x, double y
+  ) {
+    return x >= left && x <= left + width && y >= top && y <= top + height;
+  }
+
+  /**
+   * Whether two rectangles share any area. Rectangles that only touch don't overlap.
+   */
+  public static boolean rectsOverlap(
+      double left1, double top1, double width1, double height1,
+      double left2, double top2, double width2, double height2
+  ) {
+    return width1 > 0 && height1 > 0 && width2 > 0 && height2 > 0
+        && left1 < left2 + width2 && left2 < left1 + width1
+        && top1 < top2 + height2 && top2 < top1 + height1;
+  }
+
+  /**
+   * The horizontal pixel position of a map position on the isometric screen, relative to the
+   * screen position of the map origin.
+   *
+   * @param tileWidth width in pixels of a tile on the screen
+   */
+  public static double isometricX(double mapX, double mapY, double tileWidth) {
+    return tileWidth / 2 * (mapX - mapY);
+  }
+
+  /**
+   * The vertical pixel position of a map position on the isometric screen, relative to the screen
+   * position of the map origin.
+   *
+   * @param tileHeight height in pixels of a tile on the screen
+   */
+  public static double isometricY(double mapX, double mapY, double tileHeight) {
+    return tileHeight / 2 * (mapX + mapY);
+  }
+
+  /**
+   * The map x of a pixel position on the isometric screen. Inverse of {@link #isometricX(double,
+   * double, double)} and {@link #isometricY(double, double, double)}.
+   */
+  public static double mapXFromIsometric(
+      double pixelX, double pixelY, double tileWidth, double tileHeight
+  ) {
+    return pixelX / tileWidth + pixelY / tileHeight;
+  }
+
+  /**
+   * The map y of a pixel position on the isometric screen. Inverse of {@link #isometricX(double,
+   * double, double)} and {@link #isometricY(double, double, double)}.
+   */
+  public static double mapYFromIsometric(
+      double pixelX, double pixelY, double tileWidth, double tileHeight
+  ) {
+    return pixelY / tileHeight - pixelX / tileWidth;
+  }
+
+  /**
+   * The depth of a map position on the isometric screen, bigger is closer to the viewer. Sorting by
+   * this draws things in front of what they should cover.
+   */
+  public static double isometricDepth(double mapX, double mapY) {
+    return mapX + mapY;
+  }
+}
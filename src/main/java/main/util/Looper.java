@@ -1,8 +1,9 @@
 package main.util;
 
-import static java.lang.Thread.sleep;
-
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 /**
  * Loops some runnable on this new {@link Thread}.
@@ -12,6 +13,9 @@ public class Looper {
 
   private final AtomicBoolean isPaused = new AtomicBoolean(false);
   private final AtomicBoolean isRunning = new AtomicBoolean(false);
+  private final AtomicBoolean wasResumed = new AtomicBoolean(false);
+  private final AtomicLong lateTickCount = new AtomicLong();
+  private final AtomicLong droppedTickCount = new AtomicLong();
   private final Object pauseLock = new Object();
 
   /**
@@ -42,21 +46,95 @@ public class Looper {
   }
 
   /**
-   * Start looping on a new thread with a schedule.
-   * @param repeatable method to run
-   * @param delay time between ticks
+   * Start looping on a new thread, running the step once per period on average. Each step is
+   * scheduled against a {@link System#nanoTime()} deadline rather than sleeping a fixed delay after
+   * it, so the time the step takes doesn't slow the loop down. When steps fall behind (e.g. one
+   * takes longer than the period) up to maxCatchUpSteps are run back to back to catch up, and any
+   * more behind than that are dropped.
+   *
+   * @param step method to run, given the time it should simulate in milliseconds
+   * @param periodMillis time between steps
+   * @param maxCatchUpSteps most steps to run back to back when behind
    */
-  public void startWithSchedule(Runnable repeatable, long delay) {
+  public void startAtFixedRate(LongConsumer step, long periodMillis, int maxCatchUpSteps) {
+    if (periodMillis <= 0) {
+      throw new IllegalArgumentException();
+    }
+    startAtFixedRateNanos(
+        () -> step.accept(periodMillis),
+        TimeUnit.MILLISECONDS.toNanos(periodMillis),
+        maxCatchUpSteps
+    );
+  }
+
+  /**
+   * Start looping on a new thread, running the frame the given number of times per second and
+   * sleeping in between. A frame is never run to catch up: when the loop falls behind the missed
+   * frames are dropped and counted in {@link #getDroppedTickCount()}.
+   */
+  public void startAtFrameRate(Runnable frame, int framesPerSecond) {
+    if (framesPerSecond <= 0) {
+      throw new IllegalArgumentException();
+    }
+    startAtFixedRateNanos(frame, TimeUnit.SECONDS.toNanos(1) / framesPerSecond, 1);
+  }
+
+  private void startAtFixedRateNanos(Runnable step, long periodNanos, int maxCatchUpSteps) {
+    if (periodNanos <= 0 || maxCatchUpSteps < 1) {
+      throw new IllegalArgumentException();
+    }
+    final long[] deadline = {System.nanoTime()};
     start(() -> {
-      repeatable.run();
-      try {
-        sleep(delay);
-      } catch (InterruptedException e) {
-        throw new IllegalStateException("task interrupted", e);
+      long now = System.nanoTime();
+      if (wasResumed.getAndSet(false)) {
+        // Don't try to catch up on the time spent paused
+        deadline[0] = now;
+      }
+
+      int steps = 0;
+      while (now - deadline[0] >= 0 && steps < maxCatchUpSteps) {
+        step.run();
+        deadline[0] += periodNanos;
+        steps++;
+        now = System.nanoTime();
+      }
+      if (steps > 1) {
+        lateTickCount.addAndGet(steps - 1);
+      }
+      if (now - deadline[0] >= 0) {
+        // Too far behind, give up on the missed steps
+        long missed = (now - deadline[0]) / periodNanos + 1;
+        droppedTickCount.addAndGet(missed);
+        deadline[0] += missed * periodNanos;
+      }
+
+      long sleepNanos = deadline[0] - System.nanoTime();
+      if (sleepNanos > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException("task interrupted", e);
+        }
       }
     });
   }
 
+  /**
+   * Number of steps of {@link #startAtFixedRate(LongConsumer, long, int)} that ran after their
+   * deadline had already passed, to catch up.
+   */
+  public long getLateTickCount() {
+    return lateTickCount.get();
+  }
+
+  /**
+   * Number of steps of {@link #startAtFixedRate(LongConsumer, long, int)} (or frames of {@link
+   * #startAtFrameRate(Runnable, int)}) that were skipped because the loop was too far behind.
+   */
+  public long getDroppedTickCount() {
+    return droppedTickCount.get();
+  }
+
   /**
    * Stops the running thread.
    */
@@ -85,6 +163,7 @@ public class Looper {
     isPaused.set(paused);
 
     if (!paused) {
+      wasResumed.set(true);
       synchronized (pauseLock) {
         pauseLock.notify();
       }
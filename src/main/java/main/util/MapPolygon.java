@@ -39,6 +39,14 @@ public class MapPolygon {
     shape = new Polygon(x, y, points.length);
   }
 
+  /**
+   * Gets the smallest {@link MapRect} that contains the whole polygon.
+   */
+  public MapRect getBounds() {
+    Rectangle2D bounds = this.shape.getBounds2D();
+    return new MapRect(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+  }
+
   /**
    * Checks if the point is contained in the diamond.
    */
@@ -1,6 +1,5 @@
 package main.util;
 
-import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
 
 /**
@@ -30,11 +29,15 @@ public class MapRect implements Serializable {
   }
 
   public MapRect(MapPoint topLeft, MapSize size) {
-    this(topLeft, new MapPoint(topLeft.x + size.width, topLeft.y + size.height));
+    this(topLeft.x, topLeft.y, size.width, size.height);
   }
 
+  /**
+   * Creates a {@link MapRect} from its top left and size, which may be negative.
+   */
   public MapRect(double x, double y, double width, double height) {
-    this(new MapPoint(x, y), new MapPoint(x + width, y + height));
+    this.topLeft = new MapPoint(Math.min(x, x + width), Math.min(y, y + height));
+    this.bottomRight = new MapPoint(Math.max(x, x + width), Math.max(y, y + height));
   }
 
   /**
@@ -103,7 +106,10 @@ public class MapRect implements Serializable {
   }
 
   public boolean overlapsWith(MapRect mapRect) {
-    return toAwtRectangle().intersects(mapRect.toAwtRectangle());
+    return Geometry.rectsOverlap(
+        topLeft.x, topLeft.y, getWidth(), getHeight(),
+        mapRect.topLeft.x, mapRect.topLeft.y, mapRect.getWidth(), mapRect.getHeight()
+    );
   }
 
   @Override
@@ -141,13 +147,4 @@ public class MapRect implements Serializable {
         getHeight()
       );
   }
-
-  private Rectangle2D.Double toAwtRectangle() {
-    return new Rectangle2D.Double(
-        topLeft.x,
-        topLeft.y,
-        getWidth(),
-        getHeight()
-    );
-  }
 }
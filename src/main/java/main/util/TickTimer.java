@@ -1,5 +1,8 @@
 package main.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectInputStream.GetField;
 import java.io.Serializable;
 import main.game.model.GameModel;
 
@@ -21,14 +24,14 @@ public class TickTimer implements Serializable {
   }
 
   /**
-   * Number of ticks left to end cool down.
+   * Milliseconds left to end cool down.
    */
-  private int ticksLeft;
+  private long millisLeft;
 
   /**
-   * Number of ticks in a cool-down period.
+   * Number of ticks in a cool-down period. Not final so that {@link #readObject} can set it.
    */
-  private final int maxTicks;
+  private int maxTicks;
 
   /**
    * Prefer to use the factory method {@link TickTimer#withPeriodInSeconds(double)}.
@@ -40,28 +43,52 @@ public class TickTimer implements Serializable {
     this.maxTicks = maxTicks;
   }
 
+  /**
+   * Counts down by the time that passed, so the timer keeps to real time even if ticks are late.
+   */
   public void tick(long timeSinceLastTick) {
-    ticksLeft = Math.max(0, ticksLeft - 1);
+    millisLeft = Math.max(0, millisLeft - timeSinceLastTick);
   }
 
   /**
    * 0 if just used, 1 if ready to use.
    */
   public double getProgress() {
-    double progress = 1 - (((double) ticksLeft) / maxTicks);
+    if (maxTicks == 0) {
+      return 1;
+    }
+    double progress = 1 - (((double) millisLeft) / getPeriodMillis());
     assert progress >= 0 && progress <= 1;
     return progress;
   }
 
   public boolean isFinished() {
-    return ticksLeft == 0;
+    return millisLeft == 0;
   }
 
   public void restart() {
-    ticksLeft = maxTicks;
+    millisLeft = getPeriodMillis();
+  }
+
+  /**
+   * Called during deserialisation. Timers saved before they counted milliseconds have the number
+   * of ticks left instead, which are converted.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    GetField fields = in.readFields();
+    this.maxTicks = fields.get("maxTicks", 0);
+    if (fields.defaulted("millisLeft")) {
+      this.millisLeft = fields.get("ticksLeft", 0) * GameModel.DELAY;
+    } else {
+      this.millisLeft = fields.get("millisLeft", 0L);
+    }
   }
 
   public int getMaxTicks() {
     return maxTicks;
   }
+
+  private long getPeriodMillis() {
+    return maxTicks * GameModel.DELAY;
+  }
 }